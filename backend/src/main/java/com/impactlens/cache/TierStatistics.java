@@ -0,0 +1,24 @@
+package com.impactlens.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hit and miss counts of one cache tier
+ */
+final class TierStatistics {
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    
+    void record(boolean hit) {
+        (hit ? hits : misses).increment();
+    }
+    
+    long hitCount() {
+        return hits.sum();
+    }
+    
+    long missCount() {
+        return misses.sum();
+    }
+}
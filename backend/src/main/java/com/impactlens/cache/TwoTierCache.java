@@ -0,0 +1,137 @@
+package com.impactlens.cache;
+
+import java.util.concurrent.Callable;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+/**
+ * A cache backed by an in-process Caffeine cache (L1) in front of a shared
+ * remote cache (L2).
+ *
+ * Reads try L1 first and copy L2 hits into it. Writes go to L2 only: they
+ * drop the local entry and tell the other nodes to drop theirs, so every
+ * node reloads the new value from L2 on its next read. L1 therefore only
+ * holds values as they were read from L2, never an instance a caller still
+ * holds. Those values are shared by every reader on the node, so callers
+ * copy a value before changing it.
+ */
+public class TwoTierCache implements Cache {
+    
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final Cache remote;
+    private final TwoTierCacheManager manager;
+    private final TierStatistics remoteStatistics = new TierStatistics();
+    
+    TwoTierCache(String name, com.github.benmanes.caffeine.cache.Cache<String, Object> local, Cache remote,
+                 TwoTierCacheManager manager) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.manager = manager;
+    }
+    
+    @Override
+    public String getName() {
+        return name;
+    }
+    
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+    
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            return new SimpleValueWrapper(value);
+        }
+        
+        ValueWrapper wrapper = remote.get(key);
+        remoteStatistics.record(wrapper != null);
+        if (wrapper != null && wrapper.get() != null) {
+            local.put(localKey, wrapper.get());
+        }
+        return wrapper;
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        return remote.get(key, valueLoader);
+    }
+    
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        invalidateLocal(key);
+    }
+    
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        invalidateLocal(key);
+    }
+    
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = remote.evictIfPresent(key);
+        invalidateLocal(key);
+        return present;
+    }
+    
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        manager.publishInvalidation(name, null);
+    }
+    
+    TierStatistics getRemoteStatistics() {
+        return remoteStatistics;
+    }
+    
+    com.github.benmanes.caffeine.cache.Cache<String, Object> getLocal() {
+        return local;
+    }
+    
+    /**
+     * Apply an invalidation received from another node; a null key clears
+     * the whole local tier
+     */
+    void onRemoteInvalidation(String localKey) {
+        if (localKey == null) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(localKey);
+        }
+    }
+    
+    private void invalidateLocal(Object key) {
+        String localKey = localKey(key);
+        local.invalidate(localKey);
+        manager.publishInvalidation(name, localKey);
+    }
+    
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
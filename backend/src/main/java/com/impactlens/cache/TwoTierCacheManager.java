@@ -0,0 +1,126 @@
+package com.impactlens.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Layers a weight-bounded in-process tier over every cache of a remote cache
+ * manager.
+ *
+ * Writes and evictions are announced on a Redis pub/sub channel so that the
+ * other nodes drop their local copy; a local entry also expires after a fixed
+ * time in case a message is lost. Lookups are counted per tier in the
+ * cache.gets meter, tagged tier=local or tier=remote.
+ */
+public class TwoTierCacheManager implements CacheManager {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TwoTierCacheManager.class);
+    
+    private static final String SEPARATOR = "\n";
+    
+    private final CacheManager remote;
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private final MeterRegistry meterRegistry;
+    private final long maximumWeight;
+    private final Duration expireAfterWrite;
+    private final Weigher<String, Object> weigher;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, TwoTierCache> caches = new ConcurrentHashMap<>();
+    
+    public TwoTierCacheManager(CacheManager remote, StringRedisTemplate redisTemplate, String channel,
+                               MeterRegistry meterRegistry, long maximumWeight, Duration expireAfterWrite,
+                               Weigher<String, Object> weigher) {
+        this.remote = remote;
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.meterRegistry = meterRegistry;
+        this.maximumWeight = maximumWeight;
+        this.expireAfterWrite = expireAfterWrite;
+        this.weigher = weigher;
+    }
+    
+    @Override
+    public Cache getCache(String name) {
+        TwoTierCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache remoteCache = remote.getCache(name);
+        if (remoteCache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, key -> createCache(key, remoteCache));
+    }
+    
+    @Override
+    public Collection<String> getCacheNames() {
+        return remote.getCacheNames();
+    }
+    
+    /**
+     * Tell the other nodes to drop a local entry; a null key drops the whole
+     * local tier of the cache
+     */
+    void publishInvalidation(String cacheName, String localKey) {
+        String message = nodeId + SEPARATOR + cacheName + (localKey != null ? SEPARATOR + localKey : "");
+        try {
+            redisTemplate.convertAndSend(channel, message);
+        } catch (RuntimeException e) {
+            // Other nodes fall back to the local expiry
+            logger.warn("Failed to publish invalidation of {} in cache {}", localKey, cacheName, e);
+        }
+    }
+    
+    /**
+     * Apply an invalidation published by another node
+     */
+    public void onInvalidationMessage(String message) {
+        String[] parts = message.split(SEPARATOR, 3);
+        if (parts.length < 2 || parts[0].equals(nodeId)) {
+            return;
+        }
+        TwoTierCache cache = caches.get(parts[1]);
+        if (cache != null) {
+            cache.onRemoteInvalidation(parts.length == 3 ? parts[2] : null);
+        }
+    }
+    
+    private TwoTierCache createCache(String name, Cache remoteCache) {
+        com.github.benmanes.caffeine.cache.Cache<String, Object> local = Caffeine.newBuilder()
+            .maximumWeight(maximumWeight)
+            .weigher(weigher)
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .build();
+        TwoTierCache cache = new TwoTierCache(name, local, remoteCache, this);
+        
+        CaffeineCacheMetrics.monitor(meterRegistry, local, name, "tier", "local");
+        TierStatistics remoteStatistics = cache.getRemoteStatistics();
+        FunctionCounter.builder("cache.gets", remoteStatistics, TierStatistics::hitCount)
+            .description("The number of times cache lookup methods have returned a cached value.")
+            .tags("cache", name, "tier", "remote", "result", "hit")
+            .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", remoteStatistics, TierStatistics::missCount)
+            .description("The number of times cache lookup methods have returned an uncached (newly loaded) value, or null")
+            .tags("cache", name, "tier", "remote", "result", "miss")
+            .register(meterRegistry);
+        return cache;
+    }
+}
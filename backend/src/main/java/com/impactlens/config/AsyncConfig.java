@@ -0,0 +1,109 @@
+package com.impactlens.config;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executors used by the analysis pipeline.
+ *
+ * The stage executor is bounded so that a burst of analyses cannot spawn an
+ * unbounded number of threads; when the queue is full the submitting thread
+ * runs the stage itself. The job executor runs whole asynchronous analyses
+ * and rejects new jobs once its queue is full. The OpenAI request executor
+ * caps the number of concurrent model calls, and the search index executor
+ * runs background index builds one at a time. The embedding executor runs
+ * CPU-bound embedding batches, one thread per core by default.
+ */
+@Configuration
+public class AsyncConfig {
+
+    @Value("${analysis.stage-executor.core-pool-size:8}")
+    private int stageCorePoolSize;
+
+    @Value("${analysis.stage-executor.max-pool-size:16}")
+    private int stageMaxPoolSize;
+
+    @Value("${analysis.stage-executor.queue-capacity:100}")
+    private int stageQueueCapacity;
+
+    @Value("${analysis.jobs.core-pool-size:4}")
+    private int jobCorePoolSize;
+
+    @Value("${analysis.jobs.max-pool-size:8}")
+    private int jobMaxPoolSize;
+
+    @Value("${analysis.jobs.queue-capacity:200}")
+    private int jobQueueCapacity;
+
+    @Value("${openai.max-concurrent-requests:4}")
+    private int openAIMaxConcurrentRequests;
+
+    @Value("${analysis.embedding.threads:0}")
+    private int embeddingThreads;
+
+    @Bean(name = "analysisStageExecutor")
+    public Executor analysisStageExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(stageCorePoolSize);
+        executor.setMaxPoolSize(stageMaxPoolSize);
+        executor.setQueueCapacity(stageQueueCapacity);
+        executor.setThreadNamePrefix("analysis-stage-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "analysisJobExecutor")
+    public Executor analysisJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(jobCorePoolSize);
+        executor.setMaxPoolSize(jobMaxPoolSize);
+        executor.setQueueCapacity(jobQueueCapacity);
+        executor.setThreadNamePrefix("analysis-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "openAIRequestExecutor")
+    public Executor openAIRequestExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(openAIMaxConcurrentRequests);
+        executor.setMaxPoolSize(openAIMaxConcurrentRequests);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("openai-request-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "searchIndexExecutor")
+    public Executor searchIndexExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("search-index-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "embeddingExecutor")
+    public Executor embeddingExecutor() {
+        int threads = embeddingThreads > 0 ? embeddingThreads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("embedding-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
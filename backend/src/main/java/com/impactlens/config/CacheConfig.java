@@ -0,0 +1,94 @@
+package com.impactlens.config;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.impactlens.cache.TwoTierCacheManager;
+import com.impactlens.dto.AnalysisResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Cache manager with an in-process tier on each node in front of Redis.
+ *
+ * The Redis tier keeps the spring.cache.redis settings. Analysis reports are
+ * stored in Redis as JSON. The local tier is bounded by weight: an analysis
+ * weighs one plus the number of items in its report, and any other value
+ * weighs one.
+ */
+@Configuration
+public class CacheConfig {
+    
+    @Value("${spring.cache.redis.time-to-live:86400000}")
+    private long timeToLive;
+    
+    @Value("${analysis.cache.local.maximum-weight:50000}")
+    private long localMaximumWeight;
+    
+    @Value("${analysis.cache.local.expire-after-write:600000}")
+    private long localExpireAfterWrite;
+    
+    @Value("${analysis.cache.invalidation-channel:impactlens:cache-invalidation}")
+    private String invalidationChannel;
+    
+    @Bean
+    public TwoTierCacheManager cacheManager(RedisConnectionFactory connectionFactory, StringRedisTemplate redisTemplate,
+                                            ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        RedisCacheConfiguration defaults = RedisCacheConfiguration.defaultCacheConfig()
+            .entryTtl(Duration.ofMillis(timeToLive))
+            .disableCachingNullValues();
+        RedisCacheConfiguration analysis = defaults.serializeValuesWith(RedisSerializationContext.SerializationPair
+            .fromSerializer(analysisSerializer(objectMapper)));
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+            .cacheDefaults(defaults)
+            .withCacheConfiguration("analysis", analysis)
+            .build();
+        redisCacheManager.afterPropertiesSet();
+        
+        return new TwoTierCacheManager(redisCacheManager, redisTemplate, invalidationChannel, meterRegistry,
+            localMaximumWeight, Duration.ofMillis(localExpireAfterWrite), (key, value) -> weigh(value));
+    }
+    
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListener(RedisConnectionFactory connectionFactory,
+                                                                   TwoTierCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+            (message, pattern) -> cacheManager.onInvalidationMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+            new ChannelTopic(invalidationChannel));
+        return container;
+    }
+    
+    static RedisSerializer<AnalysisResponse> analysisSerializer(ObjectMapper objectMapper) {
+        return new Jackson2JsonRedisSerializer<>(objectMapper, AnalysisResponse.class);
+    }
+    
+    static int weigh(Object value) {
+        if (!(value instanceof AnalysisResponse) || ((AnalysisResponse) value).getReport() == null) {
+            return 1;
+        }
+        AnalysisResponse.AnalysisReport report = ((AnalysisResponse) value).getReport();
+        return 1 + size(report.getRelatedTickets()) + size(report.getGapsIdentified())
+            + size(report.getRegressionAreas()) + size(report.getRecommendations());
+    }
+    
+    private static int size(List<?> items) {
+        return items != null ? items.size() : 0;
+    }
+}
@@ -1,10 +1,18 @@
 package com.impactlens.controllers;
 
+import java.net.URI;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.Executor;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -16,9 +24,11 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.impactlens.dto.AnalysisRequest;
 import com.impactlens.dto.AnalysisResponse;
+import com.impactlens.dto.BatchAnalysisRequest;
 import com.impactlens.services.AnalysisService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -36,27 +46,99 @@ public class AnalysisController {
     @Autowired
     private AnalysisService analysisService;
     
+    @Autowired
+    @Qualifier("analysisJobExecutor")
+    private Executor analysisJobExecutor;
+    
+    @Value("${analysis.stream.timeout:300000}")
+    private long streamTimeout;
+    
     @PostMapping("/analyze")
-    @Operation(summary = "Analyze a Jira ticket", description = "Perform comprehensive analysis of a Jira ticket")
+    @Operation(summary = "Analyze a Jira ticket", description = "Perform comprehensive analysis of a Jira ticket. " +
+        "With async=true the analysis is queued and 202 is returned with an analysisId to poll on /status")
     public ResponseEntity<AnalysisResponse> analyzeTicket(
             @Valid @RequestBody AnalysisRequest request,
+            @RequestParam(defaultValue = "false") boolean async,
             Authentication authentication) {
         
-        logger.info("Starting analysis for ticket: {}", request.getTicketId());
+        logger.info("Starting {} analysis for ticket: {}", async ? "async" : "sync", request.getTicketId());
         
         try {
+            if (async) {
+                AnalysisResponse queued = analysisService.submitAnalysis(request, authentication);
+                return ResponseEntity
+                    .accepted()
+                    .location(URI.create("/api/analysis/status/" + queued.getAnalysisId()))
+                    .body(queued);
+            }
+            
             AnalysisResponse response = analysisService.analyzeTicket(request, authentication);
             logger.info("Analysis completed for ticket: {} in {}ms", 
                 request.getTicketId(), response.getMetadata().getProcessingTime());
             
             return ResponseEntity.ok(response);
             
+        } catch (TaskRejectedException e) {
+            logger.warn("Analysis queue is full, rejecting ticket: {}", request.getTicketId());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+            
         } catch (Exception e) {
             logger.error("Analysis failed for ticket: {}", request.getTicketId(), e);
             return ResponseEntity.internalServerError().build();
         }
     }
     
+    @PostMapping("/analyze/batch")
+    @Operation(summary = "Analyze many Jira tickets", description = "Analyze a batch of tickets, sharing ticket " +
+        "loads, keyword searches and relevance scores across the batch")
+    public ResponseEntity<List<AnalysisResponse>> analyzeTickets(
+            @Valid @RequestBody BatchAnalysisRequest request,
+            Authentication authentication) {
+        
+        logger.info("Starting batch analysis for {} tickets", request.getTicketIds().size());
+        
+        try {
+            List<AnalysisResponse> responses = analysisService.analyzeTickets(request, authentication);
+            return ResponseEntity.ok(responses);
+            
+        } catch (Exception e) {
+            logger.error("Batch analysis failed", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    @PostMapping(value = "/analyze/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream a Jira ticket analysis", description = "Perform the analysis and push each report " +
+        "section (ticket, relatedTickets, gaps, regressionAreas, summary) as a server-sent event as soon as it is ready")
+    public SseEmitter streamAnalysis(
+            @Valid @RequestBody AnalysisRequest request,
+            Authentication authentication) {
+        
+        logger.info("Starting streamed analysis for ticket: {}", request.getTicketId());
+        
+        SseEmitter emitter = new SseEmitter(streamTimeout);
+        AnalysisEventStream stream = new AnalysisEventStream(emitter);
+        
+        try {
+            analysisJobExecutor.execute(() -> {
+                try {
+                    AnalysisResponse response = analysisService.analyzeTicket(request, authentication, stream);
+                    stream.complete(response);
+                    
+                } catch (Exception e) {
+                    logger.error("Streamed analysis failed for ticket: {}", request.getTicketId(), e);
+                    stream.fail("Analysis failed");
+                }
+            });
+            
+        } catch (TaskRejectedException e) {
+            logger.warn("Analysis queue is full, rejecting streamed ticket: {}", request.getTicketId());
+            stream.fail("Analysis queue is full");
+        }
+        
+        return emitter;
+    }
+    
     @GetMapping("/status/{analysisId}")
     @Operation(summary = "Get analysis status", description = "Check the status of an ongoing analysis")
     public ResponseEntity<AnalysisResponse> getAnalysisStatus(
@@ -67,6 +149,9 @@ public class AnalysisController {
         
         try {
             AnalysisResponse response = analysisService.getAnalysisStatus(analysisId, authentication);
+            if (response == null) {
+                return ResponseEntity.notFound().build();
+            }
             return ResponseEntity.ok(response);
             
         } catch (Exception e) {
@@ -0,0 +1,101 @@
+package com.impactlens.controllers;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.impactlens.dto.AnalysisResponse;
+import com.impactlens.services.AnalysisStageListener;
+
+/**
+ * Forwards report sections to an SSE client as soon as each stage finishes.
+ *
+ * Sections that were never published to this stream (for example when the
+ * caller joined an identical analysis already in flight) are sent from the
+ * final response before the closing "complete" event.
+ */
+class AnalysisEventStream implements AnalysisStageListener {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisEventStream.class);
+    
+    static final String EVENT_COMPLETE = "complete";
+    static final String EVENT_ERROR = "error";
+    
+    private final SseEmitter emitter;
+    private final Set<String> sentSections = new HashSet<>();
+    private boolean closed;
+    
+    AnalysisEventStream(SseEmitter emitter) {
+        this.emitter = emitter;
+        emitter.onCompletion(this::markClosed);
+        emitter.onTimeout(this::markClosed);
+        emitter.onError(error -> markClosed());
+    }
+    
+    @Override
+    public void onSectionReady(String section, Object payload) {
+        send(section, payload);
+    }
+    
+    /**
+     * Send any sections still missing, then the full response, and close the stream
+     */
+    void complete(AnalysisResponse response) {
+        AnalysisResponse.AnalysisReport report = response.getReport();
+        if (report != null) {
+            sendIfMissing(SECTION_TICKET, report.getSourceTicket());
+            sendIfMissing(SECTION_RELATED_TICKETS, report.getRelatedTickets());
+            sendIfMissing(SECTION_GAPS, report.getGapsIdentified());
+            sendIfMissing(SECTION_REGRESSION_AREAS, report.getRegressionAreas());
+            sendIfMissing(SECTION_SUMMARY, report.getSummary());
+        }
+        send(EVENT_COMPLETE, response);
+        synchronized (this) {
+            if (!closed) {
+                emitter.complete();
+            }
+        }
+    }
+    
+    void fail(String message) {
+        send(EVENT_ERROR, message);
+        synchronized (this) {
+            if (!closed) {
+                emitter.complete();
+            }
+        }
+    }
+    
+    private synchronized void sendIfMissing(String section, Object payload) {
+        if (payload != null && !sentSections.contains(section)) {
+            send(section, payload);
+        }
+    }
+    
+    private synchronized void send(String event, Object payload) {
+        if (closed) {
+            return;
+        }
+        
+        try {
+            emitter.send(SseEmitter.event()
+                .name(event)
+                .data(payload, MediaType.APPLICATION_JSON));
+            sentSections.add(event);
+            
+        } catch (IOException e) {
+            // The client went away; keep the analysis running so the result is cached
+            logger.debug("Dropping event {} for disconnected client: {}", event, e.getMessage());
+            closed = true;
+        }
+    }
+    
+    private synchronized void markClosed() {
+        closed = true;
+    }
+}
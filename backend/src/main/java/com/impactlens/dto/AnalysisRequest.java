@@ -1,5 +1,12 @@
 package com.impactlens.dto;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
@@ -11,6 +18,7 @@ public class AnalysisRequest {
     private String ticketId;
     
     @NotNull(message = "Analysis options are required")
+    @Valid
     private AnalysisOptions options;
     
     public static class AnalysisOptions {
@@ -19,6 +27,15 @@ public class AnalysisRequest {
         private String analysisDepth = "detailed";
         private int maxRelatedTickets = 20;
         private double minRelevanceScore = 0.3;
+        private CandidateFilter candidateFilter;
+        
+        /**
+         * How many hops of the ticket graph to follow for related tickets;
+         * 1 reports direct relations only
+         */
+        @Min(value = 1, message = "Transitive depth must be at least 1")
+        @Max(value = 4, message = "Transitive depth must be at most 4")
+        private int transitiveDepth = 1;
         
         // Getters and Setters
         public boolean isIncludeComments() {
@@ -60,6 +77,133 @@ public class AnalysisRequest {
         public void setMinRelevanceScore(double minRelevanceScore) {
             this.minRelevanceScore = minRelevanceScore;
         }
+        
+        public CandidateFilter getCandidateFilter() {
+            return candidateFilter;
+        }
+        
+        public void setCandidateFilter(CandidateFilter candidateFilter) {
+            this.candidateFilter = candidateFilter;
+        }
+        
+        public int getTransitiveDepth() {
+            return transitiveDepth;
+        }
+        
+        public void setTransitiveDepth(int transitiveDepth) {
+            this.transitiveDepth = transitiveDepth;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof AnalysisOptions)) {
+                return false;
+            }
+            AnalysisOptions that = (AnalysisOptions) o;
+            return includeComments == that.includeComments
+                && includeAttachments == that.includeAttachments
+                && maxRelatedTickets == that.maxRelatedTickets
+                && Double.compare(minRelevanceScore, that.minRelevanceScore) == 0
+                && transitiveDepth == that.transitiveDepth
+                && Objects.equals(analysisDepth, that.analysisDepth)
+                && Objects.equals(candidateFilter, that.candidateFilter);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(includeComments, includeAttachments, analysisDepth, maxRelatedTickets,
+                minRelevanceScore, candidateFilter, transitiveDepth);
+        }
+    }
+    
+    /**
+     * Restricts related-ticket candidates. Values within one field are
+     * alternatives; fields are combined with AND. Empty fields do not filter.
+     */
+    public static class CandidateFilter {
+        private List<String> statuses = new ArrayList<>();
+        private List<String> priorities = new ArrayList<>();
+        private List<String> assignees = new ArrayList<>();
+        private List<String> projects = new ArrayList<>();
+        
+        public boolean isEmpty() {
+            return isEmpty(statuses) && isEmpty(priorities) && isEmpty(assignees) && isEmpty(projects);
+        }
+        
+        /**
+         * Check a ticket's field values against the filter without any index
+         */
+        public boolean matches(String ticketKey, String status, String priority, String assignee) {
+            String project = ticketKey.contains("-") ? ticketKey.substring(0, ticketKey.indexOf('-')) : ticketKey;
+            return matches(statuses, status)
+                && matches(priorities, priority)
+                && matches(assignees, assignee)
+                && matches(projects, project);
+        }
+        
+        private static boolean isEmpty(List<String> values) {
+            return values == null || values.isEmpty();
+        }
+        
+        private static boolean matches(List<String> values, String value) {
+            return isEmpty(values) || (value != null && values.stream().anyMatch(value::equalsIgnoreCase));
+        }
+        
+        // Getters and Setters
+        public List<String> getStatuses() {
+            return statuses;
+        }
+        
+        public void setStatuses(List<String> statuses) {
+            this.statuses = statuses;
+        }
+        
+        public List<String> getPriorities() {
+            return priorities;
+        }
+        
+        public void setPriorities(List<String> priorities) {
+            this.priorities = priorities;
+        }
+        
+        public List<String> getAssignees() {
+            return assignees;
+        }
+        
+        public void setAssignees(List<String> assignees) {
+            this.assignees = assignees;
+        }
+        
+        public List<String> getProjects() {
+            return projects;
+        }
+        
+        public void setProjects(List<String> projects) {
+            this.projects = projects;
+        }
+        
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CandidateFilter)) {
+                return false;
+            }
+            CandidateFilter that = (CandidateFilter) o;
+            return Objects.equals(statuses, that.statuses)
+                && Objects.equals(priorities, that.priorities)
+                && Objects.equals(assignees, that.assignees)
+                && Objects.equals(projects, that.projects);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Objects.hash(statuses, priorities, assignees, projects);
+        }
     }
     
     // Constructors
@@ -2,16 +2,20 @@ package com.impactlens.dto;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public class AnalysisResponse {
     
     private UUID analysisId;
     private String status;
+    private String stage;
+    private String errorMessage;
     private AnalysisReport report;
     private AnalysisMetadata metadata;
     
     public static class AnalysisReport {
+        private RelatedTicket sourceTicket;
         private String summary;
         private List<GapAnalysis> gapsIdentified;
         private List<RelatedTicket> relatedTickets;
@@ -19,6 +23,14 @@ public class AnalysisResponse {
         private List<String> recommendations;
         
         // Getters and Setters
+        public RelatedTicket getSourceTicket() {
+            return sourceTicket;
+        }
+        
+        public void setSourceTicket(RelatedTicket sourceTicket) {
+            this.sourceTicket = sourceTicket;
+        }
+        
         public String getSummary() {
             return summary;
         }
@@ -115,8 +127,12 @@ public class AnalysisResponse {
         private String status;
         private String priority;
         private double relevanceScore;
+        private int rank;
         private String relationshipType;
         private String impactDescription;
+        private List<String> duplicateTicketKeys;
+        private int hops = 1;
+        private String viaTicketKey;
         
         // Getters and Setters
         public String getTicketKey() {
@@ -159,6 +175,14 @@ public class AnalysisResponse {
             this.relevanceScore = relevanceScore;
         }
         
+        public int getRank() {
+            return rank;
+        }
+        
+        public void setRank(int rank) {
+            this.rank = rank;
+        }
+        
         public String getRelationshipType() {
             return relationshipType;
         }
@@ -174,6 +198,30 @@ public class AnalysisResponse {
         public void setImpactDescription(String impactDescription) {
             this.impactDescription = impactDescription;
         }
+        
+        public List<String> getDuplicateTicketKeys() {
+            return duplicateTicketKeys;
+        }
+        
+        public void setDuplicateTicketKeys(List<String> duplicateTicketKeys) {
+            this.duplicateTicketKeys = duplicateTicketKeys;
+        }
+        
+        public int getHops() {
+            return hops;
+        }
+        
+        public void setHops(int hops) {
+            this.hops = hops;
+        }
+        
+        public String getViaTicketKey() {
+            return viaTicketKey;
+        }
+        
+        public void setViaTicketKey(String viaTicketKey) {
+            this.viaTicketKey = viaTicketKey;
+        }
     }
     
     public static class RegressionArea {
@@ -231,6 +279,8 @@ public class AnalysisResponse {
         private boolean cacheHit;
         private LocalDateTime completedAt;
         private String modelUsed;
+        private Map<String, Long> stageTimings;
+        private int coalescedRequests;
         
         // Getters and Setters
         public long getProcessingTime() {
@@ -272,6 +322,22 @@ public class AnalysisResponse {
         public void setModelUsed(String modelUsed) {
             this.modelUsed = modelUsed;
         }
+        
+        public Map<String, Long> getStageTimings() {
+            return stageTimings;
+        }
+        
+        public void setStageTimings(Map<String, Long> stageTimings) {
+            this.stageTimings = stageTimings;
+        }
+        
+        public int getCoalescedRequests() {
+            return coalescedRequests;
+        }
+        
+        public void setCoalescedRequests(int coalescedRequests) {
+            this.coalescedRequests = coalescedRequests;
+        }
     }
     
     // Constructors
@@ -301,6 +367,22 @@ public class AnalysisResponse {
         this.status = status;
     }
     
+    public String getStage() {
+        return stage;
+    }
+    
+    public void setStage(String stage) {
+        this.stage = stage;
+    }
+    
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+    
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+    
     public AnalysisReport getReport() {
         return report;
     }
@@ -0,0 +1,53 @@
+package com.impactlens.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+public class BatchAnalysisRequest {
+    
+    @NotEmpty(message = "At least one ticket ID is required")
+    @Size(max = 200, message = "A batch can contain at most 200 tickets")
+    private List<@Pattern(regexp = "^[A-Z]+-\\d+$", message = "Ticket ID must be in format PROJECT-123") String> ticketIds;
+    
+    @Valid
+    @NotNull(message = "Analysis options are required")
+    private AnalysisRequest.AnalysisOptions options;
+    
+    // Constructors
+    public BatchAnalysisRequest() {}
+    
+    public BatchAnalysisRequest(List<String> ticketIds, AnalysisRequest.AnalysisOptions options) {
+        this.ticketIds = ticketIds;
+        this.options = options;
+    }
+    
+    // Getters and Setters
+    public List<String> getTicketIds() {
+        return ticketIds;
+    }
+    
+    public void setTicketIds(List<String> ticketIds) {
+        this.ticketIds = ticketIds;
+    }
+    
+    public AnalysisRequest.AnalysisOptions getOptions() {
+        return options;
+    }
+    
+    public void setOptions(AnalysisRequest.AnalysisOptions options) {
+        this.options = options;
+    }
+    
+    @Override
+    public String toString() {
+        return "BatchAnalysisRequest{" +
+                "ticketIds=" + ticketIds +
+                ", options=" + options +
+                '}';
+    }
+}
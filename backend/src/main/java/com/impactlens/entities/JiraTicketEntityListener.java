@@ -0,0 +1,36 @@
+package com.impactlens.entities;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import com.impactlens.events.JiraTicketChangedEvent;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Publishes a JiraTicketChangedEvent for every ticket written through JPA so
+ * in-memory search structures can update incrementally.
+ *
+ * Hibernate obtains this listener from the Spring context, so it can be
+ * injected like any other bean.
+ */
+@Component
+public class JiraTicketEntityListener {
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @PostPersist
+    @PostUpdate
+    public void onSaved(JiraTicket ticket) {
+        eventPublisher.publishEvent(JiraTicketChangedEvent.saved(ticket));
+    }
+    
+    @PostRemove
+    public void onRemoved(JiraTicket ticket) {
+        eventPublisher.publishEvent(JiraTicketChangedEvent.deleted(ticket));
+    }
+}
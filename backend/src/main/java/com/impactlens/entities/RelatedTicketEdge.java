@@ -0,0 +1,114 @@
+package com.impactlens.entities;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * A computed relevance score between two tickets. Each pair is stored once,
+ * with the lexicographically smaller key as the source, together with the
+ * updated_at of both tickets at the time it was scored.
+ */
+@Entity
+@Table(name = "related_tickets",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"source_ticket_key", "related_ticket_key"}))
+public class RelatedTicketEdge {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+    
+    @Column(name = "source_ticket_key", nullable = false, length = 50)
+    private String sourceTicketKey;
+    
+    @Column(name = "related_ticket_key", nullable = false, length = 50)
+    private String relatedTicketKey;
+    
+    @Column(name = "relevance_score", precision = 3, scale = 2)
+    private BigDecimal relevanceScore;
+    
+    @Column(name = "relationship_type", length = 50)
+    private String relationshipType;
+    
+    @Column(name = "source_updated_at")
+    private LocalDateTime sourceUpdatedAt;
+    
+    @Column(name = "related_updated_at")
+    private LocalDateTime relatedUpdatedAt;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+    
+    public void setId(UUID id) {
+        this.id = id;
+    }
+    
+    public String getSourceTicketKey() {
+        return sourceTicketKey;
+    }
+    
+    public void setSourceTicketKey(String sourceTicketKey) {
+        this.sourceTicketKey = sourceTicketKey;
+    }
+    
+    public String getRelatedTicketKey() {
+        return relatedTicketKey;
+    }
+    
+    public void setRelatedTicketKey(String relatedTicketKey) {
+        this.relatedTicketKey = relatedTicketKey;
+    }
+    
+    public BigDecimal getRelevanceScore() {
+        return relevanceScore;
+    }
+    
+    public void setRelevanceScore(BigDecimal relevanceScore) {
+        this.relevanceScore = relevanceScore;
+    }
+    
+    public String getRelationshipType() {
+        return relationshipType;
+    }
+    
+    public void setRelationshipType(String relationshipType) {
+        this.relationshipType = relationshipType;
+    }
+    
+    public LocalDateTime getSourceUpdatedAt() {
+        return sourceUpdatedAt;
+    }
+    
+    public void setSourceUpdatedAt(LocalDateTime sourceUpdatedAt) {
+        this.sourceUpdatedAt = sourceUpdatedAt;
+    }
+    
+    public LocalDateTime getRelatedUpdatedAt() {
+        return relatedUpdatedAt;
+    }
+    
+    public void setRelatedUpdatedAt(LocalDateTime relatedUpdatedAt) {
+        this.relatedUpdatedAt = relatedUpdatedAt;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,92 @@
+package com.impactlens.events;
+
+import java.time.LocalDateTime;
+
+import com.impactlens.entities.JiraTicket;
+
+/**
+ * Published whenever a Jira ticket row is inserted, updated or deleted.
+ *
+ * Carries a snapshot of the indexed fields so listeners never touch the
+ * entity (or its persistence context) after the transaction has finished.
+ */
+public class JiraTicketChangedEvent {
+    
+    public enum ChangeType {
+        SAVED, DELETED
+    }
+    
+    private final ChangeType changeType;
+    private final String ticketKey;
+    private final String summary;
+    private final String description;
+    private final String status;
+    private final String priority;
+    private final String assignee;
+    private final LocalDateTime updatedAt;
+    
+    private JiraTicketChangedEvent(ChangeType changeType, JiraTicket ticket) {
+        this.changeType = changeType;
+        this.ticketKey = ticket.getTicketKey();
+        this.summary = ticket.getSummary();
+        this.description = ticket.getDescription();
+        this.status = ticket.getStatus();
+        this.priority = ticket.getPriority();
+        this.assignee = ticket.getAssignee();
+        this.updatedAt = ticket.getUpdatedAt();
+    }
+    
+    public static JiraTicketChangedEvent saved(JiraTicket ticket) {
+        return new JiraTicketChangedEvent(ChangeType.SAVED, ticket);
+    }
+    
+    public static JiraTicketChangedEvent deleted(JiraTicket ticket) {
+        return new JiraTicketChangedEvent(ChangeType.DELETED, ticket);
+    }
+    
+    // Getters
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+    
+    public boolean isDeleted() {
+        return changeType == ChangeType.DELETED;
+    }
+    
+    public String getTicketKey() {
+        return ticketKey;
+    }
+    
+    public String getSummary() {
+        return summary;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public String getPriority() {
+        return priority;
+    }
+    
+    public String getAssignee() {
+        return assignee;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    @Override
+    public String toString() {
+        return "JiraTicketChangedEvent{" +
+                "changeType=" + changeType +
+                ", ticketKey='" + ticketKey + '\'' +
+                ", updatedAt=" + updatedAt +
+                '}';
+    }
+}
@@ -0,0 +1,12 @@
+package com.impactlens.repositories;
+
+/**
+ * A ticket found by a keyword search run for several source tickets at once,
+ * with the source ticket it was found for
+ */
+public interface CandidateMatch {
+    
+    String getSourceKey();
+    
+    String getTicketKey();
+}
@@ -1,10 +1,18 @@
 package com.impactlens.repositories;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -15,11 +23,103 @@ import com.impactlens.entities.JiraTicket;
 @Repository
 public interface JiraTicketRepository extends JpaRepository<JiraTicket, UUID> {
     
+    /**
+     * Select list of the native candidate searches, matching TicketCandidate
+     */
+    String CANDIDATE_COLUMNS = "jt.ticket_key AS \"ticketKey\", jt.summary AS \"summary\", " +
+        "jt.description AS \"description\", jt.status AS \"status\", jt.priority AS \"priority\", " +
+        "jt.assignee AS \"assignee\", jt.updated_at AS \"updatedAt\" ";
+    
+    /**
+     * JPQL select list and source of the TicketCandidate projection
+     */
+    String CANDIDATE_PROJECTION = "SELECT jt.ticketKey AS ticketKey, jt.summary AS summary, " +
+        "jt.description AS description, jt.status AS status, jt.priority AS priority, " +
+        "jt.assignee AS assignee, jt.updatedAt AS updatedAt FROM JiraTicket jt ";
+    
+    /**
+     * Joins the keywords of one source ticket into a single array element of
+     * the per-source keyword search
+     */
+    String KEYWORD_SEPARATOR = "\u001F";
+    
     /**
      * Find ticket by ticket key
      */
     Optional<JiraTicket> findByTicketKey(String ticketKey);
     
+    /**
+     * Version of the stored ticket, without loading the row
+     */
+    @Query("SELECT jt.updatedAt FROM JiraTicket jt WHERE jt.ticketKey = :ticketKey")
+    Optional<LocalDateTime> findUpdatedAtByTicketKey(@Param("ticketKey") String ticketKey);
+    
+    /**
+     * Find all tickets with the given keys in a single query
+     */
+    List<JiraTicket> findByTicketKeyIn(Collection<String> ticketKeys);
+    
+    /**
+     * Load tickets by key in a single query, returned in the order of the given keys
+     */
+    default List<JiraTicket> findByTicketKeyInPreservingOrder(List<String> ticketKeys) {
+        if (ticketKeys.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<String, JiraTicket> ticketsByKey = findByTicketKeyIn(ticketKeys).stream()
+            .collect(Collectors.toMap(JiraTicket::getTicketKey, ticket -> ticket));
+        return ticketKeys.stream()
+            .map(ticketsByKey::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+    
+    /**
+     * Load the candidate columns of the tickets with the given keys in a single query
+     */
+    @Query(CANDIDATE_PROJECTION + "WHERE jt.ticketKey IN :ticketKeys")
+    List<TicketCandidate> findCandidatesByTicketKeyIn(@Param("ticketKeys") Collection<String> ticketKeys);
+    
+    /**
+     * Load candidate tickets by key in a single query, returned in the order of the given keys
+     */
+    default List<JiraTicket> findCandidatesByTicketKeyInPreservingOrder(List<String> ticketKeys) {
+        if (ticketKeys.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<String, TicketCandidate> candidatesByKey = findCandidatesByTicketKeyIn(ticketKeys).stream()
+            .collect(Collectors.toMap(TicketCandidate::getTicketKey, candidate -> candidate));
+        return ticketKeys.stream()
+            .map(candidatesByKey::get)
+            .filter(Objects::nonNull)
+            .map(TicketCandidate::toTicket)
+            .collect(Collectors.toList());
+    }
+    
+    /**
+     * The candidate columns of the tickets whose key sorts after the given key,
+     * in key order. The pageable only limits the rows; no count query is run.
+     */
+    @Query(CANDIDATE_PROJECTION + "WHERE jt.ticketKey > :afterKey ORDER BY jt.ticketKey")
+    List<TicketCandidate> findCandidatesAfter(@Param("afterKey") String afterKey, Pageable pageable);
+    
+    /**
+     * Read the candidate columns of every ticket in pages of the given size,
+     * in ticket key order. Pages are read by keyset on the ticket key index,
+     * so each page is one range query regardless of how far the scan is.
+     */
+    default void forEachCandidatePage(int pageSize, Consumer<List<TicketCandidate>> consumer) {
+        String afterKey = "";
+        List<TicketCandidate> page;
+        do {
+            page = findCandidatesAfter(afterKey, PageRequest.of(0, pageSize));
+            if (!page.isEmpty()) {
+                consumer.accept(page);
+                afterKey = page.get(page.size() - 1).getTicketKey();
+            }
+        } while (page.size() == pageSize);
+    }
+    
     /**
      * Find tickets by status
      */
@@ -55,6 +155,128 @@ public interface JiraTicketRepository extends JpaRepository<JiraTicket, UUID> {
            "LOWER(jt.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
     List<JiraTicket> searchTickets(@Param("searchTerm") String searchTerm);
     
+    /**
+     * Search tickets matching any of the keywords in summary or description in a
+     * single query. Each ticket is returned once, ranked by the number of
+     * keywords it matches, then by most recent update, excluding the given
+     * ticket and capped at the limit. The keyword collection must not be empty.
+     */
+    @Query(value = "SELECT " + CANDIDATE_COLUMNS + "FROM jira_tickets jt " +
+           "JOIN (SELECT t.id, COUNT(*) AS hits FROM jira_tickets t " +
+           "      CROSS JOIN unnest(CAST(ARRAY[:keywords] AS text[])) AS kw(term) " +
+           "      WHERE t.ticket_key <> :excludeKey " +
+           "        AND (t.summary ILIKE '%' || kw.term || '%' OR t.description ILIKE '%' || kw.term || '%') " +
+           "      GROUP BY t.id " +
+           "      ORDER BY hits DESC, t.updated_at DESC NULLS LAST, t.ticket_key " +
+           "      LIMIT :limit) matches ON matches.id = jt.id " +
+           "ORDER BY matches.hits DESC, jt.updated_at DESC NULLS LAST, jt.ticket_key",
+           nativeQuery = true)
+    List<TicketCandidate> searchTicketsByKeywords(@Param("keywords") Collection<String> keywords,
+                                             @Param("excludeKey") String excludeKey,
+                                             @Param("limit") int limit);
+    
+    /**
+     * searchTicketsByKeywords for several source tickets in one query. Each
+     * source is ranked and capped by its own keywords in a lateral subquery,
+     * so it gets exactly the tickets a search of its own would return, in
+     * the same order. Returns keys only, grouped by source in the order
+     * given; keywordLists holds each source's keywords joined with
+     * KEYWORD_SEPARATOR, position by position with sourceKeys.
+     */
+    @Query(value = "SELECT src.source_key AS \"sourceKey\", matches.ticket_key AS \"ticketKey\" " +
+           "FROM unnest(CAST(ARRAY[:sourceKeys] AS text[]), CAST(ARRAY[:keywordLists] AS text[])) " +
+           "     WITH ORDINALITY AS src(source_key, keywords, position) " +
+           "CROSS JOIN LATERAL (SELECT t.ticket_key, t.updated_at, COUNT(*) AS hits FROM jira_tickets t " +
+           "      CROSS JOIN unnest(string_to_array(src.keywords, chr(31))) AS kw(term) " +
+           "      WHERE t.ticket_key <> src.source_key " +
+           "        AND (t.summary ILIKE '%' || kw.term || '%' OR t.description ILIKE '%' || kw.term || '%') " +
+           "      GROUP BY t.id " +
+           "      ORDER BY hits DESC, t.updated_at DESC NULLS LAST, t.ticket_key " +
+           "      LIMIT :limit) matches " +
+           "ORDER BY src.position, matches.hits DESC, matches.updated_at DESC NULLS LAST, matches.ticket_key",
+           nativeQuery = true)
+    List<CandidateMatch> searchTicketKeysByKeywordsPerSource(@Param("sourceKeys") List<String> sourceKeys,
+                                                             @Param("keywordLists") List<String> keywordLists,
+                                                             @Param("limit") int limit);
+    
+    /**
+     * Keyword search for several source tickets in one query, each ranked and
+     * capped by its own keywords. Sources without keywords match nothing.
+     */
+    default List<CandidateMatch> searchTicketKeysByKeywords(Map<String, ? extends Collection<String>> keywordsBySource,
+                                                            int limit) {
+        List<String> sourceKeys = new ArrayList<>();
+        List<String> keywordLists = new ArrayList<>();
+        keywordsBySource.forEach((sourceKey, keywords) -> {
+            if (!keywords.isEmpty()) {
+                sourceKeys.add(sourceKey);
+                keywordLists.add(keywords.stream()
+                    .map(keyword -> keyword.replace(KEYWORD_SEPARATOR, " "))
+                    .collect(Collectors.joining(KEYWORD_SEPARATOR)));
+            }
+        });
+        return sourceKeys.isEmpty() ? new ArrayList<>()
+            : searchTicketKeysByKeywordsPerSource(sourceKeys, keywordLists, limit);
+    }
+    
+    /**
+     * Full-text search over summary and description using the search_vector
+     * column. The query uses web search syntax (quoted phrases, "or", "-").
+     * Results are ranked by ts_rank and exclude the given ticket.
+     */
+    @Query(value = "SELECT " + CANDIDATE_COLUMNS + "FROM jira_tickets jt " +
+           "WHERE jt.search_vector @@ websearch_to_tsquery('english', :query) " +
+           "  AND jt.ticket_key <> :excludeKey " +
+           "ORDER BY ts_rank(jt.search_vector, websearch_to_tsquery('english', :query)) DESC " +
+           "LIMIT :limit",
+           nativeQuery = true)
+    List<TicketCandidate> fullTextSearch(@Param("query") String query,
+                                    @Param("excludeKey") String excludeKey,
+                                    @Param("limit") int limit);
+    
+    /**
+     * Full-text search for tickets matching any of the keywords. Multi-word
+     * keywords are matched as phrases.
+     */
+    default List<TicketCandidate> fullTextSearchAny(Collection<String> keywords, String excludeKey, int limit) {
+        String query = keywords.stream()
+            .map(keyword -> keyword.replace("\"", " ").replaceAll("^[\\s-]+", "").trim())
+            .filter(keyword -> !keyword.isEmpty())
+            .map(keyword -> keyword.contains(" ") ? "\"" + keyword + "\"" : keyword)
+            .collect(Collectors.joining(" or "));
+        return query.isEmpty() ? new ArrayList<>() : fullTextSearch(query, excludeKey, limit);
+    }
+    
+    /**
+     * Set the pg_trgm word similarity threshold used by the {@code <%} operator
+     * for the rest of the current transaction
+     */
+    @Query(value = "SELECT set_config('pg_trgm.word_similarity_threshold', :threshold, true)", nativeQuery = true)
+    String setWordSimilarityThreshold(@Param("threshold") String threshold);
+    
+    /**
+     * Fuzzy search for tickets whose summary or description contains a word
+     * similar to any of the keywords, using the trigram indexes. Tickets are
+     * ranked by their summed similarity over all keywords. Call within a
+     * transaction after setWordSimilarityThreshold. The keyword collection
+     * must not be empty.
+     */
+    @Query(value = "SELECT " + CANDIDATE_COLUMNS + "FROM jira_tickets jt " +
+           "JOIN (SELECT t.id, SUM(GREATEST(word_similarity(kw.term, coalesce(t.summary, '')), " +
+           "                               word_similarity(kw.term, coalesce(t.description, '')))) AS similarity " +
+           "      FROM jira_tickets t " +
+           "      CROSS JOIN unnest(CAST(ARRAY[:keywords] AS text[])) AS kw(term) " +
+           "      WHERE t.ticket_key <> :excludeKey " +
+           "        AND (kw.term <% t.summary OR kw.term <% t.description) " +
+           "      GROUP BY t.id " +
+           "      ORDER BY similarity DESC " +
+           "      LIMIT :limit) matches ON matches.id = jt.id " +
+           "ORDER BY matches.similarity DESC",
+           nativeQuery = true)
+    List<TicketCandidate> trigramSearch(@Param("keywords") Collection<String> keywords,
+                                   @Param("excludeKey") String excludeKey,
+                                   @Param("limit") int limit);
+    
     /**
      * Find tickets created by specific user
      */
@@ -0,0 +1,25 @@
+package com.impactlens.repositories;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.impactlens.entities.RelatedTicketEdge;
+
+@Repository
+public interface RelatedTicketEdgeRepository extends JpaRepository<RelatedTicketEdge, UUID> {
+    
+    /**
+     * Edges between a ticket and any of the given tickets, in either direction
+     */
+    @Query("SELECT e FROM RelatedTicketEdge e " +
+           "WHERE (e.sourceTicketKey = :ticketKey AND e.relatedTicketKey IN :otherKeys) " +
+           "OR (e.relatedTicketKey = :ticketKey AND e.sourceTicketKey IN :otherKeys)")
+    List<RelatedTicketEdge> findEdgesBetween(@Param("ticketKey") String ticketKey,
+                                             @Param("otherKeys") Collection<String> otherKeys);
+}
@@ -0,0 +1,48 @@
+package com.impactlens.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.impactlens.entities.JiraTicket;
+
+/**
+ * Projection of the ticket columns that candidate search, filtering and
+ * scoring read. Leaves out raw_data and the other wide or bookkeeping
+ * columns, which only the tickets that end up in a report need.
+ */
+public interface TicketCandidate {
+    
+    String getTicketKey();
+    
+    String getSummary();
+    
+    String getDescription();
+    
+    String getStatus();
+    
+    String getPriority();
+    
+    String getAssignee();
+    
+    LocalDateTime getUpdatedAt();
+    
+    /**
+     * A detached ticket carrying only the projected fields. It must not be
+     * saved; load the entity by key instead.
+     */
+    default JiraTicket toTicket() {
+        JiraTicket ticket = new JiraTicket(getTicketKey(), null);
+        ticket.setSummary(getSummary());
+        ticket.setDescription(getDescription());
+        ticket.setStatus(getStatus());
+        ticket.setPriority(getPriority());
+        ticket.setAssignee(getAssignee());
+        ticket.setUpdatedAt(getUpdatedAt());
+        return ticket;
+    }
+    
+    static List<JiraTicket> toTickets(List<TicketCandidate> candidates) {
+        return candidates.stream().map(TicketCandidate::toTicket).collect(Collectors.toList());
+    }
+}
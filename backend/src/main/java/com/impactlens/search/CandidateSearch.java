@@ -0,0 +1,39 @@
+package com.impactlens.search;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.impactlens.entities.JiraTicket;
+
+/**
+ * A backend that retrieves related-ticket candidates for a set of keywords.
+ */
+public interface CandidateSearch {
+    
+    /**
+     * Name used to select this backend in analysis.candidate-search.mode
+     */
+    String getName();
+    
+    /**
+     * Find tickets matching any of the keywords, best matches first, excluding
+     * the source ticket and returning at most limit tickets
+     */
+    List<JiraTicket> findCandidates(JiraTicket sourceTicket, Collection<String> keywords, int limit);
+    
+    /**
+     * Candidates for several source tickets, keyed by ticket key. Each ticket
+     * gets exactly what findCandidates returns for it alone, so a batch never
+     * depends on which other tickets are in it. Backends that can serve all
+     * tickets in one round trip override this.
+     */
+    default Map<String, List<JiraTicket>> findCandidates(Map<JiraTicket, ? extends Collection<String>> keywordsByTicket,
+                                                         int limit) {
+        Map<String, List<JiraTicket>> candidatesByTicket = new LinkedHashMap<>();
+        keywordsByTicket.forEach((sourceTicket, keywords) ->
+            candidatesByTicket.put(sourceTicket.getTicketKey(), findCandidates(sourceTicket, keywords, limit)));
+        return candidatesByTicket;
+    }
+}
@@ -0,0 +1,190 @@
+package com.impactlens.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.impactlens.dto.AnalysisRequest;
+import com.impactlens.entities.JiraTicket;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Routes candidate searches to the backend selected by configuration and
+ * applies candidate filters.
+ *
+ * Filters are resolved to a bitmap of ticket ordinals by the facet index.
+ * Backends that can filter while ranking receive the bitmap; for the others
+ * the router over-fetches and drops non-matching tickets. Every search is
+ * timed under impactlens.candidate-search, tagged with the backend name, so
+ * backends can be compared by switching the mode.
+ */
+@Component
+public class CandidateSearchRouter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CandidateSearchRouter.class);
+    
+    private final Map<String, CandidateSearch> backends = new HashMap<>();
+    private final CandidateSearch active;
+    
+    @Autowired
+    private FacetIndex facetIndex;
+    
+    @Autowired
+    private TicketOrdinals ticketOrdinals;
+    
+    @Value("${analysis.search.facets.overfetch:4}")
+    private int filterOverfetch;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private Timer searchTimer;
+    
+    public CandidateSearchRouter(List<CandidateSearch> candidateSearches,
+                                 @Value("${analysis.candidate-search.mode:like}") String mode) {
+        for (CandidateSearch candidateSearch : candidateSearches) {
+            backends.put(candidateSearch.getName(), candidateSearch);
+        }
+        
+        this.active = backends.get(mode);
+        if (active == null) {
+            throw new IllegalStateException("Unknown candidate search mode '" + mode + "', expected one of " + backends.keySet());
+        }
+        logger.info("Using '{}' candidate search", mode);
+    }
+    
+    @PostConstruct
+    public void registerMetrics() {
+        searchTimer = Timer.builder("impactlens.candidate-search")
+            .description("Latency of related-ticket candidate searches")
+            .tag("mode", active.getName())
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .register(meterRegistry);
+    }
+    
+    public List<JiraTicket> findCandidates(JiraTicket sourceTicket, Collection<String> keywords, int limit) {
+        return searchTimer.record(() -> active.findCandidates(sourceTicket, keywords, limit));
+    }
+    
+    public List<JiraTicket> findCandidates(JiraTicket sourceTicket, Collection<String> keywords, int limit,
+                                           AnalysisRequest.CandidateFilter filter) {
+        if (filter == null || filter.isEmpty()) {
+            return findCandidates(sourceTicket, keywords, limit);
+        }
+        
+        RoaringBitmap allowed = facetIndex.isReady() ? facetIndex.filter(filter) : null;
+        if (allowed != null && allowed.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        FilterableCandidateSearch filterable = filteringBackend(allowed != null);
+        List<JiraTicket> candidates = filterable != null
+            ? searchTimer.record(() -> filterable.findCandidates(sourceTicket, keywords, limit, allowed))
+            : findCandidates(sourceTicket, keywords, limit * filterOverfetch);
+        return filtered(candidates, filter, allowed, limit);
+    }
+    
+    /**
+     * Candidates for several source tickets, keyed by ticket key. Each ticket
+     * gets exactly the candidates a search of its own would return; backends
+     * that can search for all tickets in one round trip do so. Tickets
+     * without keywords get no candidates, as in a single analysis.
+     */
+    public Map<String, List<JiraTicket>> findCandidates(Map<JiraTicket, ? extends Collection<String>> keywordsByTicket,
+                                                        int limit, AnalysisRequest.CandidateFilter filter) {
+        Map<String, List<JiraTicket>> candidatesByTicket = new LinkedHashMap<>();
+        Map<JiraTicket, Collection<String>> searched = new LinkedHashMap<>();
+        keywordsByTicket.forEach((sourceTicket, keywords) -> {
+            candidatesByTicket.put(sourceTicket.getTicketKey(), new ArrayList<>());
+            if (!keywords.isEmpty()) {
+                searched.put(sourceTicket, keywords);
+            }
+        });
+        if (searched.isEmpty()) {
+            return candidatesByTicket;
+        }
+        
+        if (filter == null || filter.isEmpty()) {
+            candidatesByTicket.putAll(searchTimer.record(() -> active.findCandidates(searched, limit)));
+            return candidatesByTicket;
+        }
+        
+        RoaringBitmap allowed = facetIndex.isReady() ? facetIndex.filter(filter) : null;
+        if (allowed != null && allowed.isEmpty()) {
+            return candidatesByTicket;
+        }
+        if (filteringBackend(allowed != null) != null) {
+            // Filtering while ranking is per ticket anyway
+            searched.forEach((sourceTicket, keywords) -> candidatesByTicket.put(sourceTicket.getTicketKey(),
+                findCandidates(sourceTicket, keywords, limit, filter)));
+            return candidatesByTicket;
+        }
+        
+        searchTimer.record(() -> active.findCandidates(searched, limit * filterOverfetch))
+            .forEach((ticketKey, candidates) -> candidatesByTicket.put(ticketKey,
+                filtered(candidates, filter, allowed, limit)));
+        logger.debug("Searched '{}' candidates of {} tickets in one batch", active.getName(), searched.size());
+        return candidatesByTicket;
+    }
+    
+    /**
+     * Rows a search of one ticket reads for the limit: filters that cannot
+     * be applied while ranking over-fetch by analysis.search.facets.overfetch
+     */
+    public int candidateRowsPerTicket(int limit, AnalysisRequest.CandidateFilter filter) {
+        if (filter == null || filter.isEmpty() || filteringBackend(facetIndex.isReady()) != null) {
+            return limit;
+        }
+        return limit * filterOverfetch;
+    }
+    
+    /**
+     * The active backend if it can rank within the facet bitmap right now,
+     * otherwise null and results are over-fetched and filtered here. A
+     * backend still falling back to LIKE is over-fetched like LIKE itself.
+     */
+    private FilterableCandidateSearch filteringBackend(boolean facetsReady) {
+        if (facetsReady && active instanceof FilterableCandidateSearch filterable && filterable.canFilter()) {
+            return filterable;
+        }
+        return null;
+    }
+    
+    /**
+     * The first limit candidates that pass the filter, checked against the
+     * facet bitmap when the index is ready and against the ticket fields
+     * otherwise
+     */
+    private List<JiraTicket> filtered(List<JiraTicket> candidates, AnalysisRequest.CandidateFilter filter,
+                                      RoaringBitmap allowed, int limit) {
+        return candidates.stream()
+            .filter(ticket -> {
+                if (allowed == null) {
+                    return filter.matches(ticket.getTicketKey(), ticket.getStatus(), ticket.getPriority(),
+                        ticket.getAssignee());
+                }
+                int ordinal = ticketOrdinals.find(ticket.getTicketKey());
+                return ordinal >= 0 && allowed.contains(ordinal);
+            })
+            .limit(limit)
+            .collect(Collectors.toList());
+    }
+    
+    public String getActiveMode() {
+        return active.getName();
+    }
+}
@@ -0,0 +1,77 @@
+package com.impactlens.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.impactlens.entities.JiraTicket;
+
+/**
+ * Candidates collapsed into near-duplicate clusters by NearDuplicateDetector.
+ */
+public class DuplicateClusters {
+    
+    private final List<JiraTicket> representatives;
+    private final Map<String, List<String>> duplicates;
+    private final Map<String, Double> sourceSimilarities;
+    private final int candidateCount;
+    
+    DuplicateClusters(List<JiraTicket> representatives, Map<String, List<String>> duplicates,
+                      Map<String, Double> sourceSimilarities, int candidateCount) {
+        this.representatives = representatives;
+        this.duplicates = duplicates;
+        this.sourceSimilarities = sourceSimilarities;
+        this.candidateCount = candidateCount;
+    }
+    
+    /**
+     * One ticket per cluster, in candidate order
+     */
+    public List<JiraTicket> getRepresentatives() {
+        return representatives;
+    }
+    
+    /**
+     * Keys of the tickets collapsed into a representative
+     */
+    public List<String> getDuplicates(String representativeKey) {
+        return duplicates.getOrDefault(representativeKey, Collections.emptyList());
+    }
+    
+    /**
+     * Whether the ticket is a near-duplicate of the source ticket
+     */
+    public boolean isDuplicateOfSource(String ticketKey) {
+        return sourceSimilarities.containsKey(ticketKey);
+    }
+    
+    public int getCollapsedCount() {
+        return candidateCount - representatives.size();
+    }
+    
+    /**
+     * Wrap a relevance scorer so near-duplicates of the source ticket are
+     * scored by their estimated similarity instead of being sent to the model
+     */
+    public Function<List<JiraTicket>, List<Double>> scoring(Function<List<JiraTicket>, List<Double>> scorer) {
+        return round -> {
+            List<JiraTicket> toScore = new ArrayList<>();
+            for (JiraTicket ticket : round) {
+                if (!sourceSimilarities.containsKey(ticket.getTicketKey())) {
+                    toScore.add(ticket);
+                }
+            }
+            
+            List<Double> modelScores = toScore.isEmpty() ? Collections.emptyList() : scorer.apply(toScore);
+            List<Double> scores = new ArrayList<>(round.size());
+            int next = 0;
+            for (JiraTicket ticket : round) {
+                Double similarity = sourceSimilarities.get(ticket.getTicketKey());
+                scores.add(similarity != null ? similarity : modelScores.get(next++));
+            }
+            return scores;
+        };
+    }
+}
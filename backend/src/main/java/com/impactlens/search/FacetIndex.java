@@ -0,0 +1,214 @@
+package com.impactlens.search;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.impactlens.dto.AnalysisRequest;
+import com.impactlens.events.JiraTicketChangedEvent;
+import com.impactlens.repositories.JiraTicketRepository;
+import com.impactlens.repositories.TicketCandidate;
+
+/**
+ * Roaring-bitmap index of ticket ordinals by status, priority, assignee and
+ * project key prefix.
+ *
+ * Filters are answered by OR-ing the bitmaps of the values within a facet and
+ * AND-ing across facets. Nothing here touches the database after the initial
+ * build, which is kept current from JiraTicketChangedEvents.
+ */
+@Component
+public class FacetIndex {
+    
+    private static final Logger logger = LoggerFactory.getLogger(FacetIndex.class);
+    
+    public enum Facet {
+        STATUS, PRIORITY, ASSIGNEE, PROJECT
+    }
+    
+    @Autowired
+    private JiraTicketRepository jiraTicketRepository;
+    
+    @Autowired
+    private TicketOrdinals ticketOrdinals;
+    
+    @Value("${analysis.search.index.page-size:1000}")
+    private int pageSize;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Facet, Map<String, RoaringBitmap>> bitmaps = new EnumMap<>(Facet.class);
+    private final RoaringBitmap liveTickets = new RoaringBitmap();
+    private String[][] valuesByOrdinal = new String[1024][];
+    private Set<String> changedDuringBuild;
+    private volatile boolean ready;
+    
+    public FacetIndex() {
+        for (Facet facet : Facet.values()) {
+            bitmaps.put(facet, new HashMap<>());
+        }
+    }
+    
+    @Async("searchIndexExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        long startTime = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            changedDuringBuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        
+        try {
+            jiraTicketRepository.forEachCandidatePage(pageSize, page -> {
+                lock.writeLock().lock();
+                try {
+                    for (TicketCandidate ticket : page) {
+                        // Changes seen through events are newer than this page
+                        if (!changedDuringBuild.contains(ticket.getTicketKey())) {
+                            index(ticketOrdinals.ordinalOf(ticket.getTicketKey()), valuesOf(ticket.getTicketKey(),
+                                ticket.getStatus(), ticket.getPriority(), ticket.getAssignee()));
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            });
+            
+            ready = true;
+            logger.info("Built facet index over {} tickets in {}ms",
+                liveTickets.getCardinality(), System.currentTimeMillis() - startTime);
+                
+        } catch (RuntimeException e) {
+            logger.error("Failed to build facet index", e);
+            throw e;
+            
+        } finally {
+            lock.writeLock().lock();
+            try {
+                changedDuringBuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketChanged(JiraTicketChangedEvent event) {
+        int ordinal = ticketOrdinals.ordinalOf(event.getTicketKey());
+        lock.writeLock().lock();
+        try {
+            if (changedDuringBuild != null) {
+                changedDuringBuild.add(event.getTicketKey());
+            }
+            unindex(ordinal);
+            if (!event.isDeleted()) {
+                index(ordinal, valuesOf(event.getTicketKey(), event.getStatus(), event.getPriority(), event.getAssignee()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Ordinals of all tickets matching the filter
+     */
+    public RoaringBitmap filter(AnalysisRequest.CandidateFilter filter) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = liveTickets.clone();
+            if (filter == null) {
+                return result;
+            }
+            narrow(result, Facet.STATUS, filter.getStatuses());
+            narrow(result, Facet.PRIORITY, filter.getPriorities());
+            narrow(result, Facet.ASSIGNEE, filter.getAssignees());
+            narrow(result, Facet.PROJECT, filter.getProjects());
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    private void narrow(RoaringBitmap result, Facet facet, List<String> values) {
+        if (values == null || values.isEmpty()) {
+            return;
+        }
+        RoaringBitmap union = new RoaringBitmap();
+        for (String value : values) {
+            RoaringBitmap bitmap = bitmaps.get(facet).get(normalize(value));
+            if (bitmap != null) {
+                union.or(bitmap);
+            }
+        }
+        result.and(union);
+    }
+    
+    private void index(int ordinal, String[] values) {
+        if (ordinal >= valuesByOrdinal.length) {
+            valuesByOrdinal = Arrays.copyOf(valuesByOrdinal, Math.max(ordinal + 1, valuesByOrdinal.length * 2));
+        }
+        valuesByOrdinal[ordinal] = values;
+        liveTickets.add(ordinal);
+        for (Facet facet : Facet.values()) {
+            String value = values[facet.ordinal()];
+            if (value != null) {
+                bitmaps.get(facet).computeIfAbsent(value, key -> new RoaringBitmap()).add(ordinal);
+            }
+        }
+    }
+    
+    private void unindex(int ordinal) {
+        if (ordinal >= valuesByOrdinal.length || valuesByOrdinal[ordinal] == null) {
+            return;
+        }
+        String[] values = valuesByOrdinal[ordinal];
+        for (Facet facet : Facet.values()) {
+            String value = values[facet.ordinal()];
+            if (value != null) {
+                RoaringBitmap bitmap = bitmaps.get(facet).get(value);
+                if (bitmap != null) {
+                    bitmap.remove(ordinal);
+                }
+            }
+        }
+        valuesByOrdinal[ordinal] = null;
+        liveTickets.remove(ordinal);
+    }
+    
+    private String[] valuesOf(String ticketKey, String status, String priority, String assignee) {
+        String[] values = new String[Facet.values().length];
+        values[Facet.STATUS.ordinal()] = normalize(status);
+        values[Facet.PRIORITY.ordinal()] = normalize(priority);
+        values[Facet.ASSIGNEE.ordinal()] = normalize(assignee);
+        values[Facet.PROJECT.ordinal()] = normalize(ticketKey.contains("-")
+            ? ticketKey.substring(0, ticketKey.indexOf('-'))
+            : ticketKey);
+        return values;
+    }
+    
+    private static String normalize(String value) {
+        return value != null ? value.trim().toLowerCase(Locale.ROOT) : null;
+    }
+}
@@ -0,0 +1,40 @@
+package com.impactlens.search;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import com.impactlens.entities.JiraTicket;
+
+/**
+ * A candidate search backend that can restrict results to a set of ticket
+ * ordinals while ranking, instead of filtering afterwards.
+ */
+public interface FilterableCandidateSearch extends CandidateSearch {
+    
+    /**
+     * Whether searches filter while ranking right now. Backends that fall
+     * back to an unfiltered search until their index is built return false
+     * meanwhile, so callers over-fetch and filter the results themselves.
+     */
+    default boolean canFilter() {
+        return true;
+    }
+    
+    /**
+     * Find candidates whose ticket ordinal passes the filter
+     */
+    List<JiraTicket> findCandidates(JiraTicket sourceTicket, Collection<String> keywords, int limit,
+                                    IntPredicate ordinalFilter);
+    
+    /**
+     * Find candidates among the ticket ordinals in the bitmap. Backends that
+     * search differently when few tickets are allowed override this.
+     */
+    default List<JiraTicket> findCandidates(JiraTicket sourceTicket, Collection<String> keywords, int limit,
+                                            RoaringBitmap allowed) {
+        return findCandidates(sourceTicket, keywords, limit, allowed::contains);
+    }
+}
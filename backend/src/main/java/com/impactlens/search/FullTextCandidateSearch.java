@@ -0,0 +1,32 @@
+package com.impactlens.search;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.impactlens.entities.JiraTicket;
+import com.impactlens.repositories.JiraTicketRepository;
+import com.impactlens.repositories.TicketCandidate;
+
+/**
+ * PostgreSQL full-text search over the GIN-indexed search_vector column,
+ * ranked by ts_rank.
+ */
+@Component
+public class FullTextCandidateSearch implements CandidateSearch {
+    
+    @Autowired
+    private JiraTicketRepository jiraTicketRepository;
+    
+    @Override
+    public String getName() {
+        return "fulltext";
+    }
+    
+    @Override
+    public List<JiraTicket> findCandidates(JiraTicket sourceTicket, Collection<String> keywords, int limit) {
+        return TicketCandidate.toTickets(jiraTicketRepository.fullTextSearchAny(keywords, sourceTicket.getTicketKey(), limit));
+    }
+}
@@ -0,0 +1,417 @@
+package com.impactlens.search;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.function.IntPredicate;
+
+/**
+ * Hierarchical navigable small world graph over quantized ticket vectors.
+ *
+ * Each node lives on layer 0 and, with exponentially decreasing probability,
+ * on higher layers. Searches descend greedily from the entry point on the top
+ * layer and finish with a beam search of width ef on layer 0, so a query
+ * visits a few hundred nodes regardless of the index size. Replaced and
+ * deleted tickets stay in the graph as tombstones to keep it navigable; they
+ * are never returned and disappear when the graph is rebuilt.
+ *
+ * Not thread-safe; the owner guards mutation.
+ */
+final class HnswGraph implements Closeable {
+    
+    private static final int FORMAT_VERSION = 2;
+    
+    private final QuantizedVectors vectors;
+    private final int m;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final Random random = new Random(42);
+    
+    private final List<String> keys = new ArrayList<>();
+    private final List<int[][]> neighbors = new ArrayList<>();
+    private final Map<String, Integer> nodeByKey = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private long[] contentHashes = new long[1024];
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+    
+    HnswGraph(QuantizedVectors vectors, int m, int efConstruction) {
+        this.vectors = vectors;
+        this.m = m;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1 / Math.log(m);
+    }
+    
+    static final class Hit {
+        final String ticketKey;
+        final float similarity;
+        
+        Hit(String ticketKey, float similarity) {
+            this.ticketKey = ticketKey;
+            this.similarity = similarity;
+        }
+    }
+    
+    private static final class Candidate {
+        final int node;
+        final float similarity;
+        
+        Candidate(int node, float similarity) {
+            this.node = node;
+            this.similarity = similarity;
+        }
+    }
+    
+    private static final Comparator<Candidate> BY_SIMILARITY = Comparator.comparingDouble(candidate -> candidate.similarity);
+    
+    int size() {
+        return nodeByKey.size();
+    }
+    
+    int nodeCount() {
+        return keys.size();
+    }
+    
+    double deletedRatio() {
+        return keys.isEmpty() ? 0 : (double) deleted.cardinality() / keys.size();
+    }
+    
+    boolean contains(String ticketKey) {
+        return nodeByKey.containsKey(ticketKey);
+    }
+    
+    /**
+     * Whether the ticket is indexed with a vector of exactly this content
+     */
+    boolean contains(String ticketKey, long contentHash) {
+        Integer node = nodeByKey.get(ticketKey);
+        return node != null && contentHashes[node] == contentHash;
+    }
+    
+    Iterable<String> ticketKeys() {
+        return new ArrayList<>(nodeByKey.keySet());
+    }
+    
+    /**
+     * Stored vector of a ticket, or null if it is not indexed
+     */
+    float[] vectorOf(String ticketKey) {
+        Integer node = nodeByKey.get(ticketKey);
+        return node != null ? vectors.get(node) : null;
+    }
+    
+    /**
+     * Add a unit-length vector for the ticket, replacing any previous one
+     */
+    void insert(String ticketKey, float[] vector, long contentHash) throws IOException {
+        delete(ticketKey);
+        
+        int node = keys.size();
+        int level = (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+        vectors.set(node, vector);
+        keys.add(ticketKey);
+        setContentHash(node, contentHash);
+        int[][] layers = new int[level + 1][];
+        for (int layer = 0; layer <= level; layer++) {
+            layers[layer] = new int[0];
+        }
+        neighbors.add(layers);
+        nodeByKey.put(ticketKey, node);
+        
+        if (entryPoint < 0) {
+            entryPoint = node;
+            maxLevel = level;
+            return;
+        }
+        
+        int current = entryPoint;
+        for (int layer = maxLevel; layer > level; layer--) {
+            current = greedyClosest(vector, current, layer);
+        }
+        for (int layer = Math.min(level, maxLevel); layer >= 0; layer--) {
+            List<Candidate> nearest = searchLayer(vector, current, efConstruction, layer, n -> true);
+            int[] selected = selectNeighbors(nearest, maxConnections(layer));
+            layers[layer] = selected;
+            for (int neighbor : selected) {
+                connect(neighbor, node, layer);
+            }
+            current = nearest.get(0).node;
+        }
+        
+        if (level > maxLevel) {
+            entryPoint = node;
+            maxLevel = level;
+        }
+    }
+    
+    /**
+     * Tombstone the ticket's node
+     */
+    void delete(String ticketKey) {
+        Integer node = nodeByKey.remove(ticketKey);
+        if (node != null) {
+            deleted.set(node);
+        }
+    }
+    
+    /**
+     * The k live nodes most similar to the query that pass the filter, most
+     * similar first
+     */
+    List<Hit> search(float[] query, int k, int ef, IntPredicate accept) {
+        List<Hit> hits = new ArrayList<>();
+        if (entryPoint < 0) {
+            return hits;
+        }
+        
+        int current = entryPoint;
+        for (int layer = maxLevel; layer > 0; layer--) {
+            current = greedyClosest(query, current, layer);
+        }
+        List<Candidate> nearest = searchLayer(query, current, Math.max(ef, k), 0,
+            node -> !deleted.get(node) && accept.test(node));
+        for (Candidate candidate : nearest) {
+            if (hits.size() == k) {
+                break;
+            }
+            hits.add(new Hit(keys.get(candidate.node), candidate.similarity));
+        }
+        return hits;
+    }
+    
+    /**
+     * The k live tickets among the given keys most similar to the query,
+     * compared one by one without the graph, most similar first
+     */
+    List<Hit> exactSearch(float[] query, int k, Iterable<String> ticketKeys) {
+        List<Hit> hits = new ArrayList<>();
+        if (k <= 0) {
+            return hits;
+        }
+        
+        PriorityQueue<Candidate> results = new PriorityQueue<>(BY_SIMILARITY);
+        for (String ticketKey : ticketKeys) {
+            Integer node = nodeByKey.get(ticketKey);
+            if (node == null) {
+                continue;
+            }
+            float similarity = vectors.similarity(query, node);
+            if (results.size() < k) {
+                results.add(new Candidate(node, similarity));
+            } else if (similarity > results.peek().similarity) {
+                results.poll();
+                results.add(new Candidate(node, similarity));
+            }
+        }
+        
+        List<Candidate> sorted = new ArrayList<>(results);
+        sorted.sort(BY_SIMILARITY.reversed());
+        for (Candidate candidate : sorted) {
+            hits.add(new Hit(keys.get(candidate.node), candidate.similarity));
+        }
+        return hits;
+    }
+    
+    String keyOf(int node) {
+        return keys.get(node);
+    }
+    
+    /**
+     * Copy every live vector into a new graph, dropping tombstones
+     */
+    void copyLiveTo(HnswGraph target) throws IOException {
+        for (Map.Entry<String, Integer> entry : nodeByKey.entrySet()) {
+            target.insert(entry.getKey(), vectors.get(entry.getValue()), contentHashes[entry.getValue()]);
+        }
+    }
+    
+    void write(DataOutputStream out) throws IOException {
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(vectors.dimensions());
+        out.writeInt(m);
+        out.writeInt(keys.size());
+        out.writeInt(entryPoint);
+        out.writeInt(maxLevel);
+        for (int node = 0; node < keys.size(); node++) {
+            out.writeBoolean(deleted.get(node));
+            out.writeUTF(keys.get(node));
+            out.writeLong(contentHashes[node]);
+            int[][] layers = neighbors.get(node);
+            out.writeInt(layers.length);
+            for (int[] layer : layers) {
+                out.writeInt(layer.length);
+                for (int neighbor : layer) {
+                    out.writeInt(neighbor);
+                }
+            }
+        }
+        vectors.force();
+    }
+    
+    /**
+     * Load a graph written by write(). Returns false, leaving the graph empty,
+     * if it was written with different dimensions or connectivity.
+     */
+    boolean read(DataInputStream in) throws IOException {
+        if (in.readInt() != FORMAT_VERSION || in.readInt() != vectors.dimensions() || in.readInt() != m) {
+            return false;
+        }
+        int nodeCount = in.readInt();
+        entryPoint = in.readInt();
+        maxLevel = in.readInt();
+        for (int node = 0; node < nodeCount; node++) {
+            boolean isDeleted = in.readBoolean();
+            String ticketKey = in.readUTF();
+            setContentHash(node, in.readLong());
+            int[][] layers = new int[in.readInt()][];
+            for (int layer = 0; layer < layers.length; layer++) {
+                layers[layer] = new int[in.readInt()];
+                for (int i = 0; i < layers[layer].length; i++) {
+                    layers[layer][i] = in.readInt();
+                }
+            }
+            keys.add(ticketKey);
+            neighbors.add(layers);
+            if (isDeleted) {
+                deleted.set(node);
+            } else {
+                nodeByKey.put(ticketKey, node);
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        vectors.close();
+    }
+    
+    private void setContentHash(int node, long contentHash) {
+        if (node >= contentHashes.length) {
+            contentHashes = Arrays.copyOf(contentHashes, Math.max(node + 1, contentHashes.length * 2));
+        }
+        contentHashes[node] = contentHash;
+    }
+    
+    private int maxConnections(int layer) {
+        return layer == 0 ? 2 * m : m;
+    }
+    
+    private int greedyClosest(float[] query, int start, int layer) {
+        int current = start;
+        float best = vectors.similarity(query, current);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int neighbor : neighbors.get(current)[layer]) {
+                float similarity = vectors.similarity(query, neighbor);
+                if (similarity > best) {
+                    best = similarity;
+                    current = neighbor;
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+    
+    /**
+     * Beam search on one layer. Every node is traversed, but only nodes that
+     * pass the filter are collected. Returns the collected nodes, most similar
+     * first.
+     */
+    private List<Candidate> searchLayer(float[] query, int start, int ef, int layer, IntPredicate accept) {
+        BitSet visited = new BitSet();
+        PriorityQueue<Candidate> frontier = new PriorityQueue<>(BY_SIMILARITY.reversed());
+        PriorityQueue<Candidate> results = new PriorityQueue<>(BY_SIMILARITY);
+        
+        Candidate first = new Candidate(start, vectors.similarity(query, start));
+        visited.set(start);
+        frontier.add(first);
+        if (accept.test(start)) {
+            results.add(first);
+        }
+        
+        while (!frontier.isEmpty()) {
+            Candidate closest = frontier.poll();
+            if (results.size() >= ef && closest.similarity < results.peek().similarity) {
+                break;
+            }
+            for (int neighbor : neighbors.get(closest.node)[layer]) {
+                if (visited.get(neighbor)) {
+                    continue;
+                }
+                visited.set(neighbor);
+                float similarity = vectors.similarity(query, neighbor);
+                if (results.size() < ef || similarity > results.peek().similarity) {
+                    Candidate candidate = new Candidate(neighbor, similarity);
+                    frontier.add(candidate);
+                    if (accept.test(neighbor)) {
+                        results.add(candidate);
+                        if (results.size() > ef) {
+                            results.poll();
+                        }
+                    }
+                }
+            }
+        }
+        
+        List<Candidate> sorted = new ArrayList<>(results);
+        sorted.sort(BY_SIMILARITY.reversed());
+        return sorted;
+    }
+    
+    /**
+     * Keep candidates that are closer to the new node than to any neighbor
+     * already selected, so links spread in different directions, then fill up
+     * with the closest remaining ones
+     */
+    private int[] selectNeighbors(List<Candidate> candidates, int limit) {
+        List<Candidate> selected = new ArrayList<>();
+        List<Candidate> pruned = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            if (selected.size() == limit) {
+                break;
+            }
+            boolean diverse = true;
+            for (Candidate chosen : selected) {
+                if (vectors.similarity(candidate.node, chosen.node) > candidate.similarity) {
+                    diverse = false;
+                    break;
+                }
+            }
+            (diverse ? selected : pruned).add(candidate);
+        }
+        for (int i = 0; i < pruned.size() && selected.size() < limit; i++) {
+            selected.add(pruned.get(i));
+        }
+        return selected.stream().mapToInt(candidate -> candidate.node).toArray();
+    }
+    
+    private void connect(int node, int neighbor, int layer) {
+        int[] current = neighbors.get(node)[layer];
+        int[] links = new int[current.length + 1];
+        System.arraycopy(current, 0, links, 0, current.length);
+        links[current.length] = neighbor;
+        
+        if (links.length > maxConnections(layer)) {
+            List<Candidate> candidates = new ArrayList<>(links.length);
+            for (int link : links) {
+                candidates.add(new Candidate(link, vectors.similarity(node, link)));
+            }
+            candidates.sort(BY_SIMILARITY.reversed());
+            links = selectNeighbors(candidates, maxConnections(layer));
+        }
+        neighbors.get(node)[layer] = links;
+    }
+}
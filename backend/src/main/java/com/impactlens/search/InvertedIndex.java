@@ -0,0 +1,423 @@
+package com.impactlens.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.impactlens.events.JiraTicketChangedEvent;
+import com.impactlens.repositories.JiraTicketRepository;
+import com.impactlens.repositories.TicketCandidate;
+
+/**
+ * In-memory inverted index over ticket summaries and descriptions with BM25
+ * ranking.
+ *
+ * Built from jira_tickets in the background at startup and kept current from
+ * JiraTicketChangedEvents. Documents are append-only: an updated ticket is
+ * marked deleted and re-added under a new document id, which keeps every
+ * postings list sorted and delta-compressible. When too many documents are
+ * deleted the index is rebuilt from the database.
+ */
+@Component
+public class InvertedIndex {
+    
+    private static final Logger logger = LoggerFactory.getLogger(InvertedIndex.class);
+    
+    @Autowired
+    private JiraTicketRepository jiraTicketRepository;
+    
+    @Autowired
+    private TicketOrdinals ticketOrdinals;
+    
+    @Value("${analysis.search.index.k1:1.2}")
+    private double k1;
+    
+    @Value("${analysis.search.index.b:0.75}")
+    private double b;
+    
+    @Value("${analysis.search.index.summary-boost:2}")
+    private int summaryBoost;
+    
+    @Value("${analysis.search.index.page-size:1000}")
+    private int pageSize;
+    
+    @Value("${analysis.search.index.max-deleted-ratio:0.2}")
+    private double maxDeletedRatio;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Segment segment = new Segment();
+    private List<JiraTicketChangedEvent> pendingEvents;
+    private volatile boolean ready;
+    
+    @Async("searchIndexExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+    
+    @Scheduled(fixedDelayString = "${analysis.search.index.compaction-interval:600000}")
+    public void compactIfNeeded() {
+        double deletedRatio;
+        lock.readLock().lock();
+        try {
+            deletedRatio = segment.deletedRatio();
+        } finally {
+            lock.readLock().unlock();
+        }
+        
+        if (ready && deletedRatio > maxDeletedRatio) {
+            logger.info("Rebuilding inverted index, {}% of documents are deleted", Math.round(deletedRatio * 100));
+            rebuild();
+        }
+    }
+    
+    /**
+     * Rebuild the index from the database. Changes that arrive while the
+     * rebuild runs are applied to both the live and the new index.
+     */
+    public void rebuild() {
+        long startTime = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            if (pendingEvents != null) {
+                logger.debug("Inverted index rebuild already running");
+                return;
+            }
+            pendingEvents = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        
+        Segment fresh = new Segment();
+        try {
+            jiraTicketRepository.forEachCandidatePage(pageSize, page -> {
+                for (TicketCandidate ticket : page) {
+                    fresh.add(ticketOrdinals.ordinalOf(ticket.getTicketKey()), ticket.getSummary(), ticket.getDescription());
+                }
+            });
+            
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingEvents = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.error("Failed to build inverted index", e);
+            throw e;
+        }
+        
+        lock.writeLock().lock();
+        try {
+            for (JiraTicketChangedEvent event : pendingEvents) {
+                apply(fresh, event);
+            }
+            pendingEvents = null;
+            segment = fresh;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        
+        logger.info("Built inverted index over {} tickets ({} terms, {} KB postings) in {}ms",
+            fresh.liveDocCount, fresh.postings.size(), fresh.postingsBytes() / 1024, System.currentTimeMillis() - startTime);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketChanged(JiraTicketChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            apply(segment, event);
+            if (pendingEvents != null) {
+                pendingEvents.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Rank tickets against the keywords with BM25
+     *
+     * @param excludeOrdinal ticket ordinal to leave out of the results, or -1
+     */
+    public List<Hit> search(Collection<String> keywords, int limit, int excludeOrdinal) {
+        return search(keywords, limit, excludeOrdinal, ordinal -> true);
+    }
+    
+    /**
+     * Rank tickets against the keywords with BM25, considering only tickets
+     * whose ordinal passes the filter
+     */
+    public List<Hit> search(Collection<String> keywords, int limit, int excludeOrdinal, IntPredicate ordinalFilter) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String keyword : keywords) {
+            terms.addAll(TextTokenizer.tokenize(keyword));
+        }
+        
+        lock.readLock().lock();
+        try {
+            return segment.search(terms, limit, excludeOrdinal, ordinalFilter);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Inverse document frequency of each term, as used for ranking. Terms
+     * that occur in no ticket are left out.
+     */
+    public Map<String, Double> inverseDocumentFrequencies(Collection<String> terms) {
+        Map<String, Double> idfs = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (String term : terms) {
+                PostingsList list = segment.postings.get(term);
+                if (list != null) {
+                    idfs.put(term, segment.idf(term, list));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return idfs;
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    private void apply(Segment target, JiraTicketChangedEvent event) {
+        int ordinal = ticketOrdinals.ordinalOf(event.getTicketKey());
+        target.remove(ordinal);
+        if (!event.isDeleted()) {
+            target.add(ordinal, event.getSummary(), event.getDescription());
+        }
+    }
+    
+    /**
+     * A ranked search result
+     */
+    public static class Hit {
+        private final int ordinal;
+        private final double score;
+        
+        public Hit(int ordinal, double score) {
+            this.ordinal = ordinal;
+            this.score = score;
+        }
+        
+        public int getOrdinal() {
+            return ordinal;
+        }
+        
+        public double getScore() {
+            return score;
+        }
+    }
+    
+    /**
+     * A postings cursor with the idf of its term
+     */
+    private static class TermCursor {
+        private final PostingsList.Cursor cursor;
+        private final double idf;
+        
+        TermCursor(PostingsList.Cursor cursor, double idf) {
+            this.cursor = cursor;
+            this.idf = idf;
+        }
+        
+        boolean next() {
+            return cursor.next();
+        }
+        
+        int docId() {
+            return cursor.docId();
+        }
+        
+        int termFrequency() {
+            return cursor.termFrequency();
+        }
+    }
+    
+    private class Segment {
+        private final Map<String, PostingsList> postings = new HashMap<>();
+        private final BitSet deletedDocs = new BitSet();
+        // Live document frequency of terms looked up once documents were deleted
+        private final Map<String, Integer> liveDocFrequencies = new ConcurrentHashMap<>();
+        private int[] docOrdinals = new int[1024];
+        private int[] docLengths = new int[1024];
+        // Distinct terms of each live document, to update the frequencies above on removal
+        private String[][] docTerms = new String[1024][];
+        private int[] liveDocByOrdinal = new int[0];
+        private int docCount;
+        private int liveDocCount;
+        private long liveLength;
+        
+        void add(int ordinal, String summary, String description) {
+            Map<String, Integer> frequencies = new HashMap<>();
+            int length = 0;
+            for (String term : TextTokenizer.tokenize(summary)) {
+                frequencies.merge(term, summaryBoost, Integer::sum);
+                length += summaryBoost;
+            }
+            for (String term : TextTokenizer.tokenize(description)) {
+                frequencies.merge(term, 1, Integer::sum);
+                length++;
+            }
+            
+            int docId = docCount++;
+            if (docId == docOrdinals.length) {
+                docOrdinals = Arrays.copyOf(docOrdinals, docOrdinals.length * 2);
+                docLengths = Arrays.copyOf(docLengths, docLengths.length * 2);
+                docTerms = Arrays.copyOf(docTerms, docTerms.length * 2);
+            }
+            if (ordinal >= liveDocByOrdinal.length) {
+                int oldLength = liveDocByOrdinal.length;
+                liveDocByOrdinal = Arrays.copyOf(liveDocByOrdinal, Math.max(ordinal + 1, oldLength * 2));
+                Arrays.fill(liveDocByOrdinal, oldLength, liveDocByOrdinal.length, -1);
+            }
+            
+            docOrdinals[docId] = ordinal;
+            docLengths[docId] = length;
+            docTerms[docId] = frequencies.keySet().toArray(new String[0]);
+            liveDocByOrdinal[ordinal] = docId;
+            frequencies.forEach((term, frequency) -> {
+                postings.computeIfAbsent(term, key -> new PostingsList()).add(docId, frequency);
+                liveDocFrequencies.computeIfPresent(term, (key, count) -> count + 1);
+            });
+            liveDocCount++;
+            liveLength += length;
+        }
+        
+        void remove(int ordinal) {
+            if (ordinal >= liveDocByOrdinal.length || liveDocByOrdinal[ordinal] < 0) {
+                return;
+            }
+            int docId = liveDocByOrdinal[ordinal];
+            liveDocByOrdinal[ordinal] = -1;
+            deletedDocs.set(docId);
+            for (String term : docTerms[docId]) {
+                liveDocFrequencies.computeIfPresent(term, (key, count) -> count - 1);
+            }
+            docTerms[docId] = null;
+            liveDocCount--;
+            liveLength -= docLengths[docId];
+        }
+        
+        List<Hit> search(Set<String> terms, int limit, int excludeOrdinal, IntPredicate ordinalFilter) {
+            if (liveDocCount == 0 || limit <= 0 || terms.isEmpty()) {
+                return new ArrayList<>();
+            }
+            
+            // Score document at a time: the term cursors are merged in document
+            // id order, so each document is scored completely in one step and
+            // no per-document state is allocated
+            PriorityQueue<TermCursor> cursors = new PriorityQueue<>(Comparator.comparingInt(TermCursor::docId));
+            for (String term : terms) {
+                PostingsList list = postings.get(term);
+                if (list != null) {
+                    TermCursor cursor = new TermCursor(list.cursor(), idf(term, list));
+                    if (cursor.next()) {
+                        cursors.add(cursor);
+                    }
+                }
+            }
+            
+            double averageLength = Math.max(1.0, (double) liveLength / liveDocCount);
+            PriorityQueue<Hit> heap = new PriorityQueue<>(limit, Comparator.comparingDouble(Hit::getScore));
+            while (!cursors.isEmpty()) {
+                int docId = cursors.peek().docId();
+                double norm = k1 * (1 - b + b * docLengths[docId] / averageLength);
+                double score = 0;
+                while (!cursors.isEmpty() && cursors.peek().docId() == docId) {
+                    TermCursor cursor = cursors.poll();
+                    int termFrequency = cursor.termFrequency();
+                    score += cursor.idf * termFrequency * (k1 + 1) / (termFrequency + norm);
+                    if (cursor.next()) {
+                        cursors.add(cursor);
+                    }
+                }
+                
+                int ordinal = docOrdinals[docId];
+                if (deletedDocs.get(docId) || ordinal == excludeOrdinal || !ordinalFilter.test(ordinal)) {
+                    continue;
+                }
+                if (heap.size() < limit) {
+                    heap.add(new Hit(ordinal, score));
+                } else if (score > heap.peek().getScore()) {
+                    heap.poll();
+                    heap.add(new Hit(ordinal, score));
+                }
+            }
+            
+            List<Hit> hits = new ArrayList<>(heap);
+            hits.sort(Comparator.comparingDouble(Hit::getScore).reversed());
+            return hits;
+        }
+        
+        /**
+         * BM25 inverse document frequency over live documents
+         */
+        double idf(String term, PostingsList list) {
+            int docFrequency = liveDocFrequency(term, list);
+            return Math.log(1 + (liveDocCount - docFrequency + 0.5) / (docFrequency + 0.5));
+        }
+        
+        /**
+         * Number of live documents containing the term. Postings keep entries
+         * of deleted documents until the next rebuild, so once documents are
+         * deleted the live ones are counted once and the count is kept current
+         * as documents are added and removed.
+         */
+        private int liveDocFrequency(String term, PostingsList list) {
+            if (deletedDocs.isEmpty()) {
+                return list.count();
+            }
+            return liveDocFrequencies.computeIfAbsent(term, key -> {
+                int[] live = new int[1];
+                list.forEach((docId, termFrequency) -> {
+                    if (!deletedDocs.get(docId)) {
+                        live[0]++;
+                    }
+                });
+                return live[0];
+            });
+        }
+        
+        double deletedRatio() {
+            return docCount == 0 ? 0 : (double) (docCount - liveDocCount) / docCount;
+        }
+        
+        long postingsBytes() {
+            long bytes = 0;
+            for (PostingsList list : postings.values()) {
+                bytes += list.sizeInBytes();
+            }
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.impactlens.search;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.impactlens.entities.JiraTicket;
+import com.impactlens.repositories.JiraTicketRepository;
+
+/**
+ * BM25 ranking from the in-process inverted index. Only the final candidates
+ * are loaded from the database, in one query. Falls back to LIKE search until
+ * the index has been built, since full-text search needs the migrated schema.
+ */
+@Component
+public class InvertedIndexCandidateSearch implements FilterableCandidateSearch {
+    
+    @Autowired
+    private InvertedIndex invertedIndex;
+    
+    @Autowired
+    private TicketOrdinals ticketOrdinals;
+    
+    @Autowired
+    private JiraTicketRepository jiraTicketRepository;
+    
+    @Autowired
+    private LikeCandidateSearch likeCandidateSearch;
+    
+    @Override
+    public String getName() {
+        return "index";
+    }
+    
+    @Override
+    public boolean canFilter() {
+        return invertedIndex.isReady();
+    }
+    
+    @Override
+    public List<JiraTicket> findCandidates(JiraTicket sourceTicket, Collection<String> keywords, int limit) {
+        return findCandidates(sourceTicket, keywords, limit, ordinal -> true);
+    }
+    
+    @Override
+    public List<JiraTicket> findCandidates(JiraTicket sourceTicket, Collection<String> keywords, int limit,
+                                           IntPredicate ordinalFilter) {
+        if (!invertedIndex.isReady()) {
+            // The LIKE backend cannot filter; the router filters its results
+            return likeCandidateSearch.findCandidates(sourceTicket, keywords, limit);
+        }
+        
+        int excludeOrdinal = ticketOrdinals.find(sourceTicket.getTicketKey());
+        List<String> ticketKeys = invertedIndex.search(keywords, limit, excludeOrdinal, ordinalFilter)
+            .stream()
+            .map(hit -> ticketOrdinals.keyOf(hit.getOrdinal()))
+            .collect(Collectors.toList());
+        return jiraTicketRepository.findCandidatesByTicketKeyInPreservingOrder(ticketKeys);
+    }
+}
@@ -0,0 +1,80 @@
+package com.impactlens.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.impactlens.entities.JiraTicket;
+
+/**
+ * Extracts search keywords from a ticket without a model call.
+ *
+ * Terms are ranked by TF-IDF: log-scaled frequency in the ticket, with
+ * summary terms boosted, times the inverse document frequency from the
+ * inverted index, whose statistics follow ticket changes as they are synced.
+ * Each keyword is returned in the form it first appears in the ticket so that
+ * substring-based search backends can match it as well.
+ */
+@Component
+public class KeywordExtractor {
+    
+    @Autowired
+    private InvertedIndex invertedIndex;
+    
+    @Value("${analysis.search.index.summary-boost:2}")
+    private int summaryBoost;
+    
+    @Value("${analysis.keywords.max-local:10}")
+    private int maxKeywords;
+    
+    /**
+     * The ticket's most distinctive terms, best first. Empty until the
+     * inverted index is built, since rankings without corpus statistics
+     * would only reflect term counts.
+     */
+    public List<String> extract(JiraTicket ticket) {
+        List<String> keywords = new ArrayList<>();
+        if (!invertedIndex.isReady()) {
+            return keywords;
+        }
+        
+        Map<String, Integer> frequencies = new HashMap<>();
+        Map<String, String> words = new HashMap<>();
+        TextTokenizer.tokenize(ticket.getSummary(), (term, word) -> {
+            if (!isNumber(word)) {
+                frequencies.merge(term, summaryBoost, Integer::sum);
+                words.putIfAbsent(term, word);
+            }
+        });
+        TextTokenizer.tokenize(ticket.getDescription(), (term, word) -> {
+            if (!isNumber(word)) {
+                frequencies.merge(term, 1, Integer::sum);
+                words.putIfAbsent(term, word);
+            }
+        });
+        
+        Map<String, Double> idfs = invertedIndex.inverseDocumentFrequencies(frequencies.keySet());
+        Map<String, Double> scores = new HashMap<>();
+        idfs.forEach((term, idf) -> scores.put(term, (1 + Math.log(frequencies.get(term))) * idf));
+        
+        scores.entrySet().stream()
+            .sorted(Map.Entry.<String, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+            .limit(maxKeywords)
+            .forEach(entry -> keywords.add(words.get(entry.getKey())));
+        return keywords;
+    }
+    
+    private static boolean isNumber(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (!Character.isDigit(word.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,104 @@
+package com.impactlens.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.impactlens.entities.JiraTicket;
+
+/**
+ * Cosine similarity of TF-IDF term vectors, a cheap stand-in for model
+ * relevance scoring.
+ *
+ * Terms are weighted by log-scaled frequency, with summary terms boosted,
+ * times the inverse document frequency from the inverted index. Terms the
+ * index has never seen carry no weight.
+ */
+@Component
+public class LexicalSimilarity {
+    
+    @Autowired
+    private InvertedIndex invertedIndex;
+    
+    @Value("${analysis.search.index.summary-boost:2}")
+    private int summaryBoost;
+    
+    public boolean isReady() {
+        return invertedIndex.isReady();
+    }
+    
+    /**
+     * Similarity between the source and each candidate in [0, 1], in
+     * candidate order
+     */
+    public double[] similarities(JiraTicket source, List<JiraTicket> candidates) {
+        Map<String, Integer> sourceFrequencies = termFrequencies(source);
+        List<Map<String, Integer>> candidateFrequencies = new ArrayList<>(candidates.size());
+        Set<String> terms = new HashSet<>(sourceFrequencies.keySet());
+        for (JiraTicket candidate : candidates) {
+            Map<String, Integer> frequencies = termFrequencies(candidate);
+            candidateFrequencies.add(frequencies);
+            terms.addAll(frequencies.keySet());
+        }
+        
+        Map<String, Double> idfs = invertedIndex.inverseDocumentFrequencies(terms);
+        Map<String, Double> sourceWeights = weights(sourceFrequencies, idfs);
+        double sourceNorm = norm(sourceWeights);
+        
+        double[] similarities = new double[candidates.size()];
+        for (int i = 0; i < similarities.length; i++) {
+            Map<String, Double> candidateWeights = weights(candidateFrequencies.get(i), idfs);
+            double candidateNorm = norm(candidateWeights);
+            if (sourceNorm == 0 || candidateNorm == 0) {
+                continue;
+            }
+            
+            double dot = 0;
+            for (Map.Entry<String, Double> entry : candidateWeights.entrySet()) {
+                Double sourceWeight = sourceWeights.get(entry.getKey());
+                if (sourceWeight != null) {
+                    dot += sourceWeight * entry.getValue();
+                }
+            }
+            similarities[i] = dot / (sourceNorm * candidateNorm);
+        }
+        return similarities;
+    }
+    
+    private Map<String, Integer> termFrequencies(JiraTicket ticket) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : TextTokenizer.tokenize(ticket.getSummary())) {
+            frequencies.merge(term, summaryBoost, Integer::sum);
+        }
+        for (String term : TextTokenizer.tokenize(ticket.getDescription())) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        return frequencies;
+    }
+    
+    private static Map<String, Double> weights(Map<String, Integer> frequencies, Map<String, Double> idfs) {
+        Map<String, Double> weights = new HashMap<>();
+        frequencies.forEach((term, frequency) -> {
+            Double idf = idfs.get(term);
+            if (idf != null) {
+                weights.put(term, (1 + Math.log(frequency)) * idf);
+            }
+        });
+        return weights;
+    }
+    
+    private static double norm(Map<String, Double> weights) {
+        double sum = 0;
+        for (double weight : weights.values()) {
+            sum += weight * weight;
+        }
+        return Math.sqrt(sum);
+    }
+}
@@ -0,0 +1,71 @@
+package com.impactlens.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.impactlens.entities.JiraTicket;
+import com.impactlens.repositories.CandidateMatch;
+import com.impactlens.repositories.JiraTicketRepository;
+import com.impactlens.repositories.TicketCandidate;
+
+/**
+ * Substring matching on summary and description. Needs no index support, so
+ * it scans the whole table.
+ */
+@Component
+public class LikeCandidateSearch implements CandidateSearch {
+    
+    @Autowired
+    private JiraTicketRepository jiraTicketRepository;
+    
+    @Override
+    public String getName() {
+        return "like";
+    }
+    
+    @Override
+    public List<JiraTicket> findCandidates(JiraTicket sourceTicket, Collection<String> keywords, int limit) {
+        return TicketCandidate.toTickets(jiraTicketRepository.searchTicketsByKeywords(keywords, sourceTicket.getTicketKey(), limit));
+    }
+    
+    /**
+     * One query ranks every ticket's candidates by its own keywords; a second
+     * loads each distinct candidate once, however many tickets it matched
+     */
+    @Override
+    public Map<String, List<JiraTicket>> findCandidates(Map<JiraTicket, ? extends Collection<String>> keywordsByTicket,
+                                                        int limit) {
+        Map<String, List<JiraTicket>> candidatesByTicket = new LinkedHashMap<>();
+        Map<String, Collection<String>> keywordsBySource = new LinkedHashMap<>();
+        keywordsByTicket.forEach((sourceTicket, keywords) -> {
+            candidatesByTicket.put(sourceTicket.getTicketKey(), new ArrayList<>());
+            keywordsBySource.put(sourceTicket.getTicketKey(), keywords);
+        });
+        
+        List<CandidateMatch> matches = jiraTicketRepository.searchTicketKeysByKeywords(keywordsBySource, limit);
+        if (matches.isEmpty()) {
+            return candidatesByTicket;
+        }
+        Set<String> ticketKeys = matches.stream()
+            .map(CandidateMatch::getTicketKey)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<String, JiraTicket> candidates = jiraTicketRepository.findCandidatesByTicketKeyIn(ticketKeys).stream()
+            .collect(Collectors.toMap(TicketCandidate::getTicketKey, TicketCandidate::toTicket));
+        for (CandidateMatch match : matches) {
+            JiraTicket candidate = candidates.get(match.getTicketKey());
+            if (candidate != null) {
+                candidatesByTicket.get(match.getSourceKey()).add(candidate);
+            }
+        }
+        return candidatesByTicket;
+    }
+}
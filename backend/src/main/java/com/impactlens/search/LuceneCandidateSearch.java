@@ -0,0 +1,46 @@
+package com.impactlens.search;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.impactlens.entities.JiraTicket;
+import com.impactlens.repositories.JiraTicketRepository;
+
+/**
+ * Relevance-ranked candidates from the embedded Lucene index. Only the final
+ * candidates are loaded from the database, in one query. Falls back to LIKE
+ * search until the index has been built, since full-text search needs the
+ * migrated schema.
+ */
+@Component
+@ConditionalOnProperty(name = "analysis.candidate-search.mode", havingValue = "lucene")
+public class LuceneCandidateSearch implements CandidateSearch {
+    
+    @Autowired
+    private LuceneTicketIndex luceneTicketIndex;
+    
+    @Autowired
+    private JiraTicketRepository jiraTicketRepository;
+    
+    @Autowired
+    private LikeCandidateSearch likeCandidateSearch;
+    
+    @Override
+    public String getName() {
+        return "lucene";
+    }
+    
+    @Override
+    public List<JiraTicket> findCandidates(JiraTicket sourceTicket, Collection<String> keywords, int limit) {
+        if (!luceneTicketIndex.isReady()) {
+            return likeCandidateSearch.findCandidates(sourceTicket, keywords, limit);
+        }
+        
+        List<String> ticketKeys = luceneTicketIndex.search(keywords, limit, sourceTicket.getTicketKey());
+        return jiraTicketRepository.findCandidatesByTicketKeyInPreservingOrder(ticketKeys);
+    }
+}
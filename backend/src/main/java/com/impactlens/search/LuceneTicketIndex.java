@@ -0,0 +1,290 @@
+package com.impactlens.search;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.custom.CustomAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.ClasspathResourceLoader;
+import org.apache.lucene.util.QueryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.impactlens.events.JiraTicketChangedEvent;
+import com.impactlens.repositories.JiraTicketRepository;
+import com.impactlens.repositories.TicketCandidate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Embedded Lucene index of ticket summaries and descriptions on local disk.
+ *
+ * Text is lower-cased, stop-word filtered and Porter-stemmed; queries are
+ * additionally expanded with the synonyms in lucene/synonyms.txt. Documents
+ * are written through a single IndexWriter from the startup build and from
+ * JiraTicketChangedEvents, and searches use near-real-time readers that are
+ * refreshed on a short schedule, so a saved ticket becomes searchable without
+ * waiting for a commit. Only created when lucene is the candidate search mode.
+ */
+@Component
+@ConditionalOnProperty(name = "analysis.candidate-search.mode", havingValue = "lucene")
+public class LuceneTicketIndex {
+    
+    private static final Logger logger = LoggerFactory.getLogger(LuceneTicketIndex.class);
+    
+    private static final String FIELD_KEY = "key";
+    private static final String FIELD_SUMMARY = "summary";
+    private static final String FIELD_DESCRIPTION = "description";
+    
+    @Autowired
+    private JiraTicketRepository jiraTicketRepository;
+    
+    @Value("${analysis.search.lucene.path:data/lucene}")
+    private String indexPath;
+    
+    @Value("${analysis.search.lucene.synonyms:lucene/synonyms.txt}")
+    private String synonymsResource;
+    
+    @Value("${analysis.search.lucene.summary-boost:2}")
+    private float summaryBoost;
+    
+    @Value("${analysis.search.lucene.ram-buffer-mb:32}")
+    private double ramBufferMb;
+    
+    @Value("${analysis.search.index.page-size:1000}")
+    private int pageSize;
+    
+    private Analyzer queryAnalyzer;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private Set<String> changedDuringBuild;
+    private volatile boolean ready;
+    
+    @PostConstruct
+    public void open() throws IOException {
+        Path path = Paths.get(indexPath);
+        Files.createDirectories(path);
+        
+        ClasspathResourceLoader resourceLoader = new ClasspathResourceLoader(getClass().getClassLoader());
+        Analyzer indexAnalyzer = CustomAnalyzer.builder(resourceLoader)
+            .withTokenizer("standard")
+            .addTokenFilter("lowercase")
+            .addTokenFilter("englishPossessive")
+            .addTokenFilter("stop")
+            .addTokenFilter("porterStem")
+            .build();
+        // Synonyms are expanded at query time only, so the synonym list can
+        // change without reindexing
+        queryAnalyzer = CustomAnalyzer.builder(resourceLoader)
+            .withTokenizer("standard")
+            .addTokenFilter("lowercase")
+            .addTokenFilter("englishPossessive")
+            .addTokenFilter("synonymGraph", "synonyms", synonymsResource, "ignoreCase", "true")
+            .addTokenFilter("stop")
+            .addTokenFilter("porterStem")
+            .build();
+        
+        IndexWriterConfig config = new IndexWriterConfig(indexAnalyzer)
+            .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+            .setRAMBufferSizeMB(ramBufferMb);
+        writer = new IndexWriter(FSDirectory.open(path), config);
+        searcherManager = new SearcherManager(writer, null);
+        logger.info("Opened Lucene index at {} with {} documents", path.toAbsolutePath(), writer.getDocStats().numDocs);
+    }
+    
+    @PreDestroy
+    public void close() throws IOException {
+        ready = false;
+        searcherManager.close();
+        writer.close();
+    }
+    
+    /**
+     * Reindex every ticket from the database. Documents of tickets that no
+     * longer exist are removed, and tickets changed while the build runs keep
+     * the version from their change event.
+     */
+    @Async("searchIndexExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        long startTime = System.currentTimeMillis();
+        long[] indexed = new long[1];
+        try {
+            // Clear under the monitor so that no change event is indexed
+            // between clearing and being recorded as newer than the build
+            synchronized (this) {
+                changedDuringBuild = new HashSet<>();
+                writer.deleteAll();
+            }
+            
+            jiraTicketRepository.forEachCandidatePage(pageSize, page -> {
+                synchronized (this) {
+                    for (TicketCandidate ticket : page) {
+                        if (!changedDuringBuild.contains(ticket.getTicketKey())) {
+                            updateDocument(ticket.getTicketKey(), ticket.getSummary(), ticket.getDescription());
+                            indexed[0]++;
+                        }
+                    }
+                }
+            });
+            
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+            ready = true;
+            logger.info("Built Lucene index over {} tickets in {}ms", indexed[0], System.currentTimeMillis() - startTime);
+            
+        } catch (IOException e) {
+            logger.error("Failed to build Lucene index", e);
+            throw new UncheckedIOException(e);
+            
+        } catch (UncheckedIOException e) {
+            logger.error("Failed to build Lucene index", e);
+            throw e;
+            
+        } finally {
+            synchronized (this) {
+                changedDuringBuild = null;
+            }
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketChanged(JiraTicketChangedEvent event) {
+        try {
+            synchronized (this) {
+                if (changedDuringBuild != null) {
+                    changedDuringBuild.add(event.getTicketKey());
+                }
+                if (event.isDeleted()) {
+                    writer.deleteDocuments(keyTerm(event.getTicketKey()));
+                } else {
+                    writer.updateDocument(keyTerm(event.getTicketKey()),
+                        document(event.getTicketKey(), event.getSummary(), event.getDescription()));
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Failed to update ticket {} in Lucene index", event.getTicketKey(), e);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${analysis.search.lucene.refresh-interval:1000}")
+    public void refresh() throws IOException {
+        searcherManager.maybeRefresh();
+    }
+    
+    @Scheduled(fixedDelayString = "${analysis.search.lucene.commit-interval:60000}")
+    public void commit() throws IOException {
+        if (ready && writer.hasUncommittedChanges()) {
+            writer.commit();
+        }
+    }
+    
+    /**
+     * Rank tickets against the keywords and return their keys, best first
+     *
+     * @param excludeKey ticket key to leave out of the results, or null
+     */
+    public List<String> search(Collection<String> keywords, int limit, String excludeKey) {
+        Query query = buildQuery(keywords, excludeKey);
+        List<String> ticketKeys = new ArrayList<>();
+        if (query == null) {
+            return ticketKeys;
+        }
+        
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                StoredFields storedFields = searcher.storedFields();
+                for (ScoreDoc hit : searcher.search(query, limit).scoreDocs) {
+                    ticketKeys.add(storedFields.document(hit.doc).get(FIELD_KEY));
+                }
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return ticketKeys;
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    private Query buildQuery(Collection<String> keywords, String excludeKey) {
+        QueryBuilder queryBuilder = new QueryBuilder(queryAnalyzer);
+        String text = String.join(" ", keywords);
+        Query summaryQuery = queryBuilder.createBooleanQuery(FIELD_SUMMARY, text);
+        Query descriptionQuery = queryBuilder.createBooleanQuery(FIELD_DESCRIPTION, text);
+        if (summaryQuery == null && descriptionQuery == null) {
+            return null;
+        }
+        
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        if (summaryQuery != null) {
+            query.add(new BoostQuery(summaryQuery, summaryBoost), BooleanClause.Occur.SHOULD);
+        }
+        if (descriptionQuery != null) {
+            query.add(descriptionQuery, BooleanClause.Occur.SHOULD);
+        }
+        if (excludeKey != null) {
+            query.add(new TermQuery(keyTerm(excludeKey)), BooleanClause.Occur.MUST_NOT);
+        }
+        return query.build();
+    }
+    
+    private void updateDocument(String ticketKey, String summary, String description) {
+        try {
+            writer.updateDocument(keyTerm(ticketKey), document(ticketKey, summary, description));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static Document document(String ticketKey, String summary, String description) {
+        Document document = new Document();
+        document.add(new StringField(FIELD_KEY, ticketKey, Field.Store.YES));
+        document.add(new TextField(FIELD_SUMMARY, summary != null ? summary : "", Field.Store.NO));
+        document.add(new TextField(FIELD_DESCRIPTION, description != null ? description : "", Field.Store.NO));
+        return document;
+    }
+    
+    private static Term keyTerm(String ticketKey) {
+        return new Term(FIELD_KEY, ticketKey);
+    }
+}
@@ -0,0 +1,200 @@
+package com.impactlens.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.impactlens.entities.JiraTicket;
+import com.impactlens.events.JiraTicketChangedEvent;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Finds near-duplicate tickets with MinHash signatures and LSH banding.
+ *
+ * A ticket's text is reduced to overlapping word shingles and summarised by
+ * the minimum hash of its shingles under each of num-hashes hash functions;
+ * the share of equal positions in two signatures estimates the Jaccard
+ * similarity of the shingle sets. Signatures are split into bands, and
+ * tickets that agree on every row of at least one band land in the same
+ * bucket, so each lookup is a few hash probes instead of a comparison with
+ * every other candidate. Bucket hits are confirmed against the similarity
+ * threshold.
+ */
+@Component
+public class NearDuplicateDetector {
+    
+    @Value("${analysis.duplicates.num-hashes:128}")
+    private int numHashes;
+    
+    @Value("${analysis.duplicates.bands:16}")
+    private int bands;
+    
+    @Value("${analysis.duplicates.shingle-size:3}")
+    private int shingleSize;
+    
+    @Value("${analysis.duplicates.similarity-threshold:0.8}")
+    private double similarityThreshold;
+    
+    @Value("${analysis.duplicates.cache-size:50000}")
+    private int cacheSize;
+    
+    private long[] seeds;
+    private int rowsPerBand;
+    private Map<String, int[]> signatures;
+    
+    @PostConstruct
+    public void init() {
+        if (bands <= 0 || numHashes % bands != 0) {
+            throw new IllegalStateException("analysis.duplicates.num-hashes must be a multiple of bands");
+        }
+        rowsPerBand = numHashes / bands;
+        
+        Random random = new Random(0x5EEDL);
+        seeds = new long[numHashes];
+        for (int i = 0; i < numHashes; i++) {
+            seeds[i] = random.nextLong();
+        }
+        
+        signatures = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, int[]> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketChanged(JiraTicketChangedEvent event) {
+        synchronized (signatures) {
+            signatures.remove(event.getTicketKey());
+        }
+    }
+    
+    /**
+     * Group candidates into near-duplicate clusters. Candidates are expected
+     * best first; the first member of each cluster becomes its representative.
+     * Candidates that are near-duplicates of the source ticket form their own
+     * single-ticket clusters and carry their estimated similarity to it.
+     */
+    public DuplicateClusters collapse(JiraTicket sourceTicket, List<JiraTicket> candidates) {
+        int[] sourceSignature = signatureOf(sourceTicket);
+        
+        List<JiraTicket> representatives = new ArrayList<>();
+        List<int[]> representativeSignatures = new ArrayList<>();
+        Map<String, List<String>> duplicates = new HashMap<>();
+        Map<String, Double> sourceSimilarities = new HashMap<>();
+        Map<Long, Integer> buckets = new HashMap<>();
+        
+        for (JiraTicket candidate : candidates) {
+            int[] signature = signatureOf(candidate);
+            
+            double sourceSimilarity = similarity(sourceSignature, signature);
+            if (sourceSimilarity >= similarityThreshold) {
+                representatives.add(candidate);
+                representativeSignatures.add(signature);
+                sourceSimilarities.put(candidate.getTicketKey(), sourceSimilarity);
+                continue;
+            }
+            
+            Integer cluster = null;
+            for (int band = 0; band < bands && cluster == null; band++) {
+                Integer bucket = buckets.get(bandKey(signature, band));
+                if (bucket != null && similarity(representativeSignatures.get(bucket), signature) >= similarityThreshold) {
+                    cluster = bucket;
+                }
+            }
+            
+            if (cluster != null) {
+                duplicates.computeIfAbsent(representatives.get(cluster).getTicketKey(), key -> new ArrayList<>())
+                    .add(candidate.getTicketKey());
+            } else {
+                int index = representatives.size();
+                representatives.add(candidate);
+                representativeSignatures.add(signature);
+                for (int band = 0; band < bands; band++) {
+                    buckets.putIfAbsent(bandKey(signature, band), index);
+                }
+            }
+        }
+        
+        return new DuplicateClusters(representatives, duplicates, sourceSimilarities, candidates.size());
+    }
+    
+    /**
+     * Estimated Jaccard similarity of two signatures
+     */
+    double similarity(int[] first, int[] second) {
+        int equal = 0;
+        for (int i = 0; i < numHashes; i++) {
+            if (first[i] == second[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / numHashes;
+    }
+    
+    int[] signatureOf(JiraTicket ticket) {
+        synchronized (signatures) {
+            int[] cached = signatures.get(ticket.getTicketKey());
+            if (cached != null) {
+                return cached;
+            }
+        }
+        
+        int[] signature = computeSignature(ticket.getSummary(), ticket.getDescription());
+        synchronized (signatures) {
+            signatures.put(ticket.getTicketKey(), signature);
+        }
+        return signature;
+    }
+    
+    private int[] computeSignature(String summary, String description) {
+        List<String> tokens = TextTokenizer.tokenize((summary != null ? summary : "") + " " +
+            (description != null ? description : ""));
+        Set<Long> shingles = new HashSet<>();
+        if (tokens.size() < shingleSize) {
+            shingles.add(mix(String.join(" ", tokens).hashCode()));
+        } else {
+            for (int i = 0; i + shingleSize <= tokens.size(); i++) {
+                shingles.add(mix(String.join(" ", tokens.subList(i, i + shingleSize)).hashCode()));
+            }
+        }
+        
+        int[] signature = new int[numHashes];
+        for (int i = 0; i < numHashes; i++) {
+            long min = Long.MAX_VALUE;
+            for (long shingle : shingles) {
+                min = Math.min(min, mix(shingle ^ seeds[i]));
+            }
+            signature[i] = (int) (min >>> 32);
+        }
+        return signature;
+    }
+    
+    private long bandKey(int[] signature, int band) {
+        long key = band;
+        for (int row = band * rowsPerBand; row < (band + 1) * rowsPerBand; row++) {
+            key = mix(key * 31 + signature[row]);
+        }
+        return key;
+    }
+    
+    /**
+     * SplitMix64 finalizer
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+}
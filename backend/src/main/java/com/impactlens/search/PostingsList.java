@@ -0,0 +1,121 @@
+package com.impactlens.search;
+
+import java.util.Arrays;
+
+/**
+ * Append-only, compressed postings for one term.
+ *
+ * Entries are (document id, term frequency) pairs in increasing document id
+ * order, stored as variable-length integers with document ids delta-encoded.
+ * Typical lists take one or two bytes per entry.
+ */
+final class PostingsList {
+    
+    private byte[] data = new byte[8];
+    private int length;
+    private int count;
+    private int lastDocId = -1;
+    
+    interface PostingConsumer {
+        void accept(int docId, int termFrequency);
+    }
+    
+    /**
+     * Append an entry; document ids must be strictly increasing
+     */
+    void add(int docId, int termFrequency) {
+        if (docId <= lastDocId) {
+            throw new IllegalArgumentException("Document ids must increase: " + docId + " after " + lastDocId);
+        }
+        if (length + 10 > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, length + 10));
+        }
+        writeVInt(docId - lastDocId);
+        writeVInt(termFrequency);
+        lastDocId = docId;
+        count++;
+    }
+    
+    void forEach(PostingConsumer consumer) {
+        Cursor cursor = cursor();
+        while (cursor.next()) {
+            consumer.accept(cursor.docId(), cursor.termFrequency());
+        }
+    }
+    
+    /**
+     * A cursor positioned before the first entry. It sees the entries present
+     * when it was created and must not be used across a concurrent add.
+     */
+    Cursor cursor() {
+        return new Cursor(data, length);
+    }
+    
+    /**
+     * Number of entries, including entries of documents deleted since
+     */
+    int count() {
+        return count;
+    }
+    
+    int sizeInBytes() {
+        return length;
+    }
+    
+    /**
+     * Forward-only iteration over the entries in document id order
+     */
+    static final class Cursor {
+        
+        private final byte[] data;
+        private final int length;
+        private int position;
+        private int docId = -1;
+        private int termFrequency;
+        
+        private Cursor(byte[] data, int length) {
+            this.data = data;
+            this.length = length;
+        }
+        
+        /**
+         * Move to the next entry; false once the list is exhausted
+         */
+        boolean next() {
+            if (position >= length) {
+                return false;
+            }
+            docId += readVInt();
+            termFrequency = readVInt();
+            return true;
+        }
+        
+        int docId() {
+            return docId;
+        }
+        
+        int termFrequency() {
+            return termFrequency;
+        }
+        
+        private int readVInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+    
+    private void writeVInt(int value) {
+        while ((value & ~0x7F) != 0) {
+            data[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[length++] = (byte) value;
+    }
+}
@@ -0,0 +1,123 @@
+package com.impactlens.search;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Unit-length vectors stored as one signed byte per dimension in a
+ * memory-mapped file.
+ *
+ * Each component in [-1, 1] is scaled by 127 and rounded, which keeps cosine
+ * similarity within about 1% of the float value at a quarter of the size. The
+ * file is mapped in fixed-size segments so it can grow past the 2 GB limit of
+ * a single mapping; the operating system pages vectors in and out as needed.
+ */
+final class QuantizedVectors implements Closeable {
+    
+    private static final int NODES_PER_SEGMENT = 1 << 16;
+    private static final float SCALE = 127f;
+    
+    private final FileChannel channel;
+    private final int dimensions;
+    private final List<MappedByteBuffer> segments = new CopyOnWriteArrayList<>();
+    
+    QuantizedVectors(Path file, int dimensions) throws IOException {
+        this.channel = FileChannel.open(file,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.dimensions = dimensions;
+        
+        long segmentBytes = segmentBytes();
+        for (long offset = 0; offset < channel.size(); offset += segmentBytes) {
+            segments.add(channel.map(FileChannel.MapMode.READ_WRITE, offset, segmentBytes));
+        }
+    }
+    
+    int dimensions() {
+        return dimensions;
+    }
+    
+    /**
+     * Store a unit-length vector for the node, growing the file if needed
+     */
+    void set(int node, float[] vector) throws IOException {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions, got " + vector.length);
+        }
+        int segment = node / NODES_PER_SEGMENT;
+        while (segments.size() <= segment) {
+            segments.add(channel.map(FileChannel.MapMode.READ_WRITE, segments.size() * segmentBytes(), segmentBytes()));
+        }
+        
+        MappedByteBuffer buffer = segments.get(segment);
+        int offset = (node % NODES_PER_SEGMENT) * dimensions;
+        for (int i = 0; i < dimensions; i++) {
+            buffer.put(offset + i, (byte) Math.round(Math.max(-1f, Math.min(1f, vector[i])) * SCALE));
+        }
+    }
+    
+    /**
+     * Cosine similarity between a unit-length query and a stored vector
+     */
+    float similarity(float[] query, int node) {
+        MappedByteBuffer buffer = segments.get(node / NODES_PER_SEGMENT);
+        int offset = (node % NODES_PER_SEGMENT) * dimensions;
+        float dot = 0;
+        for (int i = 0; i < dimensions; i++) {
+            dot += query[i] * buffer.get(offset + i);
+        }
+        return dot / SCALE;
+    }
+    
+    /**
+     * Cosine similarity between two stored vectors
+     */
+    float similarity(int a, int b) {
+        MappedByteBuffer bufferA = segments.get(a / NODES_PER_SEGMENT);
+        MappedByteBuffer bufferB = segments.get(b / NODES_PER_SEGMENT);
+        int offsetA = (a % NODES_PER_SEGMENT) * dimensions;
+        int offsetB = (b % NODES_PER_SEGMENT) * dimensions;
+        int dot = 0;
+        for (int i = 0; i < dimensions; i++) {
+            dot += bufferA.get(offsetA + i) * bufferB.get(offsetB + i);
+        }
+        return dot / (SCALE * SCALE);
+    }
+    
+    /**
+     * Approximate original vector of a node
+     */
+    float[] get(int node) {
+        MappedByteBuffer buffer = segments.get(node / NODES_PER_SEGMENT);
+        int offset = (node % NODES_PER_SEGMENT) * dimensions;
+        float[] vector = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = buffer.get(offset + i) / SCALE;
+        }
+        return vector;
+    }
+    
+    /**
+     * Flush modified pages to disk
+     */
+    void force() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+    
+    private long segmentBytes() {
+        return (long) NODES_PER_SEGMENT * dimensions;
+    }
+}
@@ -0,0 +1,68 @@
+package com.impactlens.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Tokenizer shared by the in-process search structures.
+ *
+ * Lower-cases text, splits on anything that is not a letter or digit, drops
+ * stop words and single characters, and folds simple English plurals so that
+ * "logins" and "login" produce the same term.
+ */
+public final class TextTokenizer {
+    
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "but", "by", "can", "do", "does", "for", "from",
+        "has", "have", "if", "in", "into", "is", "it", "its", "not", "of", "on", "or", "should",
+        "so", "such", "than", "that", "the", "then", "there", "these", "they", "this", "those",
+        "to", "was", "we", "were", "when", "will", "with", "you"
+    );
+    
+    private TextTokenizer() {
+    }
+    
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        tokenize(text, (term, word) -> tokens.add(term));
+        return tokens;
+    }
+    
+    /**
+     * Pass each term to the consumer together with the lower-cased word it
+     * was produced from
+     */
+    public static void tokenize(String text, BiConsumer<String, String> consumer) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String word = lower.substring(start, i);
+                if (word.length() >= 2 && !STOP_WORDS.contains(word)) {
+                    consumer.accept(stem(word), word);
+                }
+                start = -1;
+            }
+        }
+    }
+    
+    private static String stem(String token) {
+        if (token.length() > 4 && token.endsWith("ies")) {
+            return token.substring(0, token.length() - 3) + "y";
+        }
+        if (token.length() > 3 && token.endsWith("s") && !token.endsWith("ss") && !token.endsWith("us")) {
+            return token.substring(0, token.length() - 1);
+        }
+        return token;
+    }
+}
@@ -0,0 +1,286 @@
+package com.impactlens.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-memory graph of ticket relationships for multi-hop impact traversal.
+ *
+ * Edges come from persisted relevance scores in related_tickets that are
+ * still current for both tickets and from the issue links in each ticket's
+ * raw Jira data, and are treated as undirected.
+ * The graph is stored in compressed sparse row form over ticket ordinals:
+ * the neighbours of node n are targets[offsets[n]] to targets[offsets[n + 1]],
+ * with matching weights, so a traversal touches only primitive arrays. The
+ * graph is rebuilt from the database periodically and swapped in whole.
+ */
+@Component
+public class TicketGraph {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TicketGraph.class);
+    
+    // Only edges scored against the current version of both tickets, like
+    // RelevanceEdgeStore reuses them; a missing version never matches
+    private static final String RELEVANCE_EDGES =
+        "SELECT e.source_ticket_key, e.related_ticket_key, e.relevance_score FROM related_tickets e " +
+        "JOIN jira_tickets s ON s.ticket_key = e.source_ticket_key AND s.updated_at = e.source_updated_at " +
+        "JOIN jira_tickets r ON r.ticket_key = e.related_ticket_key AND r.updated_at = e.related_updated_at " +
+        "WHERE e.relevance_score IS NOT NULL";
+    
+    private static final String ISSUE_LINK_EDGES =
+        "SELECT t.ticket_key, COALESCE(l -> 'outwardIssue' ->> 'key', l -> 'inwardIssue' ->> 'key') AS linked_key " +
+        "FROM jira_tickets t CROSS JOIN LATERAL jsonb_array_elements(t.raw_data -> 'fields' -> 'issuelinks') l " +
+        "WHERE jsonb_typeof(t.raw_data -> 'fields' -> 'issuelinks') = 'array'";
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private TicketOrdinals ticketOrdinals;
+    
+    @Value("${analysis.graph.link-weight:0.9}")
+    private float linkWeight;
+    
+    @Value("${analysis.graph.fetch-size:10000}")
+    private int fetchSize;
+    
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTransaction;
+    private volatile Csr graph = new Csr(new int[1], new int[0], new float[0]);
+    private volatile boolean ready;
+    
+    /**
+     * A ticket reached by traversal, with the best path score and the ticket
+     * it was reached from
+     */
+    public static final class Reached {
+        private final int ordinal;
+        private final float score;
+        private final int hops;
+        private final int via;
+        
+        Reached(int ordinal, float score, int hops, int via) {
+            this.ordinal = ordinal;
+            this.score = score;
+            this.hops = hops;
+            this.via = via;
+        }
+        
+        public int getOrdinal() {
+            return ordinal;
+        }
+        
+        public float getScore() {
+            return score;
+        }
+        
+        public int getHops() {
+            return hops;
+        }
+        
+        public int getVia() {
+            return via;
+        }
+    }
+    
+    @PostConstruct
+    public void init() {
+        // PostgreSQL only streams result sets inside a transaction
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(fetchSize);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+    
+    @Async("searchIndexExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+    
+    @Scheduled(initialDelayString = "${analysis.graph.rebuild-interval:300000}",
+               fixedDelayString = "${analysis.graph.rebuild-interval:300000}")
+    public void rebuild() {
+        long startTime = System.currentTimeMillis();
+        EdgeList edges = new EdgeList();
+        
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(RELEVANCE_EDGES, (RowCallbackHandler) rs ->
+            edges.add(ticketOrdinals.ordinalOf(rs.getString(1)), ticketOrdinals.ordinalOf(rs.getString(2)), rs.getFloat(3))));
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(ISSUE_LINK_EDGES, (RowCallbackHandler) rs -> {
+                String linkedKey = rs.getString(2);
+                if (linkedKey != null) {
+                    edges.add(ticketOrdinals.ordinalOf(rs.getString(1)), ticketOrdinals.ordinalOf(linkedKey), linkWeight);
+                }
+            }));
+        } catch (RuntimeException e) {
+            logger.warn("Could not load Jira issue links into the ticket graph", e);
+        }
+        
+        Csr built = edges.toCsr(ticketOrdinals.size());
+        graph = built;
+        ready = true;
+        logger.info("Built ticket graph with {} nodes and {} edges in {}ms",
+            built.nodeCount(), built.targets.length, System.currentTimeMillis() - startTime);
+    }
+    
+    /**
+     * Best-first traversal from the seeds. A path's score is the product of
+     * its edge weights, multiplied by decay for every hop after the first, so
+     * paths never gain score and the first time a node is settled its score
+     * is final.
+     *
+     * @param source ordinal of the ticket being analyzed
+     * @param seeds ordinals known to be directly related, with their scores;
+     *              they take precedence over the source's edges in the graph
+     * @param maxDepth maximum number of hops from the source
+     * @param decay score multiplier applied per additional hop
+     * @param minScore paths scoring below this are not followed
+     * @param limit maximum number of tickets to return
+     * @return reached tickets other than the source and the seeds, best first
+     */
+    public List<Reached> traverse(int source, Map<Integer, Float> seeds, int maxDepth, float decay,
+                                  float minScore, int limit) {
+        Csr csr = graph;
+        Map<Integer, Reached> settled = new HashMap<>();
+        PriorityQueue<Reached> queue = new PriorityQueue<>((a, b) -> Float.compare(b.score, a.score));
+        
+        settled.put(source, new Reached(source, 1f, 0, -1));
+        seeds.forEach((ordinal, score) -> queue.add(new Reached(ordinal, score, 1, source)));
+        for (int i = csr.start(source); i < csr.end(source); i++) {
+            if (!seeds.containsKey(csr.targets[i]) && csr.weights[i] >= minScore) {
+                queue.add(new Reached(csr.targets[i], csr.weights[i], 1, source));
+            }
+        }
+        
+        List<Reached> reached = new ArrayList<>();
+        while (!queue.isEmpty() && reached.size() < limit) {
+            Reached current = queue.poll();
+            if (settled.containsKey(current.ordinal)) {
+                continue;
+            }
+            settled.put(current.ordinal, current);
+            if (!seeds.containsKey(current.ordinal)) {
+                reached.add(current);
+            }
+            if (current.hops == maxDepth) {
+                continue;
+            }
+            
+            for (int i = csr.start(current.ordinal); i < csr.end(current.ordinal); i++) {
+                int target = csr.targets[i];
+                float score = current.score * csr.weights[i] * decay;
+                if (score >= minScore && !settled.containsKey(target)) {
+                    queue.add(new Reached(target, score, current.hops + 1, current.ordinal));
+                }
+            }
+        }
+        return reached;
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    /**
+     * Compressed sparse row adjacency
+     */
+    private static final class Csr {
+        private final int[] offsets;
+        private final int[] targets;
+        private final float[] weights;
+        
+        Csr(int[] offsets, int[] targets, float[] weights) {
+            this.offsets = offsets;
+            this.targets = targets;
+            this.weights = weights;
+        }
+        
+        int nodeCount() {
+            return offsets.length - 1;
+        }
+        
+        int start(int node) {
+            return node < nodeCount() ? offsets[node] : 0;
+        }
+        
+        int end(int node) {
+            return node < nodeCount() ? offsets[node + 1] : 0;
+        }
+    }
+    
+    /**
+     * Growable primitive edge list, turned into CSR with a counting sort
+     */
+    private static final class EdgeList {
+        private int[] from = new int[1024];
+        private int[] to = new int[1024];
+        private float[] weight = new float[1024];
+        private int size;
+        
+        void add(int a, int b, float w) {
+            if (a == b) {
+                return;
+            }
+            append(a, b, w);
+            append(b, a, w);
+        }
+        
+        private void append(int a, int b, float w) {
+            if (size == from.length) {
+                from = Arrays.copyOf(from, size * 2);
+                to = Arrays.copyOf(to, size * 2);
+                weight = Arrays.copyOf(weight, size * 2);
+            }
+            from[size] = a;
+            to[size] = b;
+            weight[size] = w;
+            size++;
+        }
+        
+        Csr toCsr(int nodeCount) {
+            int[] offsets = new int[nodeCount + 1];
+            for (int i = 0; i < size; i++) {
+                offsets[from[i] + 1]++;
+            }
+            for (int node = 0; node < nodeCount; node++) {
+                offsets[node + 1] += offsets[node];
+            }
+            
+            int[] targets = new int[size];
+            float[] weights = new float[size];
+            int[] next = Arrays.copyOf(offsets, nodeCount);
+            for (int i = 0; i < size; i++) {
+                int slot = next[from[i]]++;
+                targets[slot] = to[i];
+                weights[slot] = weight[i];
+            }
+            return new Csr(offsets, targets, weights);
+        }
+    }
+}
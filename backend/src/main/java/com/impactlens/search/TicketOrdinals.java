@@ -0,0 +1,61 @@
+package com.impactlens.search;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Assigns every ticket key a stable, dense integer ordinal.
+ *
+ * In-memory search structures store ordinals instead of keys or entities so
+ * they can use primitive arrays and bitmaps. Ordinals are never reused for the
+ * lifetime of the process.
+ */
+@Component
+public class TicketOrdinals {
+    
+    private final Map<String, Integer> ordinals = new ConcurrentHashMap<>();
+    private String[] keys = new String[1024];
+    private int size;
+    
+    /**
+     * Ordinal of the ticket key, assigning a new one if needed
+     */
+    public int ordinalOf(String ticketKey) {
+        Integer ordinal = ordinals.get(ticketKey);
+        if (ordinal != null) {
+            return ordinal;
+        }
+        
+        synchronized (this) {
+            ordinal = ordinals.get(ticketKey);
+            if (ordinal == null) {
+                if (size == keys.length) {
+                    keys = Arrays.copyOf(keys, keys.length * 2);
+                }
+                ordinal = size++;
+                keys[ordinal] = ticketKey;
+                ordinals.put(ticketKey, ordinal);
+            }
+            return ordinal;
+        }
+    }
+    
+    /**
+     * Ordinal of the ticket key, or -1 if it has never been seen
+     */
+    public int find(String ticketKey) {
+        Integer ordinal = ordinals.get(ticketKey);
+        return ordinal != null ? ordinal : -1;
+    }
+    
+    public synchronized String keyOf(int ordinal) {
+        return ordinal >= 0 && ordinal < size ? keys[ordinal] : null;
+    }
+    
+    public synchronized int size() {
+        return size;
+    }
+}
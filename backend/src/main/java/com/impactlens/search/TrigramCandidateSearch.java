@@ -0,0 +1,41 @@
+package com.impactlens.search;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.impactlens.entities.JiraTicket;
+import com.impactlens.repositories.JiraTicketRepository;
+import com.impactlens.repositories.TicketCandidate;
+
+/**
+ * Fuzzy matching with pg_trgm word similarity, so "login", "log-in" and
+ * "logins" find each other. Served by the trigram GIN indexes.
+ */
+@Component
+public class TrigramCandidateSearch implements CandidateSearch {
+    
+    @Autowired
+    private JiraTicketRepository jiraTicketRepository;
+    
+    @Value("${analysis.candidate-search.trigram.similarity-threshold:0.4}")
+    private double similarityThreshold;
+    
+    @Override
+    public String getName() {
+        return "trigram";
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<JiraTicket> findCandidates(JiraTicket sourceTicket, Collection<String> keywords, int limit) {
+        // The threshold is transaction-local, so it must share the search's transaction
+        jiraTicketRepository.setWordSimilarityThreshold(String.format(Locale.ROOT, "%.2f", similarityThreshold));
+        return TicketCandidate.toTickets(jiraTicketRepository.trigramSearch(keywords, sourceTicket.getTicketKey(), limit));
+    }
+}
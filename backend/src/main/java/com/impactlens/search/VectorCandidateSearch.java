@@ -0,0 +1,78 @@
+package com.impactlens.search;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.impactlens.entities.JiraTicket;
+import com.impactlens.repositories.JiraTicketRepository;
+
+/**
+ * Semantically nearest tickets from the HNSW vector index, found with one
+ * approximate nearest-neighbour query on the source ticket's embedding.
+ * Keywords are not used. Falls back to LIKE search until the index has been
+ * built, since full-text search needs the migrated schema.
+ */
+@Component
+@ConditionalOnProperty(name = "analysis.candidate-search.mode", havingValue = "vector")
+public class VectorCandidateSearch implements FilterableCandidateSearch {
+    
+    @Autowired
+    private VectorIndex vectorIndex;
+    
+    @Autowired
+    private JiraTicketRepository jiraTicketRepository;
+    
+    @Autowired
+    private LikeCandidateSearch likeCandidateSearch;
+    
+    @Override
+    public String getName() {
+        return "vector";
+    }
+    
+    @Override
+    public boolean canFilter() {
+        return vectorIndex.isReady();
+    }
+    
+    @Override
+    public List<JiraTicket> findCandidates(JiraTicket sourceTicket, Collection<String> keywords, int limit) {
+        if (!vectorIndex.isReady()) {
+            return likeCandidateSearch.findCandidates(sourceTicket, keywords, limit);
+        }
+        
+        List<String> ticketKeys = vectorIndex.search(vectorIndex.vectorOf(sourceTicket), limit,
+            sourceTicket.getTicketKey());
+        return jiraTicketRepository.findCandidatesByTicketKeyInPreservingOrder(ticketKeys);
+    }
+    
+    @Override
+    public List<JiraTicket> findCandidates(JiraTicket sourceTicket, Collection<String> keywords, int limit,
+                                           IntPredicate ordinalFilter) {
+        if (!vectorIndex.isReady()) {
+            return likeCandidateSearch.findCandidates(sourceTicket, keywords, limit);
+        }
+        
+        List<String> ticketKeys = vectorIndex.search(vectorIndex.vectorOf(sourceTicket), limit,
+            sourceTicket.getTicketKey(), ordinalFilter);
+        return jiraTicketRepository.findCandidatesByTicketKeyInPreservingOrder(ticketKeys);
+    }
+    
+    @Override
+    public List<JiraTicket> findCandidates(JiraTicket sourceTicket, Collection<String> keywords, int limit,
+                                           RoaringBitmap allowed) {
+        if (!vectorIndex.isReady()) {
+            return likeCandidateSearch.findCandidates(sourceTicket, keywords, limit);
+        }
+        
+        List<String> ticketKeys = vectorIndex.search(vectorIndex.vectorOf(sourceTicket), limit,
+            sourceTicket.getTicketKey(), allowed);
+        return jiraTicketRepository.findCandidatesByTicketKeyInPreservingOrder(ticketKeys);
+    }
+}
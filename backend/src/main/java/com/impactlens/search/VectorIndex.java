@@ -0,0 +1,454 @@
+package com.impactlens.search;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.impactlens.entities.JiraTicket;
+import com.impactlens.events.JiraTicketChangedEvent;
+import com.impactlens.repositories.JiraTicketRepository;
+import com.impactlens.repositories.TicketCandidate;
+import com.impactlens.services.EmbeddingService;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Approximate nearest-neighbour index of ticket embeddings.
+ *
+ * Vectors are int8-quantized into a memory-mapped file and linked by an HNSW
+ * graph held in memory, so one query returns the semantically closest tickets
+ * without scanning. The graph is checkpointed next to the vectors and loaded
+ * again on startup together with the content hash of every vector; tickets
+ * that are missing or whose text changed are embedded in the background.
+ * Ticket changes are queued and embedded in batches.
+ *
+ * Vectors are only ever appended, so a checkpoint always refers to vectors
+ * that are already on disk. Compaction writes a new vectors file and switches
+ * to it with the next checkpoint. Only created when vector is the candidate
+ * search mode.
+ */
+@Component
+@ConditionalOnProperty(name = "analysis.candidate-search.mode", havingValue = "vector")
+public class VectorIndex {
+    
+    private static final Logger logger = LoggerFactory.getLogger(VectorIndex.class);
+    
+    private static final String GRAPH_FILE = "graph.bin";
+    
+    @Autowired
+    private JiraTicketRepository jiraTicketRepository;
+    
+    @Autowired
+    private EmbeddingService embeddingService;
+    
+    @Autowired
+    private TicketOrdinals ticketOrdinals;
+    
+    @Value("${analysis.search.vector.path:data/vectors}")
+    private String indexPath;
+    
+    @Value("${analysis.search.vector.m:16}")
+    private int m;
+    
+    @Value("${analysis.search.vector.ef-construction:100}")
+    private int efConstruction;
+    
+    @Value("${analysis.search.vector.ef-search:64}")
+    private int efSearch;
+    
+    @Value("${analysis.search.vector.exact-search-threshold:2000}")
+    private int exactSearchThreshold;
+    
+    @Value("${analysis.search.vector.max-deleted-ratio:0.2}")
+    private double maxDeletedRatio;
+    
+    @Value("${analysis.search.index.page-size:1000}")
+    private int pageSize;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object writeMonitor = new Object();
+    private final Map<String, JiraTicketChangedEvent> pendingChanges = new LinkedHashMap<>();
+    private int dimensions;
+    private Path directory;
+    private String vectorsFile;
+    private HnswGraph graph;
+    private Set<String> changedDuringBuild;
+    private volatile boolean ready;
+    
+    @PostConstruct
+    public void open() throws IOException {
+        dimensions = embeddingService.getDimensions();
+        directory = Paths.get(indexPath);
+        Files.createDirectories(directory);
+        
+        Path graphPath = directory.resolve(GRAPH_FILE);
+        if (Files.exists(graphPath)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(graphPath)))) {
+                vectorsFile = in.readUTF();
+                graph = new HnswGraph(new QuantizedVectors(directory.resolve(vectorsFile), dimensions), m, efConstruction);
+                if (!graph.read(in)) {
+                    logger.warn("Vector index at {} was built with different settings, rebuilding", directory);
+                    graph.close();
+                    graph = null;
+                    Files.deleteIfExists(directory.resolve(vectorsFile));
+                }
+            } catch (IOException e) {
+                logger.warn("Could not load vector index at {}, rebuilding", directory, e);
+                graph = null;
+            }
+        }
+        
+        if (graph == null) {
+            vectorsFile = newVectorsFile();
+            graph = new HnswGraph(new QuantizedVectors(directory.resolve(vectorsFile), dimensions), m, efConstruction);
+        }
+        ready = graph.size() > 0;
+        logger.info("Opened vector index at {} with {} tickets", directory.toAbsolutePath(), graph.size());
+    }
+    
+    @PreDestroy
+    public void close() throws IOException {
+        synchronized (writeMonitor) {
+            ready = false;
+            writeCheckpoint();
+            graph.close();
+        }
+    }
+    
+    /**
+     * Embed every ticket that is not in the index yet or whose text changed,
+     * and drop tickets that no longer exist
+     */
+    @Async("searchIndexExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        long startTime = System.currentTimeMillis();
+        synchronized (writeMonitor) {
+            changedDuringBuild = new HashSet<>();
+        }
+        
+        try {
+            Set<String> existingKeys = new HashSet<>();
+            int[] embedded = new int[1];
+            jiraTicketRepository.forEachCandidatePage(pageSize, page -> {
+                List<String> stale = new ArrayList<>();
+                List<String> texts = new ArrayList<>();
+                for (TicketCandidate ticket : page) {
+                    existingKeys.add(ticket.getTicketKey());
+                    String text = EmbeddingService.ticketText(ticket.getSummary(), ticket.getDescription());
+                    if (!contains(ticket.getTicketKey(), EmbeddingService.contentHash(text))) {
+                        stale.add(ticket.getTicketKey());
+                        texts.add(text);
+                    }
+                }
+                
+                List<float[]> vectors = embeddingService.embedAll(texts);
+                try {
+                    synchronized (writeMonitor) {
+                        for (int i = 0; i < stale.size(); i++) {
+                            // A change event carries newer content than this page
+                            if (!changedDuringBuild.contains(stale.get(i))) {
+                                insert(stale.get(i), vectors.get(i), EmbeddingService.contentHash(texts.get(i)));
+                                embedded[0]++;
+                            }
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            
+            synchronized (writeMonitor) {
+                int removed = 0;
+                for (String ticketKey : graph.ticketKeys()) {
+                    if (!existingKeys.contains(ticketKey) && !changedDuringBuild.contains(ticketKey)) {
+                        delete(ticketKey);
+                        removed++;
+                    }
+                }
+                ready = true;
+                writeCheckpoint();
+                logger.info("Vector index ready with {} tickets ({} embedded, {} removed) in {}ms",
+                    graph.size(), embedded[0], removed, System.currentTimeMillis() - startTime);
+            }
+            
+        } catch (IOException e) {
+            logger.error("Failed to build vector index", e);
+            throw new UncheckedIOException(e);
+            
+        } catch (UncheckedIOException e) {
+            logger.error("Failed to build vector index", e);
+            throw e;
+            
+        } finally {
+            synchronized (writeMonitor) {
+                changedDuringBuild = null;
+            }
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketChanged(JiraTicketChangedEvent event) {
+        synchronized (pendingChanges) {
+            pendingChanges.put(event.getTicketKey(), event);
+        }
+    }
+    
+    /**
+     * Embed and index queued ticket changes in one batch. Repeated changes to
+     * a ticket between runs are embedded once.
+     */
+    @Scheduled(fixedDelayString = "${analysis.search.vector.update-interval:1000}")
+    public void applyPendingChanges() {
+        List<JiraTicketChangedEvent> changes;
+        synchronized (pendingChanges) {
+            if (pendingChanges.isEmpty()) {
+                return;
+            }
+            changes = new ArrayList<>(pendingChanges.values());
+            pendingChanges.clear();
+        }
+        
+        List<String> texts = new ArrayList<>();
+        for (JiraTicketChangedEvent change : changes) {
+            texts.add(change.isDeleted() ? null : EmbeddingService.ticketText(change.getSummary(), change.getDescription()));
+        }
+        
+        List<float[]> vectors;
+        try {
+            vectors = embeddingService.embedAll(texts.stream().filter(Objects::nonNull).collect(Collectors.toList()));
+        } catch (RuntimeException e) {
+            logger.error("Failed to embed {} changed tickets", changes.size(), e);
+            return;
+        }
+        
+        synchronized (writeMonitor) {
+            int next = 0;
+            for (int i = 0; i < changes.size(); i++) {
+                String ticketKey = changes.get(i).getTicketKey();
+                try {
+                    if (changedDuringBuild != null) {
+                        changedDuringBuild.add(ticketKey);
+                    }
+                    if (texts.get(i) == null) {
+                        delete(ticketKey);
+                    } else {
+                        insert(ticketKey, vectors.get(next++), EmbeddingService.contentHash(texts.get(i)));
+                    }
+                } catch (IOException e) {
+                    logger.error("Failed to update ticket {} in vector index", ticketKey, e);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Rebuild the graph if too many nodes are tombstones, then persist it
+     */
+    @Scheduled(fixedDelayString = "${analysis.search.vector.checkpoint-interval:300000}")
+    public void checkpoint() throws IOException {
+        synchronized (writeMonitor) {
+            if (graph.deletedRatio() > maxDeletedRatio) {
+                compact();
+            }
+            writeCheckpoint();
+        }
+    }
+    
+    /**
+     * The tickets most similar to the query vector, most similar first
+     *
+     * @param excludeKey ticket key to leave out of the results, or null
+     */
+    public List<String> search(float[] query, int limit, String excludeKey) {
+        return search(query, limit, excludeKey, (IntPredicate) null);
+    }
+    
+    /**
+     * The tickets most similar to the query vector whose ordinal passes the
+     * filter, most similar first
+     *
+     * @param ordinalFilter ticket ordinals to accept, or null for all
+     */
+    public List<String> search(float[] query, int limit, String excludeKey, IntPredicate ordinalFilter) {
+        lock.readLock().lock();
+        try {
+            IntPredicate accept = node -> {
+                String ticketKey = graph.keyOf(node);
+                if (ticketKey.equals(excludeKey)) {
+                    return false;
+                }
+                if (ordinalFilter == null) {
+                    return true;
+                }
+                int ordinal = ticketOrdinals.find(ticketKey);
+                return ordinal >= 0 && ordinalFilter.test(ordinal);
+            };
+            return ticketKeys(graph.search(query, limit, efSearch, accept));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * The tickets in the bitmap most similar to the query vector, most
+     * similar first. A graph search only collects accepted nodes but still
+     * walks past all the others, so when few tickets are allowed they are
+     * compared with the query directly instead.
+     */
+    public List<String> search(float[] query, int limit, String excludeKey, RoaringBitmap allowed) {
+        if (allowed.getCardinality() > exactSearchThreshold) {
+            return search(query, limit, excludeKey, allowed::contains);
+        }
+        
+        List<String> allowedKeys = new ArrayList<>(allowed.getCardinality());
+        for (int ordinal : allowed.toArray()) {
+            String ticketKey = ticketOrdinals.keyOf(ordinal);
+            if (ticketKey != null && !ticketKey.equals(excludeKey)) {
+                allowedKeys.add(ticketKey);
+            }
+        }
+        lock.readLock().lock();
+        try {
+            return ticketKeys(graph.exactSearch(query, limit, allowedKeys));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Embedding of the ticket, from the index when it is already there
+     */
+    public float[] vectorOf(JiraTicket ticket) {
+        lock.readLock().lock();
+        try {
+            float[] vector = graph.vectorOf(ticket.getTicketKey());
+            if (vector != null) {
+                return vector;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return embeddingService.embed(EmbeddingService.ticketText(ticket));
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    private static List<String> ticketKeys(List<HnswGraph.Hit> hits) {
+        List<String> ticketKeys = new ArrayList<>(hits.size());
+        for (HnswGraph.Hit hit : hits) {
+            ticketKeys.add(hit.ticketKey);
+        }
+        return ticketKeys;
+    }
+    
+    private boolean contains(String ticketKey, long contentHash) {
+        lock.readLock().lock();
+        try {
+            return graph.contains(ticketKey, contentHash);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private void insert(String ticketKey, float[] vector, long contentHash) throws IOException {
+        lock.writeLock().lock();
+        try {
+            graph.insert(ticketKey, vector, contentHash);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private void delete(String ticketKey) {
+        lock.writeLock().lock();
+        try {
+            graph.delete(ticketKey);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Copy live vectors into a new file and graph. Searches keep using the
+     * old graph until the swap; writers are held off by the write monitor.
+     */
+    private void compact() throws IOException {
+        long startTime = System.currentTimeMillis();
+        String compactedFile = newVectorsFile();
+        HnswGraph compacted = new HnswGraph(new QuantizedVectors(directory.resolve(compactedFile), dimensions), m, efConstruction);
+        graph.copyLiveTo(compacted);
+        
+        HnswGraph previous;
+        String previousFile;
+        lock.writeLock().lock();
+        try {
+            previous = graph;
+            previousFile = vectorsFile;
+            graph = compacted;
+            vectorsFile = compactedFile;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        
+        writeCheckpoint();
+        previous.close();
+        Files.deleteIfExists(directory.resolve(previousFile));
+        logger.info("Compacted vector index to {} tickets in {}ms", compacted.size(), System.currentTimeMillis() - startTime);
+    }
+    
+    /**
+     * Name for a new vectors file that does not exist yet, even if the
+     * previous one was created within the same millisecond
+     */
+    private String newVectorsFile() {
+        long stamp = System.currentTimeMillis();
+        while (Files.exists(directory.resolve("vectors-" + stamp + ".i8"))) {
+            stamp++;
+        }
+        return "vectors-" + stamp + ".i8";
+    }
+    
+    private void writeCheckpoint() throws IOException {
+        Path temporary = directory.resolve(GRAPH_FILE + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeUTF(vectorsFile);
+            graph.write(out);
+        }
+        Files.move(temporary, directory.resolve(GRAPH_FILE),
+            StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
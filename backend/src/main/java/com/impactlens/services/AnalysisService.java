@@ -1,11 +1,13 @@
 package com.impactlens.services;
 
+import java.util.List;
 import java.util.UUID;
 
 import org.springframework.security.core.Authentication;
 
 import com.impactlens.dto.AnalysisRequest;
 import com.impactlens.dto.AnalysisResponse;
+import com.impactlens.dto.BatchAnalysisRequest;
 
 public interface AnalysisService {
     
@@ -15,7 +17,23 @@ public interface AnalysisService {
     AnalysisResponse analyzeTicket(AnalysisRequest request, Authentication authentication);
     
     /**
-     * Get the status of an ongoing analysis
+     * Analyze a Jira ticket, reporting pipeline progress to the given listener
+     */
+    AnalysisResponse analyzeTicket(AnalysisRequest request, Authentication authentication, AnalysisStageListener listener);
+    
+    /**
+     * Analyze many tickets at once, sharing ticket loads and keyword searches
+     * across the batch. Results are returned in request order.
+     */
+    List<AnalysisResponse> analyzeTickets(BatchAnalysisRequest request, Authentication authentication);
+    
+    /**
+     * Queue an analysis on the job executor and return its queued status immediately
+     */
+    AnalysisResponse submitAnalysis(AnalysisRequest request, Authentication authentication);
+    
+    /**
+     * Get the status of an ongoing analysis, or null if the analysis is unknown
      */
     AnalysisResponse getAnalysisStatus(UUID analysisId, Authentication authentication);
     
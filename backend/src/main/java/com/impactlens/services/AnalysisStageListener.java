@@ -0,0 +1,43 @@
+package com.impactlens.services;
+
+/**
+ * Receives progress callbacks from the analysis pipeline.
+ *
+ * Callbacks may arrive concurrently from different stage threads, so
+ * implementations must be thread-safe.
+ */
+public interface AnalysisStageListener {
+    
+    /**
+     * Listener that ignores all callbacks
+     */
+    AnalysisStageListener NONE = new AnalysisStageListener() {};
+    
+    /**
+     * Report sections published through onSectionReady
+     */
+    String SECTION_TICKET = "ticket";
+    String SECTION_RELATED_TICKETS = "relatedTickets";
+    String SECTION_GAPS = "gaps";
+    String SECTION_REGRESSION_AREAS = "regressionAreas";
+    String SECTION_SUMMARY = "summary";
+    
+    /**
+     * Called when a pipeline stage starts running
+     */
+    default void onStageStarted(String stage) {
+    }
+    
+    /**
+     * Called when a pipeline stage has finished successfully
+     */
+    default void onStageCompleted(String stage, long elapsedMillis) {
+    }
+    
+    /**
+     * Called as soon as a section of the report is available. The payload is
+     * one of the AnalysisResponse nested types, or a list of them.
+     */
+    default void onSectionReady(String section, Object payload) {
+    }
+}
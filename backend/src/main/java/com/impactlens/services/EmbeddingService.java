@@ -0,0 +1,53 @@
+package com.impactlens.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+import com.impactlens.entities.JiraTicket;
+
+public interface EmbeddingService {
+    
+    /**
+     * Number of dimensions of every vector this service returns
+     */
+    int getDimensions();
+    
+    /**
+     * Embed text as a unit-length vector
+     */
+    float[] embed(String text);
+    
+    /**
+     * Embed many texts in parallel batches. Vectors are returned in text order.
+     */
+    List<float[]> embedAll(List<String> texts);
+    
+    /**
+     * Text embedded for a ticket
+     */
+    static String ticketText(String summary, String description) {
+        return (summary != null ? summary : "") + "\n" + (description != null ? description : "");
+    }
+    
+    static String ticketText(JiraTicket ticket) {
+        return ticketText(ticket.getSummary(), ticket.getDescription());
+    }
+    
+    /**
+     * 64-bit content hash identifying an embedded text
+     */
+    static long contentHash(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            long hash = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                hash = (hash << 8) | (digest[i] & 0xFF);
+            }
+            return hash;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
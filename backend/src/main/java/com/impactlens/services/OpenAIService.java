@@ -17,6 +17,17 @@ public interface OpenAIService {
      */
     double calculateRelevanceScore(JiraTicket sourceTicket, JiraTicket relatedTicket);
     
+    /**
+     * Calculate relevance scores between a ticket and many candidates, scoring
+     * several candidates per model call. Scores are returned in candidate order.
+     */
+    List<Double> calculateRelevanceScores(JiraTicket sourceTicket, List<JiraTicket> candidates);
+    
+    /**
+     * Embed text as a unit-length vector of openai.embedding-dimensions
+     */
+    float[] generateEmbedding(String text);
+    
     /**
      * Perform gap analysis
      */
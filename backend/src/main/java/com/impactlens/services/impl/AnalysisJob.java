@@ -0,0 +1,118 @@
+package com.impactlens.services.impl;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import com.impactlens.dto.AnalysisResponse;
+import com.impactlens.services.AnalysisStageListener;
+
+/**
+ * State of an asynchronous analysis, updated by the job thread and read by
+ * status requests.
+ */
+public class AnalysisJob implements AnalysisStageListener {
+    
+    public static final String QUEUED = "queued";
+    public static final String RUNNING = "running";
+    public static final String COMPLETED = "completed";
+    public static final String FAILED = "failed";
+    
+    private final UUID analysisId;
+    private final String ticketId;
+    private final LocalDateTime createdAt;
+    private final Set<String> runningStages = Collections.synchronizedSet(new LinkedHashSet<>());
+    
+    private volatile String status = QUEUED;
+    private volatile AnalysisResponse result;
+    private volatile String errorMessage;
+    private volatile LocalDateTime finishedAt;
+    
+    public AnalysisJob(UUID analysisId, String ticketId) {
+        this.analysisId = analysisId;
+        this.ticketId = ticketId;
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    @Override
+    public void onStageStarted(String stage) {
+        runningStages.add(stage);
+    }
+    
+    @Override
+    public void onStageCompleted(String stage, long elapsedMillis) {
+        runningStages.remove(stage);
+    }
+    
+    public void markRunning() {
+        this.status = RUNNING;
+    }
+    
+    public void complete(AnalysisResponse result) {
+        this.result = result;
+        this.finishedAt = LocalDateTime.now();
+        runningStages.clear();
+        this.status = COMPLETED;
+    }
+    
+    public void fail(Throwable error) {
+        Throwable cause = error.getCause() != null ? error.getCause() : error;
+        this.errorMessage = cause.getMessage();
+        this.finishedAt = LocalDateTime.now();
+        runningStages.clear();
+        this.status = FAILED;
+    }
+    
+    public boolean isFinished() {
+        return finishedAt != null;
+    }
+    
+    /**
+     * Comma-separated names of the stages currently running, or null
+     */
+    public String getCurrentStage() {
+        synchronized (runningStages) {
+            return runningStages.isEmpty() ? null : String.join(",", runningStages);
+        }
+    }
+    
+    /**
+     * Snapshot of the job as an API response
+     */
+    public AnalysisResponse toResponse() {
+        AnalysisResponse snapshot = result;
+        AnalysisResponse response = new AnalysisResponse();
+        response.setAnalysisId(analysisId);
+        response.setStatus(status);
+        response.setStage(getCurrentStage());
+        response.setErrorMessage(errorMessage);
+        if (snapshot != null) {
+            response.setReport(snapshot.getReport());
+            response.setMetadata(snapshot.getMetadata());
+        }
+        return response;
+    }
+    
+    // Getters
+    public UUID getAnalysisId() {
+        return analysisId;
+    }
+    
+    public String getTicketId() {
+        return ticketId;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+}
@@ -0,0 +1,54 @@
+package com.impactlens.services.impl;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory registry of asynchronous analysis jobs.
+ *
+ * Finished jobs are kept for the configured retention period so clients can
+ * poll for the result, then evicted.
+ */
+@Component
+public class AnalysisJobRegistry {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisJobRegistry.class);
+    
+    private final Map<UUID, AnalysisJob> jobs = new ConcurrentHashMap<>();
+    
+    @Value("${analysis.jobs.retention:3600000}")
+    private long retentionMillis;
+    
+    public AnalysisJob create(String ticketId) {
+        AnalysisJob job = new AnalysisJob(UUID.randomUUID(), ticketId);
+        jobs.put(job.getAnalysisId(), job);
+        return job;
+    }
+    
+    public AnalysisJob get(UUID analysisId) {
+        return jobs.get(analysisId);
+    }
+    
+    public AnalysisJob remove(UUID analysisId) {
+        return jobs.remove(analysisId);
+    }
+    
+    @Scheduled(fixedDelayString = "${analysis.jobs.cleanup-interval:60000}")
+    public void evictFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(retentionMillis * 1_000_000L);
+        int before = jobs.size();
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+        int evicted = before - jobs.size();
+        if (evicted > 0) {
+            logger.debug("Evicted {} finished analysis jobs", evicted);
+        }
+    }
+}
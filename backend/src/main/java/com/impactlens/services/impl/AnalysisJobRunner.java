@@ -0,0 +1,47 @@
+package com.impactlens.services.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import com.impactlens.dto.AnalysisRequest;
+import com.impactlens.dto.AnalysisResponse;
+import com.impactlens.services.AnalysisService;
+
+/**
+ * Runs queued analyses on the job executor.
+ *
+ * Jobs call the same analyzeTicket entry point as synchronous requests, so
+ * they read and fill the analysis cache and join identical analyses already
+ * in flight. The service is injected lazily because it depends on this
+ * runner.
+ */
+@Component
+public class AnalysisJobRunner {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AnalysisJobRunner.class);
+    
+    @Autowired
+    @Lazy
+    private AnalysisService analysisService;
+    
+    @Async("analysisJobExecutor")
+    public void run(AnalysisJob job, AnalysisRequest request, Authentication authentication) {
+        job.markRunning();
+        logger.info("Running analysis job {} for ticket: {}", job.getAnalysisId(), job.getTicketId());
+        
+        try {
+            AnalysisResponse response = analysisService.analyzeTicket(request, authentication, job);
+            job.complete(response);
+            logger.info("Analysis job {} completed", job.getAnalysisId());
+            
+        } catch (Exception e) {
+            logger.error("Analysis job {} failed for ticket: {}", job.getAnalysisId(), job.getTicketId(), e);
+            job.fail(e);
+        }
+    }
+}
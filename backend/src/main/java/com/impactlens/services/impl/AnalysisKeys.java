@@ -0,0 +1,67 @@
+package com.impactlens.services.impl;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import com.impactlens.dto.AnalysisRequest;
+
+/**
+ * Canonical keys for analysis requests.
+ *
+ * Requests that would produce the same report map to the same key, which
+ * in-flight request coalescing uses as is. The analysis cache adds the
+ * ticket's version so that a changed ticket is analyzed again.
+ */
+public final class AnalysisKeys {
+    
+    private AnalysisKeys() {
+    }
+    
+    public static String cacheKey(AnalysisRequest request) {
+        AnalysisRequest.AnalysisOptions options = request.getOptions();
+        return request.getTicketId().trim().toUpperCase(Locale.ROOT) + ":" + String.format(Locale.ROOT,
+            "comments=%b;attachments=%b;depth=%s;max=%d;min=%s",
+            options.isIncludeComments(),
+            options.isIncludeAttachments(),
+            options.getAnalysisDepth() != null ? options.getAnalysisDepth().trim().toLowerCase(Locale.ROOT) : "detailed",
+            options.getMaxRelatedTickets(),
+            // Exact, so that thresholds which filter differently never share a report
+            BigDecimal.valueOf(options.getMinRelevanceScore()).stripTrailingZeros().toPlainString())
+            + (options.getTransitiveDepth() > 1 ? ";transitive=" + options.getTransitiveDepth() : "")
+            + filterKey(options.getCandidateFilter());
+    }
+    
+    /**
+     * Cache key of a request against one version of its ticket
+     */
+    public static String versionedKey(String requestKey, LocalDateTime ticketVersion) {
+        // The database keeps microseconds, tickets fetched from Jira may carry nanoseconds
+        return requestKey + "@" + ticketVersion.truncatedTo(ChronoUnit.MICROS);
+    }
+    
+    private static String filterKey(AnalysisRequest.CandidateFilter filter) {
+        if (filter == null || filter.isEmpty()) {
+            return "";
+        }
+        return ";filter=" + String.join("|",
+            canonical(filter.getStatuses()),
+            canonical(filter.getPriorities()),
+            canonical(filter.getAssignees()),
+            canonical(filter.getProjects()));
+    }
+    
+    private static String canonical(List<String> values) {
+        if (values == null) {
+            return "";
+        }
+        return values.stream()
+            .map(value -> value.trim().toLowerCase(Locale.ROOT))
+            .distinct()
+            .sorted()
+            .collect(Collectors.joining(","));
+    }
+}
@@ -1,33 +1,68 @@
 package com.impactlens.services.impl;
 
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
 import com.impactlens.dto.AnalysisRequest;
 import com.impactlens.dto.AnalysisResponse;
+import com.impactlens.dto.BatchAnalysisRequest;
 import com.impactlens.entities.JiraTicket;
 import com.impactlens.repositories.JiraTicketRepository;
+import com.impactlens.repositories.TicketCandidate;
+import com.impactlens.search.CandidateSearchRouter;
+import com.impactlens.search.DuplicateClusters;
+import com.impactlens.search.KeywordExtractor;
+import com.impactlens.search.NearDuplicateDetector;
+import com.impactlens.search.TicketGraph;
+import com.impactlens.search.TicketOrdinals;
 import com.impactlens.services.AnalysisService;
+import com.impactlens.services.AnalysisStageListener;
 import com.impactlens.services.JiraService;
 import com.impactlens.services.OpenAIService;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
 @Service
 public class AnalysisServiceImpl implements AnalysisService {
     
     private static final Logger logger = LoggerFactory.getLogger(AnalysisServiceImpl.class);
     
+    private static final String REFRESH_LOCK_PREFIX = "impactlens:analysis-refresh:";
+    
     @Autowired
     private JiraService jiraService;
     
@@ -37,27 +72,264 @@ public class AnalysisServiceImpl implements AnalysisService {
     @Autowired
     private JiraTicketRepository jiraTicketRepository;
     
+    @Autowired
+    @Qualifier("analysisStageExecutor")
+    private Executor analysisStageExecutor;
+    
+    @Autowired
+    @Qualifier("analysisJobExecutor")
+    private Executor analysisJobExecutor;
+    
+    @Autowired
+    private AnalysisJobRegistry analysisJobRegistry;
+    
+    @Autowired
+    private AnalysisJobRunner analysisJobRunner;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private RelatedTicketSelector relatedTicketSelector;
+    
+    @Autowired
+    private CandidateSearchRouter candidateSearchRouter;
+    
+    @Autowired
+    private NearDuplicateDetector nearDuplicateDetector;
+    
+    @Autowired
+    private KeywordExtractor keywordExtractor;
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    @Autowired
+    private RelevanceEdgeStore relevanceEdgeStore;
+    
+    @Autowired
+    private CascadeScorer cascadeScorer;
+    
+    @Autowired
+    private TicketGraph ticketGraph;
+    
+    @Autowired
+    private TicketOrdinals ticketOrdinals;
+    
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+    
+    @Value("${analysis.max-candidates:500}")
+    private int maxCandidates;
+    
+    @Value("${analysis.max-batch-candidate-rows:2000}")
+    private int maxBatchCandidateRows;
+    
+    @Value("${analysis.graph.max-depth:4}")
+    private int maxTransitiveDepth;
+    
+    @Value("${analysis.graph.decay:0.7}")
+    private float transitiveDecay;
+    
+    @Value("${analysis.graph.max-transitive-tickets:20}")
+    private int maxTransitiveTickets;
+    
+    @Value("${analysis.cache.soft-ttl:3600000}")
+    private long cacheSoftTtl;
+    
+    @Value("${spring.cache.redis.time-to-live:86400000}")
+    private long cacheHardTtl;
+    
+    @Value("${analysis.cache.early-refresh-beta:1.0}")
+    private double earlyRefreshBeta;
+    
+    @Value("${analysis.cache.refresh-lock-ttl:60000}")
+    private long refreshLockTtl;
+    
+    // Time and randomness of the cache refresh decisions; tests fix both
+    private Clock clock = Clock.systemDefaultZone();
+    private DoubleSupplier random = () -> ThreadLocalRandom.current().nextDouble();
+    
+    private final SingleFlight<String, AnalysisResponse> inFlightAnalyses = new SingleFlight<>();
+    private final Set<String> refreshingAnalyses = ConcurrentHashMap.newKeySet();
+    private Counter localKeywordCounter;
+    private Counter modelKeywordCounter;
+    private Counter expiredRefreshCounter;
+    private Counter earlyRefreshCounter;
+    
+    @PostConstruct
+    public void registerMetrics() {
+        FunctionCounter.builder("impactlens.analysis.coalesced", inFlightAnalyses, SingleFlight::getCoalescedCount)
+            .description("Analysis requests served by an identical request already in flight")
+            .register(meterRegistry);
+        Gauge.builder("impactlens.analysis.in-flight", inFlightAnalyses, SingleFlight::getInFlightCount)
+            .description("Distinct analyses currently being computed")
+            .register(meterRegistry);
+        localKeywordCounter = Counter.builder("impactlens.keywords.extractions")
+            .description("Keyword extractions by where the keywords came from")
+            .tag("source", "local")
+            .register(meterRegistry);
+        modelKeywordCounter = Counter.builder("impactlens.keywords.extractions")
+            .description("Keyword extractions by where the keywords came from")
+            .tag("source", "model")
+            .register(meterRegistry);
+        expiredRefreshCounter = Counter.builder("impactlens.analysis.cache.refreshes")
+            .description("Cached analyses recomputed in the background while the cached report was served")
+            .tag("trigger", "expired")
+            .register(meterRegistry);
+        earlyRefreshCounter = Counter.builder("impactlens.analysis.cache.refreshes")
+            .description("Cached analyses recomputed in the background while the cached report was served")
+            .tag("trigger", "early")
+            .register(meterRegistry);
+    }
+    
     @Override
-    @Cacheable(value = "analysis", key = "#request.ticketId + ':' + #request.options.hashCode()")
     public AnalysisResponse analyzeTicket(AnalysisRequest request, Authentication authentication) {
+        return analyzeTicket(request, authentication, AnalysisStageListener.NONE);
+    }
+    
+    @Override
+    public AnalysisResponse analyzeTicket(AnalysisRequest request, Authentication authentication,
+            AnalysisStageListener listener) {
+        String requestKey = AnalysisKeys.cacheKey(request);
+        AnalysisResponse cached = jiraTicketRepository.findUpdatedAtByTicketKey(request.getTicketId())
+            .map(version -> getCachedAnalysis(AnalysisKeys.versionedKey(requestKey, version)))
+            .orElse(null);
+        if (cached != null) {
+            logger.info("Serving analysis of ticket {} from cache", request.getTicketId());
+            refreshIfDue(request, requestKey, cached);
+            AnalysisResponse served = servedFromCache(cached);
+            AnalysisResponse.AnalysisReport report = served.getReport();
+            if (report.getSourceTicket() != null) {
+                listener.onSectionReady(AnalysisStageListener.SECTION_TICKET, report.getSourceTicket());
+            }
+            listener.onSectionReady(AnalysisStageListener.SECTION_RELATED_TICKETS, report.getRelatedTickets());
+            listener.onSectionReady(AnalysisStageListener.SECTION_GAPS, report.getGapsIdentified());
+            listener.onSectionReady(AnalysisStageListener.SECTION_REGRESSION_AREAS, report.getRegressionAreas());
+            listener.onSectionReady(AnalysisStageListener.SECTION_SUMMARY, report.getSummary());
+            return served;
+        }
+        
+        // Concurrent identical requests share one pipeline run
+        return inFlightAnalyses.execute(
+            requestKey,
+            () -> runAnalysis(request, listener),
+            (response, coalesced) -> {
+                response.getMetadata().setCoalescedRequests(coalesced);
+                if (coalesced > 0) {
+                    logger.info("Shared analysis of ticket {} with {} concurrent callers",
+                        request.getTicketId(), coalesced);
+                }
+            });
+    }
+    
+    /**
+     * Recompute a cached analysis in the background once it is past its soft
+     * TTL, or a little before that at random (XFetch): the earlier refresh
+     * grows with the time the analysis took to compute, so refreshes of
+     * expensive and popular reports spread out ahead of the boundary instead
+     * of all landing on it. Callers keep getting the cached report meanwhile.
+     * A short Redis lock on the request lets only one node refresh it; the
+     * lock is left to expire, by when the new report has replaced the old.
+     */
+    private void refreshIfDue(AnalysisRequest request, String requestKey, AnalysisResponse cached) {
+        LocalDateTime completedAt = cached.getMetadata().getCompletedAt();
+        if (completedAt == null) {
+            return;
+        }
+        long age = Duration.between(completedAt, LocalDateTime.now(clock)).toMillis();
+        double earlyBy = -cached.getMetadata().getProcessingTime() * earlyRefreshBeta
+            * Math.log(1.0 - random.getAsDouble());
+        if (age + earlyBy < cacheSoftTtl || !refreshingAnalyses.add(requestKey)) {
+            return;
+        }
+        if (!claimRefresh(requestKey)) {
+            refreshingAnalyses.remove(requestKey);
+            return;
+        }
+        
+        (age >= cacheSoftTtl ? expiredRefreshCounter : earlyRefreshCounter).increment();
+        try {
+            analysisJobExecutor.execute(() -> {
+                try {
+                    logger.info("Refreshing cached analysis of ticket {} ({}ms old)", request.getTicketId(), age);
+                    inFlightAnalyses.execute(requestKey, () -> runAnalysis(request, AnalysisStageListener.NONE),
+                        (response, coalesced) -> response.getMetadata().setCoalescedRequests(coalesced));
+                } catch (RuntimeException e) {
+                    logger.warn("Background refresh of ticket {} failed; the cached analysis stays in place",
+                        request.getTicketId(), e);
+                } finally {
+                    refreshingAnalyses.remove(requestKey);
+                }
+            });
+        } catch (RuntimeException e) {
+            // Job queue is full; a later request tries again
+            refreshingAnalyses.remove(requestKey);
+            logger.debug("Skipped background refresh of ticket {}: {}", request.getTicketId(), e.getMessage());
+        }
+    }
+    
+    /**
+     * Take the cluster-wide refresh lock of a request (SET NX PX). Without
+     * Redis the per-node guard is all there is, so the refresh goes ahead.
+     */
+    private boolean claimRefresh(String requestKey) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue()
+                .setIfAbsent(REFRESH_LOCK_PREFIX + requestKey, "1", Duration.ofMillis(refreshLockTtl)));
+        } catch (RuntimeException e) {
+            logger.debug("Could not take the refresh lock of {}: {}", requestKey, e.getMessage());
+            return true;
+        }
+    }
+    
+    private AnalysisResponse runAnalysis(AnalysisRequest request, AnalysisStageListener listener) {
         long startTime = System.currentTimeMillis();
         logger.info("Starting analysis for ticket: {}", request.getTicketId());
         
         try {
+            // Stages declare their inputs; gap analysis and regression areas
+            // only need the ticket and related tickets, so they run in parallel
+            StageGraph graph = new StageGraph(analysisStageExecutor, listener);
+            
             // Step 1: Fetch or retrieve ticket data
-            JiraTicket ticket = getTicketData(request.getTicketId());
+            StageGraph.Stage<JiraTicket> ticketStage = graph.stage("fetchTicket", () -> {
+                JiraTicket fetched = getTicketData(request.getTicketId());
+                listener.onSectionReady(AnalysisStageListener.SECTION_TICKET, convertToSourceTicket(fetched));
+                return fetched;
+            });
             
             // Step 2: Extract keywords for related ticket search
-            List<String> keywords = openAIService.extractKeywords(ticket);
+            StageGraph.Stage<List<String>> keywordStage = graph.stage("extractKeywords",
+                () -> extractKeywords(ticketStage.get(), request.getOptions()),
+                ticketStage);
             
             // Step 3: Find related tickets
-            List<JiraTicket> relatedTickets = findRelatedTickets(ticket, keywords, request.getOptions());
+            StageGraph.Stage<List<ScoredTicket>> relatedStage = graph.stage("findRelatedTickets", () -> {
+                List<ScoredTicket> related = findRelatedTickets(ticketStage.get(), keywordStage.get(), request.getOptions());
+                listener.onSectionReady(AnalysisStageListener.SECTION_RELATED_TICKETS, convertToRelatedTickets(related));
+                return related;
+            }, ticketStage, keywordStage);
             
             // Step 4: Perform gap analysis
-            AnalysisResponse.GapAnalysis gapAnalysis = performGapAnalysis(ticket, relatedTickets);
+            StageGraph.Stage<AnalysisResponse.GapAnalysis> gapStage = graph.stage("gapAnalysis", () -> {
+                AnalysisResponse.GapAnalysis gaps = performGapAnalysis(ticketStage.get(), ScoredTicket.tickets(relatedStage.get()));
+                listener.onSectionReady(AnalysisStageListener.SECTION_GAPS, Arrays.asList(gaps));
+                return gaps;
+            }, ticketStage, relatedStage);
             
             // Step 5: Generate regression testing recommendations
-            List<AnalysisResponse.RegressionArea> regressionAreas = generateRegressionAreas(ticket, relatedTickets);
+            StageGraph.Stage<List<AnalysisResponse.RegressionArea>> regressionStage = graph.stage("regressionAreas", () -> {
+                List<AnalysisResponse.RegressionArea> areas = generateRegressionAreas(ticketStage.get(),
+                    ScoredTicket.tickets(relatedStage.get()));
+                listener.onSectionReady(AnalysisStageListener.SECTION_REGRESSION_AREAS, areas);
+                return areas;
+            }, ticketStage, relatedStage);
+            
+            JiraTicket ticket = graph.await(ticketStage);
+            List<ScoredTicket> relatedTickets = graph.await(relatedStage);
+            AnalysisResponse.GapAnalysis gapAnalysis = graph.await(gapStage);
+            List<AnalysisResponse.RegressionArea> regressionAreas = graph.await(regressionStage);
             
             // Step 6: Create comprehensive report
             AnalysisResponse response = buildAnalysisResponse(
@@ -68,9 +340,15 @@ public class AnalysisServiceImpl implements AnalysisService {
                 regressionAreas,
                 System.currentTimeMillis() - startTime
             );
+            response.getMetadata().setStageTimings(graph.getStageTimings());
+            if (ticket.getUpdatedAt() != null) {
+                putCachedAnalysis(AnalysisKeys.versionedKey(AnalysisKeys.cacheKey(request), ticket.getUpdatedAt()), response);
+            }
+            listener.onSectionReady(AnalysisStageListener.SECTION_SUMMARY, response.getReport().getSummary());
             
-            logger.info("Analysis completed for ticket: {} in {}ms", 
-                request.getTicketId(), response.getMetadata().getProcessingTime());
+            logger.info("Analysis completed for ticket: {} in {}ms (stages: {})", 
+                request.getTicketId(), response.getMetadata().getProcessingTime(),
+                response.getMetadata().getStageTimings());
             
             return response;
             
@@ -80,14 +358,140 @@ public class AnalysisServiceImpl implements AnalysisService {
         }
     }
     
+    @Override
+    public List<AnalysisResponse> analyzeTickets(BatchAnalysisRequest request, Authentication authentication) {
+        long startTime = System.currentTimeMillis();
+        // Repeated IDs are analyzed once but still get a response each
+        List<String> ticketIds = request.getTicketIds().stream().distinct().collect(Collectors.toList());
+        AnalysisRequest.AnalysisOptions options = request.getOptions();
+        logger.info("Starting batch analysis for {} tickets", ticketIds.size());
+        
+        // Step 1: Load all known tickets in one query, fetch the rest from Jira
+        Map<String, JiraTicket> tickets = getTicketData(ticketIds);
+        
+        // Step 2: Serve tickets analyzed before with the same options from the
+        // cache; only the rest go through the pipeline
+        Map<String, CompletableFuture<AnalysisResponse>> responses = new HashMap<>();
+        Map<String, JiraTicket> pending = new LinkedHashMap<>();
+        for (String ticketId : ticketIds) {
+            JiraTicket ticket = tickets.get(ticketId);
+            if (ticket == null) {
+                responses.put(ticketId, CompletableFuture.completedFuture(
+                    buildFailedResponse(ticketId, "Ticket could not be fetched")));
+                continue;
+            }
+            
+            AnalysisRequest ticketRequest = new AnalysisRequest(ticketId, options);
+            String requestKey = AnalysisKeys.cacheKey(ticketRequest);
+            AnalysisResponse cached = ticket.getUpdatedAt() != null
+                ? getCachedAnalysis(AnalysisKeys.versionedKey(requestKey, ticket.getUpdatedAt()))
+                : null;
+            if (cached != null) {
+                refreshIfDue(ticketRequest, requestKey, cached);
+                responses.put(ticketId, CompletableFuture.completedFuture(servedFromCache(cached)));
+            } else {
+                pending.put(ticketId, ticket);
+            }
+        }
+        
+        // Step 3: Extract keywords for every remaining ticket in parallel
+        Map<JiraTicket, CompletableFuture<List<String>>> keywordFutures = new LinkedHashMap<>();
+        for (JiraTicket ticket : pending.values()) {
+            keywordFutures.put(ticket, CompletableFuture.supplyAsync(
+                () -> extractKeywords(ticket, options), analysisStageExecutor));
+        }
+        Map<JiraTicket, List<String>> keywordsByTicket = new LinkedHashMap<>();
+        keywordFutures.forEach((ticket, future) -> keywordsByTicket.put(ticket, future.join()));
+        
+        // Step 4: Search and analyze the tickets in chunks whose candidates fit
+        // in max-batch-candidate-rows; a chunk is scored before the next one is
+        // searched, so memory does not grow with the batch. Each ticket's
+        // candidates are ranked by its own keywords, and relevance scores
+        // between two tickets are symmetric and shared by both analyses.
+        Map<String, CompletableFuture<Double>> pairScores = new ConcurrentHashMap<>();
+        int rowsPerTicket = candidateSearchRouter.candidateRowsPerTicket(maxCandidates, options.getCandidateFilter());
+        int chunkSize = Math.max(1, maxBatchCandidateRows / Math.max(1, rowsPerTicket));
+        List<JiraTicket> pendingTickets = new ArrayList<>(pending.values());
+        for (int from = 0; from < pendingTickets.size(); from += chunkSize) {
+            Map<JiraTicket, Set<String>> searchKeywords = new LinkedHashMap<>();
+            for (JiraTicket ticket : pendingTickets.subList(from, Math.min(from + chunkSize, pendingTickets.size()))) {
+                searchKeywords.put(ticket, distinctKeywords(keywordsByTicket.get(ticket)));
+            }
+            Map<String, List<JiraTicket>> candidatesByTicket =
+                candidateSearchRouter.findCandidates(searchKeywords, maxCandidates, options.getCandidateFilter());
+            
+            List<CompletableFuture<AnalysisResponse>> chunk = new ArrayList<>(searchKeywords.size());
+            for (JiraTicket ticket : searchKeywords.keySet()) {
+                CompletableFuture<AnalysisResponse> response = analyzeInBatch(ticket, keywordsByTicket.get(ticket),
+                    candidatesByTicket.getOrDefault(ticket.getTicketKey(), new ArrayList<>()), options, pairScores, startTime);
+                responses.put(ticket.getTicketKey(), response);
+                chunk.add(response);
+            }
+            CompletableFuture.allOf(chunk.toArray(new CompletableFuture<?>[0])).join();
+        }
+        
+        List<AnalysisResponse> results = request.getTicketIds().stream()
+            .map(ticketId -> responses.get(ticketId).join())
+            .collect(Collectors.toList());
+        
+        logger.info("Batch analysis of {} tickets completed in {}ms ({} from cache, {} relevance scores)",
+            ticketIds.size(), System.currentTimeMillis() - startTime, tickets.size() - pending.size(), pairScores.size());
+        
+        return results;
+    }
+    
+    /**
+     * Analyze one ticket of a batch on the stage executor. Failures become a
+     * failed response for the ticket.
+     */
+    private CompletableFuture<AnalysisResponse> analyzeInBatch(JiraTicket ticket, List<String> keywords,
+            List<JiraTicket> candidates, AnalysisRequest.AnalysisOptions options,
+            Map<String, CompletableFuture<Double>> pairScores, long startTime) {
+        String ticketId = ticket.getTicketKey();
+        return CompletableFuture.supplyAsync(() -> {
+            List<ScoredTicket> relatedTickets = selectRelatedTickets(ticket, keywords,
+                candidates, options, round -> scoreSharedPairs(ticket, round, pairScores));
+            List<JiraTicket> related = ScoredTicket.tickets(relatedTickets);
+            
+            AnalysisResponse response = buildAnalysisResponse(
+                ticketId,
+                ticket,
+                relatedTickets,
+                performGapAnalysis(ticket, related),
+                generateRegressionAreas(ticket, related),
+                System.currentTimeMillis() - startTime
+            );
+            if (ticket.getUpdatedAt() != null) {
+                putCachedAnalysis(AnalysisKeys.versionedKey(
+                    AnalysisKeys.cacheKey(new AnalysisRequest(ticketId, options)), ticket.getUpdatedAt()), response);
+            }
+            return response;
+        }, analysisStageExecutor).exceptionally(e -> {
+            logger.error("Batch analysis failed for ticket: {}", ticketId, e);
+            return buildFailedResponse(ticketId, "Analysis failed");
+        });
+    }
+    
+    @Override
+    public AnalysisResponse submitAnalysis(AnalysisRequest request, Authentication authentication) {
+        AnalysisJob job = analysisJobRegistry.create(request.getTicketId());
+        logger.info("Queued analysis job {} for ticket: {}", job.getAnalysisId(), request.getTicketId());
+        
+        try {
+            analysisJobRunner.run(job, request, authentication);
+        } catch (RuntimeException e) {
+            // Executor saturated; do not leave a job behind that will never run
+            analysisJobRegistry.remove(job.getAnalysisId());
+            throw e;
+        }
+        
+        return job.toResponse();
+    }
+    
     @Override
     public AnalysisResponse getAnalysisStatus(UUID analysisId, Authentication authentication) {
-        // For now, return a simple status response
-        // In a real implementation, this would check the status of an async analysis
-        AnalysisResponse response = new AnalysisResponse();
-        response.setAnalysisId(analysisId);
-        response.setStatus("completed");
-        return response;
+        AnalysisJob job = analysisJobRegistry.get(analysisId);
+        return job != null ? job.toResponse() : null;
     }
     
     @Override
@@ -104,6 +508,68 @@ public class AnalysisServiceImpl implements AnalysisService {
         logger.info("Deleting analysis: {}", analysisId);
     }
     
+    /**
+     * A report cached for this exact ticket version, or null. Reports past
+     * the hard TTL and cache failures count as misses.
+     */
+    private AnalysisResponse getCachedAnalysis(String versionedKey) {
+        Cache analysisCache = cacheManager.getCache("analysis");
+        try {
+            AnalysisResponse cached = analysisCache != null ? analysisCache.get(versionedKey, AnalysisResponse.class) : null;
+            if (cached == null || isPastHardTtl(cached)) {
+                return null;
+            }
+            return cached;
+        } catch (RuntimeException e) {
+            logger.warn("Failed to read analysis cache entry {}", versionedKey, e);
+            return null;
+        }
+    }
+    
+    /**
+     * Redis drops entries at the hard TTL, but a node may still hold a local
+     * copy read just before that
+     */
+    private boolean isPastHardTtl(AnalysisResponse cached) {
+        LocalDateTime completedAt = cached.getMetadata().getCompletedAt();
+        return completedAt != null && completedAt.plus(Duration.ofMillis(cacheHardTtl)).isBefore(LocalDateTime.now(clock));
+    }
+    
+    /**
+     * The response for a caller served from the cache. The local cache tier
+     * hands the same instance to every reader on the node, so the cached
+     * response is never changed; the caller gets its own metadata and shares
+     * the report, which nothing changes after it is built.
+     */
+    private static AnalysisResponse servedFromCache(AnalysisResponse cached) {
+        AnalysisResponse.AnalysisMetadata cachedMetadata = cached.getMetadata();
+        AnalysisResponse.AnalysisMetadata metadata = new AnalysisResponse.AnalysisMetadata();
+        metadata.setProcessingTime(cachedMetadata.getProcessingTime());
+        metadata.setTicketsAnalyzed(cachedMetadata.getTicketsAnalyzed());
+        metadata.setCompletedAt(cachedMetadata.getCompletedAt());
+        metadata.setModelUsed(cachedMetadata.getModelUsed());
+        metadata.setStageTimings(cachedMetadata.getStageTimings() != null
+            ? new LinkedHashMap<>(cachedMetadata.getStageTimings()) : null);
+        metadata.setCacheHit(true);
+        metadata.setCoalescedRequests(0);
+        
+        AnalysisResponse served = new AnalysisResponse(cached.getAnalysisId(), cached.getStatus(), cached.getReport(), metadata);
+        served.setStage(cached.getStage());
+        served.setErrorMessage(cached.getErrorMessage());
+        return served;
+    }
+    
+    private void putCachedAnalysis(String versionedKey, AnalysisResponse response) {
+        Cache analysisCache = cacheManager.getCache("analysis");
+        try {
+            if (analysisCache != null) {
+                analysisCache.put(versionedKey, response);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to write analysis cache entry {}", versionedKey, e);
+        }
+    }
+    
     private JiraTicket getTicketData(String ticketId) {
         // First try to get from cache/database
         Optional<JiraTicket> cachedTicket = jiraTicketRepository.findByTicketKey(ticketId);
@@ -121,37 +587,219 @@ public class AnalysisServiceImpl implements AnalysisService {
         return ticket;
     }
     
-    private List<JiraTicket> findRelatedTickets(JiraTicket sourceTicket, List<String> keywords, AnalysisRequest.AnalysisOptions options) {
+    private Map<String, JiraTicket> getTicketData(List<String> ticketIds) {
+        Map<String, JiraTicket> tickets = new HashMap<>();
+        for (JiraTicket ticket : jiraTicketRepository.findByTicketKeyIn(ticketIds)) {
+            tickets.put(ticket.getTicketKey(), ticket);
+        }
+        
+        List<String> missing = ticketIds.stream()
+            .filter(ticketId -> !tickets.containsKey(ticketId))
+            .collect(Collectors.toList());
+        logger.info("Found {} of {} tickets in cache, fetching {} from Jira",
+            tickets.size(), ticketIds.size(), missing.size());
+        
+        List<CompletableFuture<JiraTicket>> fetches = missing.stream()
+            .map(ticketId -> CompletableFuture.supplyAsync(() -> jiraService.fetchTicket(ticketId), analysisStageExecutor)
+                .exceptionally(e -> {
+                    logger.error("Failed to fetch ticket {} from Jira", ticketId, e);
+                    return null;
+                }))
+            .collect(Collectors.toList());
+        
+        List<JiraTicket> fetched = fetches.stream()
+            .map(CompletableFuture::join)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+        if (!fetched.isEmpty()) {
+            jiraTicketRepository.saveAll(fetched);
+            fetched.forEach(ticket -> tickets.put(ticket.getTicketKey(), ticket));
+        }
+        
+        return tickets;
+    }
+    
+    private List<ScoredTicket> findRelatedTickets(JiraTicket sourceTicket, List<String> keywords, AnalysisRequest.AnalysisOptions options) {
         logger.info("Searching for related tickets using {} keywords", keywords.size());
         
-        // Search for tickets containing the keywords
-        List<JiraTicket> candidates = new ArrayList<>();
-        for (String keyword : keywords) {
-            candidates.addAll(jiraTicketRepository.searchTickets(keyword));
+        List<JiraTicket> candidates = searchCandidates(sourceTicket, keywords, options);
+        List<ScoredTicket> relatedTickets = selectRelatedTickets(sourceTicket, keywords, candidates, options,
+            round -> openAIService.calculateRelevanceScores(sourceTicket, round));
+        
+        logger.info("Found {} related tickets", relatedTickets.size());
+        return relatedTickets;
+    }
+    
+    /**
+     * Candidates for all keywords in one round-trip to the configured search
+     * backend, best matches first
+     */
+    private List<JiraTicket> searchCandidates(JiraTicket sourceTicket, List<String> keywords,
+            AnalysisRequest.AnalysisOptions options) {
+        Set<String> distinctKeywords = distinctKeywords(keywords);
+        if (distinctKeywords.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return candidateSearchRouter.findCandidates(sourceTicket, distinctKeywords, maxCandidates,
+            options.getCandidateFilter());
+    }
+    
+    private Set<String> distinctKeywords(List<String> keywords) {
+        return keywords.stream()
+            .map(this::normalizeKeyword)
+            .filter(keyword -> !keyword.isEmpty())
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+    
+    private List<ScoredTicket> selectRelatedTickets(JiraTicket sourceTicket, List<String> keywords, List<JiraTicket> candidates,
+            AnalysisRequest.AnalysisOptions options, Function<List<JiraTicket>, List<Double>> scorer) {
+        // Score one representative per near-duplicate cluster; candidates that
+        // pass the lexical tier reuse persisted scores of unchanged pairs
+        DuplicateClusters clusters = nearDuplicateDetector.collapse(sourceTicket, candidates);
+        if (clusters.getCollapsedCount() > 0) {
+            logger.info("Collapsed {} near-duplicate candidates for {}", clusters.getCollapsedCount(), sourceTicket.getTicketKey());
+        }
+        
+        List<ScoredTicket> relatedTickets = relatedTicketSelector.select(sourceTicket, keywords,
+            clusters.getRepresentatives(), options,
+            clusters.scoring(cascadeScorer.cascade(sourceTicket,
+                round -> relevanceEdgeStore.score(sourceTicket, round, scorer))));
+        for (ScoredTicket related : relatedTickets) {
+            String ticketKey = related.getTicket().getTicketKey();
+            related.setDuplicateTicketKeys(clusters.getDuplicates(ticketKey));
+            related.setDuplicateOfSource(clusters.isDuplicateOfSource(ticketKey));
+        }
+        return loadFullTickets(addTransitiveTickets(sourceTicket, relatedTickets, options));
+    }
+    
+    /**
+     * Candidates carry only the projected columns; load the full rows of the
+     * selected tickets in one query for the report
+     */
+    private List<ScoredTicket> loadFullTickets(List<ScoredTicket> relatedTickets) {
+        if (relatedTickets.isEmpty()) {
+            return relatedTickets;
+        }
+        List<String> ticketKeys = relatedTickets.stream()
+            .map(related -> related.getTicket().getTicketKey())
+            .collect(Collectors.toList());
+        Map<String, JiraTicket> fullTickets = jiraTicketRepository.findByTicketKeyIn(ticketKeys).stream()
+            .collect(Collectors.toMap(JiraTicket::getTicketKey, ticket -> ticket));
+        for (ScoredTicket related : relatedTickets) {
+            JiraTicket fullTicket = fullTickets.get(related.getTicket().getTicketKey());
+            if (fullTicket != null) {
+                related.setTicket(fullTicket);
+            }
+        }
+        return relatedTickets;
+    }
+    
+    private List<ScoredTicket> addTransitiveTickets(JiraTicket sourceTicket, List<ScoredTicket> relatedTickets,
+            AnalysisRequest.AnalysisOptions options) {
+        int depth = Math.min(options.getTransitiveDepth(), maxTransitiveDepth);
+        if (depth <= 1 || !ticketGraph.isReady()) {
+            return relatedTickets;
+        }
+        
+        // Walk the ticket graph from the directly related tickets
+        int sourceOrdinal = ticketOrdinals.ordinalOf(sourceTicket.getTicketKey());
+        Map<Integer, Float> seeds = new HashMap<>();
+        for (ScoredTicket related : relatedTickets) {
+            seeds.put(ticketOrdinals.ordinalOf(related.getTicket().getTicketKey()), (float) related.getScore());
+        }
+        List<TicketGraph.Reached> reached = ticketGraph.traverse(sourceOrdinal, seeds, depth, transitiveDecay,
+            (float) options.getMinRelevanceScore(), maxTransitiveTickets);
+        if (reached.isEmpty()) {
+            return relatedTickets;
         }
         
-        // Remove duplicates and the source ticket
-        candidates = candidates.stream()
-            .distinct()
-            .filter(ticket -> !ticket.getTicketKey().equals(sourceTicket.getTicketKey()))
+        List<String> reachedKeys = reached.stream()
+            .map(hit -> ticketOrdinals.keyOf(hit.getOrdinal()))
             .collect(Collectors.toList());
+        Map<String, JiraTicket> reachedTickets = jiraTicketRepository.findCandidatesByTicketKeyIn(reachedKeys).stream()
+            .collect(Collectors.toMap(TicketCandidate::getTicketKey, TicketCandidate::toTicket));
+        
+        List<ScoredTicket> combined = new ArrayList<>(relatedTickets);
+        for (TicketGraph.Reached hit : reached) {
+            JiraTicket ticket = reachedTickets.get(ticketOrdinals.keyOf(hit.getOrdinal()));
+            if (ticket == null) {
+                continue;
+            }
+            ScoredTicket transitive = new ScoredTicket(ticket, hit.getScore());
+            transitive.setHops(hit.getHops());
+            transitive.setViaTicketKey(ticketOrdinals.keyOf(hit.getVia()));
+            transitive.setRank(combined.size() + 1);
+            combined.add(transitive);
+        }
+        
+        logger.info("Found {} tickets within {} hops of {}", combined.size() - relatedTickets.size(), depth,
+            sourceTicket.getTicketKey());
+        return combined;
+    }
+    
+    /**
+     * Search keywords for the ticket. Basic analyses use the local TF-IDF
+     * keywords alone; deeper analyses add them to the model's keywords.
+     */
+    private List<String> extractKeywords(JiraTicket ticket, AnalysisRequest.AnalysisOptions options) {
+        List<String> localKeywords = keywordExtractor.extract(ticket);
+        if ("basic".equalsIgnoreCase(options.getAnalysisDepth()) && !localKeywords.isEmpty()) {
+            localKeywordCounter.increment();
+            return localKeywords;
+        }
         
-        // Analyze relevance for each candidate
-        List<JiraTicket> relatedTickets = new ArrayList<>();
+        modelKeywordCounter.increment();
+        Map<String, String> keywords = new LinkedHashMap<>();
+        for (String keyword : openAIService.extractKeywords(ticket)) {
+            keywords.putIfAbsent(normalizeKeyword(keyword), keyword);
+        }
+        for (String keyword : localKeywords) {
+            keywords.putIfAbsent(normalizeKeyword(keyword), keyword);
+        }
+        return new ArrayList<>(keywords.values());
+    }
+    
+    private String normalizeKeyword(String keyword) {
+        return keyword.trim().toLowerCase();
+    }
+    
+    private List<Double> scoreSharedPairs(JiraTicket sourceTicket, List<JiraTicket> candidates,
+            Map<String, CompletableFuture<Double>> pairScores) {
+        // Claim the pairs nobody has scored yet and score them in one batch;
+        // pairs claimed by another ticket of the batch are awaited afterwards
+        List<CompletableFuture<Double>> candidateScores = new ArrayList<>(candidates.size());
+        List<JiraTicket> claimed = new ArrayList<>();
+        List<CompletableFuture<Double>> claimedScores = new ArrayList<>();
         for (JiraTicket candidate : candidates) {
-            double relevanceScore = openAIService.calculateRelevanceScore(sourceTicket, candidate);
-            
-            if (relevanceScore >= options.getMinRelevanceScore()) {
-                relatedTickets.add(candidate);
-                
-                if (relatedTickets.size() >= options.getMaxRelatedTickets()) {
-                    break;
-                }
+            CompletableFuture<Double> score = new CompletableFuture<>();
+            CompletableFuture<Double> existing = pairScores.putIfAbsent(pairKey(sourceTicket, candidate), score);
+            if (existing == null) {
+                claimed.add(candidate);
+                claimedScores.add(score);
+                candidateScores.add(score);
+            } else {
+                candidateScores.add(existing);
             }
         }
         
-        logger.info("Found {} related tickets", relatedTickets.size());
-        return relatedTickets;
+        try {
+            List<Double> scores = openAIService.calculateRelevanceScores(sourceTicket, claimed);
+            for (int i = 0; i < claimed.size(); i++) {
+                claimedScores.get(i).complete(scores.get(i));
+            }
+        } catch (RuntimeException e) {
+            claimedScores.forEach(score -> score.completeExceptionally(e));
+        }
+        
+        return candidateScores.stream()
+            .map(CompletableFuture::join)
+            .collect(Collectors.toList());
+    }
+    
+    private String pairKey(JiraTicket first, JiraTicket second) {
+        String firstKey = first.getTicketKey();
+        String secondKey = second.getTicketKey();
+        return firstKey.compareTo(secondKey) < 0 ? firstKey + "|" + secondKey : secondKey + "|" + firstKey;
     }
     
     private AnalysisResponse.GapAnalysis performGapAnalysis(JiraTicket sourceTicket, List<JiraTicket> relatedTickets) {
@@ -171,7 +819,7 @@ public class AnalysisServiceImpl implements AnalysisService {
     private AnalysisResponse buildAnalysisResponse(
             String ticketId, 
             JiraTicket ticket, 
-            List<JiraTicket> relatedTickets, 
+            List<ScoredTicket> relatedTickets, 
             AnalysisResponse.GapAnalysis gapAnalysis,
             List<AnalysisResponse.RegressionArea> regressionAreas,
             long processingTime) {
@@ -182,11 +830,12 @@ public class AnalysisServiceImpl implements AnalysisService {
         
         // Build report
         AnalysisResponse.AnalysisReport report = new AnalysisResponse.AnalysisReport();
-        report.setSummary(generateSummary(ticket, relatedTickets));
+        report.setSourceTicket(convertToSourceTicket(ticket));
+        report.setSummary(generateSummary(ticket, ScoredTicket.tickets(relatedTickets)));
         report.setGapsIdentified(Arrays.asList(gapAnalysis));
         report.setRelatedTickets(convertToRelatedTickets(relatedTickets));
         report.setRegressionAreas(regressionAreas);
-        report.setRecommendations(generateRecommendations(ticket, relatedTickets));
+        report.setRecommendations(generateRecommendations(ticket, ScoredTicket.tickets(relatedTickets)));
         
         response.setReport(report);
         
@@ -194,8 +843,8 @@ public class AnalysisServiceImpl implements AnalysisService {
         AnalysisResponse.AnalysisMetadata metadata = new AnalysisResponse.AnalysisMetadata();
         metadata.setProcessingTime(processingTime);
         metadata.setTicketsAnalyzed(relatedTickets.size() + 1);
-        metadata.setCacheHit(false); // TODO: Implement proper cache hit detection
-        metadata.setCompletedAt(LocalDateTime.now());
+        metadata.setCacheHit(false);
+        metadata.setCompletedAt(LocalDateTime.now(clock));
         metadata.setModelUsed("gpt-4");
         
         response.setMetadata(metadata);
@@ -208,16 +857,51 @@ public class AnalysisServiceImpl implements AnalysisService {
             ticket.getTicketKey(), relatedTickets.size(), ticket.getSummary());
     }
     
-    private List<AnalysisResponse.RelatedTicket> convertToRelatedTickets(List<JiraTicket> tickets) {
-        return tickets.stream().map(ticket -> {
+    private AnalysisResponse buildFailedResponse(String ticketId, String errorMessage) {
+        AnalysisResponse response = new AnalysisResponse();
+        response.setAnalysisId(UUID.randomUUID());
+        response.setStatus("failed");
+        response.setErrorMessage(ticketId + ": " + errorMessage);
+        return response;
+    }
+    
+    private AnalysisResponse.RelatedTicket convertToSourceTicket(JiraTicket ticket) {
+        AnalysisResponse.RelatedTicket sourceTicket = new AnalysisResponse.RelatedTicket();
+        sourceTicket.setTicketKey(ticket.getTicketKey());
+        sourceTicket.setSummary(ticket.getSummary());
+        sourceTicket.setStatus(ticket.getStatus());
+        sourceTicket.setPriority(ticket.getPriority());
+        sourceTicket.setRelevanceScore(1.0);
+        sourceTicket.setRelationshipType("source");
+        return sourceTicket;
+    }
+    
+    private List<AnalysisResponse.RelatedTicket> convertToRelatedTickets(List<ScoredTicket> scoredTickets) {
+        return scoredTickets.stream().map(scored -> {
+            JiraTicket ticket = scored.getTicket();
             AnalysisResponse.RelatedTicket relatedTicket = new AnalysisResponse.RelatedTicket();
             relatedTicket.setTicketKey(ticket.getTicketKey());
             relatedTicket.setSummary(ticket.getSummary());
             relatedTicket.setStatus(ticket.getStatus());
             relatedTicket.setPriority(ticket.getPriority());
-            relatedTicket.setRelevanceScore(0.8); // TODO: Calculate actual relevance score
-            relatedTicket.setRelationshipType("similar");
-            relatedTicket.setImpactDescription("Potential impact on similar functionality");
+            relatedTicket.setRelevanceScore(scored.getScore());
+            relatedTicket.setRank(scored.getRank());
+            relatedTicket.setDuplicateTicketKeys(scored.getDuplicateTicketKeys());
+            relatedTicket.setHops(scored.getHops());
+            relatedTicket.setViaTicketKey(scored.getViaTicketKey());
+            if (scored.isDuplicateOfSource()) {
+                relatedTicket.setRelationshipType("duplicate");
+                relatedTicket.setImpactDescription("Near-duplicate of the analyzed ticket");
+            } else if (scored.getHops() > 1) {
+                relatedTicket.setRelationshipType("transitive");
+                relatedTicket.setImpactDescription("Related through " + scored.getViaTicketKey());
+            } else if (scored.getViaTicketKey() != null) {
+                relatedTicket.setRelationshipType("linked");
+                relatedTicket.setImpactDescription("Linked to the analyzed ticket");
+            } else {
+                relatedTicket.setRelationshipType("similar");
+                relatedTicket.setImpactDescription("Potential impact on similar functionality");
+            }
             return relatedTicket;
         }).collect(Collectors.toList());
     }
@@ -0,0 +1,139 @@
+package com.impactlens.services.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.impactlens.entities.JiraTicket;
+import com.impactlens.search.LexicalSimilarity;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Puts a lexical tier in front of model relevance scoring.
+ *
+ * Each round of candidates is ranked by TF-IDF cosine similarity to the
+ * source ticket. The best model-fraction of the round goes to the model, as
+ * does any other candidate whose similarity reaches the borderline band.
+ * Everything else, and anything below the reject floor, scores 0 without a
+ * model call.
+ */
+@Component
+public class CascadeScorer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CascadeScorer.class);
+    
+    @Autowired
+    private LexicalSimilarity lexicalSimilarity;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${analysis.relevance.cascade.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${analysis.relevance.cascade.model-fraction:0.3}")
+    private double modelFraction;
+    
+    @Value("${analysis.relevance.cascade.borderline-above:0.15}")
+    private double borderlineAbove;
+    
+    @Value("${analysis.relevance.cascade.reject-below:0.05}")
+    private double rejectBelow;
+    
+    private Counter topCounter;
+    private Counter borderlineCounter;
+    private Counter rejectedCounter;
+    private Counter unfilteredCounter;
+    
+    @PostConstruct
+    public void registerMetrics() {
+        topCounter = tierCounter("top");
+        borderlineCounter = tierCounter("borderline");
+        rejectedCounter = tierCounter("rejected");
+        unfilteredCounter = tierCounter("unfiltered");
+    }
+    
+    /**
+     * Wrap the model scorer so that it only sees candidates that pass the
+     * lexical tier. Scores are returned in candidate order.
+     */
+    public Function<List<JiraTicket>, List<Double>> cascade(JiraTicket sourceTicket,
+            Function<List<JiraTicket>, List<Double>> modelScorer) {
+        if (!enabled) {
+            return modelScorer;
+        }
+        return round -> score(sourceTicket, round, modelScorer);
+    }
+    
+    private List<Double> score(JiraTicket sourceTicket, List<JiraTicket> round,
+            Function<List<JiraTicket>, List<Double>> modelScorer) {
+        if (round.isEmpty() || !lexicalSimilarity.isReady()) {
+            unfilteredCounter.increment(round.size());
+            return modelScorer.apply(round);
+        }
+        
+        double[] similarities = lexicalSimilarity.similarities(sourceTicket, round);
+        Integer[] byRelevance = new Integer[round.size()];
+        for (int i = 0; i < byRelevance.length; i++) {
+            byRelevance[i] = i;
+        }
+        Arrays.sort(byRelevance, Comparator.comparingDouble((Integer i) -> similarities[i]).reversed());
+        
+        int topCount = (int) Math.ceil(round.size() * modelFraction);
+        boolean[] sendToModel = new boolean[round.size()];
+        int top = 0;
+        int borderline = 0;
+        for (int rank = 0; rank < byRelevance.length; rank++) {
+            int i = byRelevance[rank];
+            if (similarities[i] < rejectBelow) {
+                continue;
+            }
+            if (rank < topCount) {
+                sendToModel[i] = true;
+                top++;
+            } else if (similarities[i] >= borderlineAbove) {
+                sendToModel[i] = true;
+                borderline++;
+            }
+        }
+        
+        List<JiraTicket> modelRound = new ArrayList<>(top + borderline);
+        for (int i = 0; i < round.size(); i++) {
+            if (sendToModel[i]) {
+                modelRound.add(round.get(i));
+            }
+        }
+        List<Double> modelScores = modelRound.isEmpty() ? new ArrayList<>() : modelScorer.apply(modelRound);
+        
+        topCounter.increment(top);
+        borderlineCounter.increment(borderline);
+        rejectedCounter.increment(round.size() - modelRound.size());
+        logger.debug("Lexical tier for {}: {} top, {} borderline, {} rejected",
+            sourceTicket.getTicketKey(), top, borderline, round.size() - modelRound.size());
+        
+        List<Double> scores = new ArrayList<>(round.size());
+        int next = 0;
+        for (int i = 0; i < round.size(); i++) {
+            scores.add(sendToModel[i] ? modelScores.get(next++) : 0.0);
+        }
+        return scores;
+    }
+    
+    private Counter tierCounter(String tier) {
+        return Counter.builder("impactlens.relevance.cascade")
+            .description("Relevance candidates by the cascade tier that decided them")
+            .tag("tier", tier)
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,231 @@
+package com.impactlens.services.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.impactlens.search.TextTokenizer;
+import com.impactlens.services.EmbeddingService;
+import com.impactlens.services.OpenAIService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Embeds ticket text on the local CPU, or through OpenAI when
+ * analysis.embedding.provider is openai.
+ *
+ * The local embedding is a hashing-trick projection: every stemmed word and
+ * word pair is hashed to one of the dimensions with a random sign and weighted
+ * by its log frequency. Texts that share vocabulary get similar vectors, with
+ * no model to load and no per-call cost. Vectors are cached by content hash,
+ * so unchanged text is never embedded twice, and bulk calls are split into
+ * batches that run on the embedding executor.
+ */
+@Service
+public class EmbeddingServiceImpl implements EmbeddingService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddingServiceImpl.class);
+    
+    @Autowired
+    private OpenAIService openAIService;
+    
+    @Autowired
+    @Qualifier("embeddingExecutor")
+    private Executor embeddingExecutor;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${analysis.embedding.provider:local}")
+    private String provider;
+    
+    @Value("${analysis.embedding.dimensions:256}")
+    private int localDimensions;
+    
+    @Value("${openai.embedding-dimensions:256}")
+    private int openAIDimensions;
+    
+    @Value("${analysis.embedding.bigram-weight:0.5}")
+    private double bigramWeight;
+    
+    @Value("${analysis.embedding.batch-size:64}")
+    private int batchSize;
+    
+    @Value("${analysis.embedding.cache-size:100000}")
+    private int cacheSize;
+    
+    private Map<Long, float[]> cache;
+    private Counter embeddedCounter;
+    private Counter cachedCounter;
+    private Timer batchTimer;
+    private volatile double lastThroughput;
+    
+    @PostConstruct
+    public void init() {
+        if (!"local".equals(provider) && !"openai".equals(provider)) {
+            throw new IllegalStateException("Unknown embedding provider '" + provider + "', expected local or openai");
+        }
+        
+        cache = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, float[]> eldest) {
+                return size() > cacheSize;
+            }
+        };
+        
+        embeddedCounter = Counter.builder("impactlens.embedding.texts")
+            .description("Texts embedded")
+            .tag("provider", provider)
+            .register(meterRegistry);
+        cachedCounter = Counter.builder("impactlens.embedding.cache-hits")
+            .description("Embeddings served from the content-hash cache")
+            .register(meterRegistry);
+        batchTimer = Timer.builder("impactlens.embedding.batch")
+            .description("Time to embed one batch of texts")
+            .tag("provider", provider)
+            .register(meterRegistry);
+        Gauge.builder("impactlens.embedding.throughput", () -> lastThroughput)
+            .description("Texts per second embedded by the last bulk call")
+            .baseUnit("texts/s")
+            .register(meterRegistry);
+        
+        logger.info("Using '{}' embeddings with {} dimensions", provider, getDimensions());
+    }
+    
+    @Override
+    public int getDimensions() {
+        return "openai".equals(provider) ? openAIDimensions : localDimensions;
+    }
+    
+    @Override
+    public float[] embed(String text) {
+        return embedAll(List.of(text)).get(0);
+    }
+    
+    @Override
+    public List<float[]> embedAll(List<String> texts) {
+        long startTime = System.nanoTime();
+        
+        // Look up every text first so duplicates within the call are embedded once
+        long[] hashes = new long[texts.size()];
+        float[][] vectors = new float[texts.size()][];
+        Map<Long, String> missing = new LinkedHashMap<>();
+        synchronized (cache) {
+            for (int i = 0; i < texts.size(); i++) {
+                hashes[i] = EmbeddingService.contentHash(texts.get(i));
+                vectors[i] = cache.get(hashes[i]);
+                if (vectors[i] == null) {
+                    missing.putIfAbsent(hashes[i], texts.get(i));
+                }
+            }
+        }
+        cachedCounter.increment(texts.size() - missing.size());
+        
+        Map<Long, float[]> embedded = embedMissing(missing);
+        for (int i = 0; i < texts.size(); i++) {
+            if (vectors[i] == null) {
+                vectors[i] = embedded.get(hashes[i]);
+            }
+        }
+        
+        if (missing.size() >= batchSize) {
+            double seconds = (System.nanoTime() - startTime) / 1e9;
+            lastThroughput = missing.size() / seconds;
+            logger.info("Embedded {} texts ({} cached) in {}ms, {} texts/s",
+                missing.size(), texts.size() - missing.size(), Math.round(seconds * 1000), Math.round(lastThroughput));
+        }
+        
+        List<float[]> result = new ArrayList<>(texts.size());
+        for (float[] vector : vectors) {
+            result.add(vector);
+        }
+        return result;
+    }
+    
+    private Map<Long, float[]> embedMissing(Map<Long, String> missing) {
+        List<Long> hashes = new ArrayList<>(missing.keySet());
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+        Map<Long, float[]> embedded = new HashMap<>();
+        
+        for (int from = 0; from < hashes.size(); from += batchSize) {
+            List<Long> batch = hashes.subList(from, Math.min(from + batchSize, hashes.size()));
+            batches.add(CompletableFuture.runAsync(() -> batchTimer.record(() -> {
+                Map<Long, float[]> batchVectors = new HashMap<>();
+                for (Long hash : batch) {
+                    batchVectors.put(hash, embedText(missing.get(hash)));
+                }
+                synchronized (cache) {
+                    cache.putAll(batchVectors);
+                }
+                synchronized (embedded) {
+                    embedded.putAll(batchVectors);
+                }
+                embeddedCounter.increment(batch.size());
+            }), embeddingExecutor));
+        }
+        
+        CompletableFuture.allOf(batches.toArray(new CompletableFuture<?>[0])).join();
+        return embedded;
+    }
+    
+    private float[] embedText(String text) {
+        if ("openai".equals(provider)) {
+            return openAIService.generateEmbedding(text);
+        }
+        
+        Map<String, Integer> features = new HashMap<>();
+        List<String> tokens = TextTokenizer.tokenize(text);
+        for (int i = 0; i < tokens.size(); i++) {
+            features.merge(tokens.get(i), 1, Integer::sum);
+            if (i > 0) {
+                features.merge(tokens.get(i - 1) + " " + tokens.get(i), 1, Integer::sum);
+            }
+        }
+        
+        float[] vector = new float[localDimensions];
+        features.forEach((feature, count) -> {
+            int hash = mix(feature.hashCode());
+            double weight = (1 + Math.log(count)) * (feature.indexOf(' ') >= 0 ? bigramWeight : 1);
+            vector[(hash >>> 1) % localDimensions] += (hash & 1) == 0 ? weight : -weight;
+        });
+        
+        double norm = 0;
+        for (float component : vector) {
+            norm += component * component;
+        }
+        if (norm > 0) {
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] *= scale;
+            }
+        }
+        return vector;
+    }
+    
+    /**
+     * Murmur3 finalizer, spreads String.hashCode over all bits
+     */
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+}
@@ -3,9 +3,15 @@ package com.impactlens.services.impl;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.impactlens.dto.AnalysisResponse;
@@ -17,6 +23,16 @@ public class OpenAIServiceImpl implements OpenAIService {
     
     private static final Logger logger = LoggerFactory.getLogger(OpenAIServiceImpl.class);
     
+    @Autowired
+    @Qualifier("openAIRequestExecutor")
+    private Executor openAIRequestExecutor;
+    
+    @Value("${analysis.batch-size:10}")
+    private int relevanceBatchSize;
+    
+    @Value("${openai.embedding-dimensions:256}")
+    private int embeddingDimensions;
+    
     @Override
     public List<String> extractKeywords(JiraTicket ticket) {
         logger.info("Extracting keywords from ticket: {}", ticket.getTicketKey());
@@ -41,6 +57,56 @@ public class OpenAIServiceImpl implements OpenAIService {
         return 0.3 + Math.random() * 0.6;
     }
     
+    @Override
+    public List<Double> calculateRelevanceScores(JiraTicket sourceTicket, List<JiraTicket> candidates) {
+        if (candidates.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        // One model call per chunk, chunks run in parallel
+        List<CompletableFuture<List<Double>>> chunks = new ArrayList<>();
+        for (int from = 0; from < candidates.size(); from += relevanceBatchSize) {
+            List<JiraTicket> chunk = candidates.subList(from, Math.min(from + relevanceBatchSize, candidates.size()));
+            chunks.add(CompletableFuture.supplyAsync(() -> scoreChunk(sourceTicket, chunk), openAIRequestExecutor));
+        }
+        
+        List<Double> scores = new ArrayList<>(candidates.size());
+        for (CompletableFuture<List<Double>> chunk : chunks) {
+            scores.addAll(chunk.join());
+        }
+        return scores;
+    }
+    
+    private List<Double> scoreChunk(JiraTicket sourceTicket, List<JiraTicket> chunk) {
+        logger.info("Calculating relevance scores between {} and {} candidates in one request",
+            sourceTicket.getTicketKey(), chunk.size());
+        
+        // Mock implementation - one score between 0.3 and 0.9 per candidate, in prompt order
+        List<Double> scores = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            scores.add(0.3 + Math.random() * 0.6);
+        }
+        return scores;
+    }
+    
+    @Override
+    public float[] generateEmbedding(String text) {
+        logger.debug("Generating embedding for {} characters of text", text.length());
+        
+        // Mock implementation - a deterministic random unit vector per text
+        Random random = new Random(text.hashCode());
+        float[] embedding = new float[embeddingDimensions];
+        double norm = 0;
+        for (int i = 0; i < embedding.length; i++) {
+            embedding[i] = (float) random.nextGaussian();
+            norm += embedding[i] * embedding[i];
+        }
+        for (int i = 0; i < embedding.length; i++) {
+            embedding[i] /= (float) Math.sqrt(norm);
+        }
+        return embedding;
+    }
+    
     @Override
     public AnalysisResponse.GapAnalysis performGapAnalysis(JiraTicket sourceTicket, List<JiraTicket> relatedTickets) {
         logger.info("Performing gap analysis for ticket: {}", sourceTicket.getTicketKey());
@@ -0,0 +1,169 @@
+package com.impactlens.services.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.impactlens.dto.AnalysisRequest;
+import com.impactlens.entities.JiraTicket;
+
+/**
+ * Selects the top K most relevant candidates using a bounded min-heap.
+ *
+ * Candidates are scored in rounds, most promising first according to how
+ * many keywords they contain, and a candidate is only skipped when even the
+ * highest possible score could not enter the heap. The result is the exact
+ * top K of the scored candidates.
+ *
+ * Candidates with the same number of matched keywords form a tier. With
+ * observed-bound pruning enabled, once a full round of a tier has been scored
+ * the best score seen in it is taken to bound the rest of the tier. That bound
+ * is observed rather than proven: the top K only stays exact when each tier's
+ * first round holds its best candidate, so the pruning is off by default.
+ */
+@Component
+public class RelatedTicketSelector {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RelatedTicketSelector.class);
+    
+    /**
+     * Highest relevance score a scorer returns
+     */
+    private static final double MAX_SCORE = 1.0;
+    
+    @Value("${analysis.relevance.round-size:40}")
+    private int roundSize;
+    
+    @Value("${analysis.relevance.observed-bound-pruning:false}")
+    private boolean observedBoundPruning;
+    
+    /**
+     * Ordering estimate of a candidate that matches none of the keywords.
+     * Each matched keyword raises the estimate linearly towards 1.0.
+     */
+    @Value("${analysis.relevance.upper-bound-base:0.5}")
+    private double upperBoundBase;
+    
+    public List<ScoredTicket> select(JiraTicket sourceTicket, List<String> keywords, List<JiraTicket> candidates,
+            AnalysisRequest.AnalysisOptions options, Function<List<JiraTicket>, List<Double>> scorer) {
+        int maxRelated = options.getMaxRelatedTickets();
+        double minScore = options.getMinRelevanceScore();
+        if (maxRelated <= 0 || candidates.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        // Most promising candidates first
+        List<EstimatedCandidate> ordered = new ArrayList<>(candidates.size());
+        for (JiraTicket candidate : candidates) {
+            ordered.add(new EstimatedCandidate(candidate, estimate(candidate, keywords)));
+        }
+        ordered.sort(Comparator.comparingDouble((EstimatedCandidate c) -> c.estimate).reversed());
+        
+        PriorityQueue<ScoredTicket> heap = new PriorityQueue<>(maxRelated, Comparator.comparingDouble(ScoredTicket::getScore));
+        Map<Double, Tier> tiers = new HashMap<>();
+        int next = 0;
+        int skipped = 0;
+        while (next < ordered.size()) {
+            List<EstimatedCandidate> round = new ArrayList<>(roundSize);
+            while (next < ordered.size() && round.size() < roundSize) {
+                EstimatedCandidate candidate = ordered.get(next++);
+                Tier tier = tiers.get(candidate.estimate);
+                double bound = observedBoundPruning && tier != null && tier.scored >= roundSize ? tier.maxScore : MAX_SCORE;
+                if (canEnter(bound, heap, maxRelated, minScore)) {
+                    round.add(candidate);
+                } else {
+                    skipped++;
+                }
+            }
+            if (round.isEmpty()) {
+                break;
+            }
+            
+            List<JiraTicket> roundTickets = new ArrayList<>(round.size());
+            round.forEach(candidate -> roundTickets.add(candidate.ticket));
+            List<Double> scores = scorer.apply(roundTickets);
+            for (int i = 0; i < round.size(); i++) {
+                double score = scores.get(i);
+                tiers.computeIfAbsent(round.get(i).estimate, estimate -> new Tier()).add(score);
+                offer(heap, new ScoredTicket(roundTickets.get(i), score), maxRelated, minScore);
+            }
+        }
+        
+        if (skipped > 0) {
+            logger.info("Skipped scoring {} of {} candidates for {} that could not reach the top {}",
+                skipped, ordered.size(), sourceTicket.getTicketKey(), maxRelated);
+        }
+        
+        List<ScoredTicket> selected = new ArrayList<>(heap);
+        selected.sort(Comparator.comparingDouble(ScoredTicket::getScore).reversed());
+        for (int i = 0; i < selected.size(); i++) {
+            selected.get(i).setRank(i + 1);
+        }
+        return selected;
+    }
+    
+    private boolean canEnter(double bound, PriorityQueue<ScoredTicket> heap, int maxRelated, double minScore) {
+        if (bound < minScore) {
+            return false;
+        }
+        return heap.size() < maxRelated || bound > heap.peek().getScore();
+    }
+    
+    private void offer(PriorityQueue<ScoredTicket> heap, ScoredTicket candidate, int maxRelated, double minScore) {
+        if (candidate.getScore() < minScore) {
+            return;
+        }
+        if (heap.size() < maxRelated) {
+            heap.add(candidate);
+        } else if (candidate.getScore() > heap.peek().getScore()) {
+            heap.poll();
+            heap.add(candidate);
+        }
+    }
+    
+    private double estimate(JiraTicket candidate, List<String> keywords) {
+        if (keywords.isEmpty()) {
+            return MAX_SCORE;
+        }
+        
+        String text = ((candidate.getSummary() != null ? candidate.getSummary() : "") + " " +
+            (candidate.getDescription() != null ? candidate.getDescription() : "")).toLowerCase(Locale.ROOT);
+        long matched = keywords.stream()
+            .filter(keyword -> text.contains(keyword.toLowerCase(Locale.ROOT)))
+            .count();
+        return Math.min(MAX_SCORE, upperBoundBase + (MAX_SCORE - upperBoundBase) * matched / keywords.size());
+    }
+    
+    private static class EstimatedCandidate {
+        private final JiraTicket ticket;
+        private final double estimate;
+        
+        EstimatedCandidate(JiraTicket ticket, double estimate) {
+            this.ticket = ticket;
+            this.estimate = estimate;
+        }
+    }
+    
+    /**
+     * Real scores seen so far for candidates with one estimate
+     */
+    private static class Tier {
+        private int scored;
+        private double maxScore;
+        
+        void add(double score) {
+            scored++;
+            maxScore = Math.max(maxScore, score);
+        }
+    }
+}
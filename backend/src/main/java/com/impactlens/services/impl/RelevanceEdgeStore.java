@@ -0,0 +1,167 @@
+package com.impactlens.services.impl;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.impactlens.entities.JiraTicket;
+import com.impactlens.entities.RelatedTicketEdge;
+import com.impactlens.repositories.RelatedTicketEdgeRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Reuses relevance scores persisted in related_tickets.
+ *
+ * An edge is valid while both tickets still have the updated_at they had
+ * when it was scored, so it survives any number of analyses of either ticket
+ * and is recomputed only after one of them changes. Edges without a recorded
+ * version are always recomputed. New and recomputed edges
+ * are written with one batched upsert per scoring round.
+ */
+@Component
+public class RelevanceEdgeStore {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RelevanceEdgeStore.class);
+    
+    private static final String UPSERT_EDGE =
+        "INSERT INTO related_tickets (source_ticket_key, related_ticket_key, relevance_score, relationship_type, " +
+        "source_updated_at, related_updated_at, created_at) VALUES (?, ?, ?, ?, ?, ?, NOW()) " +
+        "ON CONFLICT (source_ticket_key, related_ticket_key) DO UPDATE SET " +
+        "relevance_score = EXCLUDED.relevance_score, relationship_type = EXCLUDED.relationship_type, " +
+        "source_updated_at = EXCLUDED.source_updated_at, related_updated_at = EXCLUDED.related_updated_at, " +
+        "created_at = NOW()";
+    
+    @Autowired
+    private RelatedTicketEdgeRepository relatedTicketEdgeRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private Counter reusedCounter;
+    private Counter scoredCounter;
+    
+    @PostConstruct
+    public void registerMetrics() {
+        reusedCounter = Counter.builder("impactlens.relevance.edges")
+            .description("Relevance scores looked up in related_tickets")
+            .tag("result", "reused")
+            .register(meterRegistry);
+        scoredCounter = Counter.builder("impactlens.relevance.edges")
+            .description("Relevance scores looked up in related_tickets")
+            .tag("result", "scored")
+            .register(meterRegistry);
+    }
+    
+    /**
+     * Relevance of each candidate to the source ticket, in candidate order.
+     * Valid persisted edges are reused; the rest are scored with the given
+     * scorer in one call and persisted.
+     */
+    public List<Double> score(JiraTicket sourceTicket, List<JiraTicket> candidates,
+            Function<List<JiraTicket>, List<Double>> scorer) {
+        Map<String, Double> known = findValidScores(sourceTicket, candidates);
+        
+        List<JiraTicket> missing = candidates.stream()
+            .filter(candidate -> !known.containsKey(candidate.getTicketKey()))
+            .collect(Collectors.toList());
+        List<Double> missingScores = missing.isEmpty() ? new ArrayList<>() : scorer.apply(missing);
+        reusedCounter.increment(candidates.size() - missing.size());
+        scoredCounter.increment(missing.size());
+        
+        if (!missing.isEmpty()) {
+            saveScores(sourceTicket, missing, missingScores);
+        }
+        
+        List<Double> scores = new ArrayList<>(candidates.size());
+        int next = 0;
+        for (JiraTicket candidate : candidates) {
+            Double score = known.get(candidate.getTicketKey());
+            scores.add(score != null ? score : missingScores.get(next++));
+        }
+        return scores;
+    }
+    
+    private Map<String, Double> findValidScores(JiraTicket sourceTicket, List<JiraTicket> candidates) {
+        Map<String, JiraTicket> candidatesByKey = new HashMap<>();
+        candidates.forEach(candidate -> candidatesByKey.put(candidate.getTicketKey(), candidate));
+        
+        Map<String, Double> scores = new HashMap<>();
+        for (RelatedTicketEdge edge : relatedTicketEdgeRepository.findEdgesBetween(sourceTicket.getTicketKey(), candidatesByKey.keySet())) {
+            boolean sourceFirst = edge.getSourceTicketKey().equals(sourceTicket.getTicketKey());
+            JiraTicket candidate = candidatesByKey.get(sourceFirst ? edge.getRelatedTicketKey() : edge.getSourceTicketKey());
+            LocalDateTime sourceVersion = sourceFirst ? edge.getSourceUpdatedAt() : edge.getRelatedUpdatedAt();
+            LocalDateTime candidateVersion = sourceFirst ? edge.getRelatedUpdatedAt() : edge.getSourceUpdatedAt();
+            
+            if (candidate != null && edge.getRelevanceScore() != null
+                    && sameVersion(sourceVersion, sourceTicket.getUpdatedAt())
+                    && sameVersion(candidateVersion, candidate.getUpdatedAt())) {
+                scores.put(candidate.getTicketKey(), edge.getRelevanceScore().doubleValue());
+            }
+        }
+        return scores;
+    }
+    
+    private void saveScores(JiraTicket sourceTicket, List<JiraTicket> candidates, List<Double> scores) {
+        List<Object[]> rows = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            JiraTicket candidate = candidates.get(i);
+            boolean sourceFirst = sourceTicket.getTicketKey().compareTo(candidate.getTicketKey()) < 0;
+            JiraTicket first = sourceFirst ? sourceTicket : candidate;
+            JiraTicket second = sourceFirst ? candidate : sourceTicket;
+            rows.add(new Object[] {
+                first.getTicketKey(),
+                second.getTicketKey(),
+                BigDecimal.valueOf(scores.get(i)).setScale(2, RoundingMode.HALF_UP),
+                "similar",
+                timestamp(first.getUpdatedAt()),
+                timestamp(second.getUpdatedAt())
+            });
+        }
+        
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_EDGE, rows);
+        } catch (DataAccessException e) {
+            // The scores are still returned; they will be recomputed next time
+            logger.warn("Failed to persist {} relevance edges for {}", rows.size(), sourceTicket.getTicketKey(), e);
+        }
+    }
+    
+    private static boolean sameVersion(LocalDateTime stored, LocalDateTime current) {
+        // Edges scored before versions were recorded, or for a ticket without
+        // updated_at, cannot prove they are current
+        if (stored == null || current == null) {
+            return false;
+        }
+        // The database keeps microseconds, tickets fetched from Jira may carry nanoseconds
+        return truncate(stored).equals(truncate(current));
+    }
+    
+    private static LocalDateTime truncate(LocalDateTime time) {
+        return time != null ? time.truncatedTo(ChronoUnit.MICROS) : null;
+    }
+    
+    private static Timestamp timestamp(LocalDateTime time) {
+        return time != null ? Timestamp.valueOf(truncate(time)) : null;
+    }
+}
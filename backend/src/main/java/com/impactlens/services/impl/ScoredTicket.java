@@ -0,0 +1,92 @@
+package com.impactlens.services.impl;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.impactlens.entities.JiraTicket;
+
+/**
+ * A related-ticket candidate with its relevance score, its rank among the
+ * selected tickets (1 = most relevant) and the near-duplicates collapsed
+ * into it. Tickets found through the ticket graph also carry the number of
+ * hops from the source ticket and the ticket they were reached through,
+ * which is the source ticket itself for direct links.
+ */
+public class ScoredTicket {
+    
+    private JiraTicket ticket;
+    private final double score;
+    private int rank;
+    private List<String> duplicateTicketKeys = Collections.emptyList();
+    private boolean duplicateOfSource;
+    private int hops = 1;
+    private String viaTicketKey;
+    
+    public ScoredTicket(JiraTicket ticket, double score) {
+        this.ticket = ticket;
+        this.score = score;
+    }
+    
+    public static List<JiraTicket> tickets(List<ScoredTicket> scoredTickets) {
+        return scoredTickets.stream()
+            .map(ScoredTicket::getTicket)
+            .collect(Collectors.toList());
+    }
+    
+    // Getters and Setters
+    public JiraTicket getTicket() {
+        return ticket;
+    }
+    
+    /**
+     * Replace the candidate projection with the full ticket
+     */
+    public void setTicket(JiraTicket ticket) {
+        this.ticket = ticket;
+    }
+    
+    public double getScore() {
+        return score;
+    }
+    
+    public int getRank() {
+        return rank;
+    }
+    
+    public void setRank(int rank) {
+        this.rank = rank;
+    }
+    
+    public List<String> getDuplicateTicketKeys() {
+        return duplicateTicketKeys;
+    }
+    
+    public void setDuplicateTicketKeys(List<String> duplicateTicketKeys) {
+        this.duplicateTicketKeys = duplicateTicketKeys;
+    }
+    
+    public boolean isDuplicateOfSource() {
+        return duplicateOfSource;
+    }
+    
+    public void setDuplicateOfSource(boolean duplicateOfSource) {
+        this.duplicateOfSource = duplicateOfSource;
+    }
+    
+    public int getHops() {
+        return hops;
+    }
+    
+    public void setHops(int hops) {
+        this.hops = hops;
+    }
+    
+    public String getViaTicketKey() {
+        return viaTicketKey;
+    }
+    
+    public void setViaTicketKey(String viaTicketKey) {
+        this.viaTicketKey = viaTicketKey;
+    }
+}
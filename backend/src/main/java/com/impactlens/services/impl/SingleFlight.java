@@ -0,0 +1,98 @@
+package com.impactlens.services.impl;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key into a single computation.
+ *
+ * The first caller for a key runs the work on its own thread; callers that
+ * arrive while it is in flight wait for and share its result (or failure).
+ * Once the result is published the key is released, so later calls compute
+ * again (normally they will hit the cache instead).
+ */
+public class SingleFlight<K, V> {
+    
+    private final Map<K, Call<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalescedCount = new AtomicLong();
+    
+    /**
+     * Run the work for the key, or join the call already in flight. The
+     * callback receives the result and the number of callers that joined it
+     * before the result is handed to anyone.
+     */
+    public V execute(K key, Supplier<V> work, ObjIntConsumer<V> onShared) {
+        Call<V> call = new Call<>();
+        Call<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            coalescedCount.incrementAndGet();
+            existing.join();
+            return await(existing.result);
+        }
+        
+        try {
+            V value = work.get();
+            inFlight.remove(key, call);
+            onShared.accept(value, call.seal());
+            call.result.complete(value);
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, call);
+            call.seal();
+            call.result.completeExceptionally(e);
+        }
+        return await(call.result);
+    }
+    
+    /**
+     * Total number of callers that were served by another caller's computation
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.get();
+    }
+    
+    /**
+     * Number of keys currently being computed
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+    
+    private V await(CompletableFuture<V> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+    
+    private static class Call<V> {
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+        private int joiners;
+        private boolean sealed;
+        
+        synchronized void join() {
+            // Callers arriving after the seal still get the result, they are
+            // just not included in the published count
+            if (!sealed) {
+                joiners++;
+            }
+        }
+        
+        synchronized int seal() {
+            sealed = true;
+            return joiners;
+        }
+    }
+}
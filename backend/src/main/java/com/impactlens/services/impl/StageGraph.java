@@ -0,0 +1,129 @@
+package com.impactlens.services.impl;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.impactlens.services.AnalysisStageListener;
+
+/**
+ * Small dependency graph of analysis stages.
+ *
+ * Every stage declares the stages whose output it consumes. A stage is
+ * submitted to the executor as soon as all of its inputs are complete, so
+ * stages that do not depend on each other run in parallel. The wall time of
+ * each stage is recorded for reporting and announced to the listener.
+ */
+public class StageGraph {
+
+    private static final Logger logger = LoggerFactory.getLogger(StageGraph.class);
+
+    private final Executor executor;
+    private final AnalysisStageListener listener;
+    private final List<String> stageNames = new CopyOnWriteArrayList<>();
+    private final Map<String, Long> stageTimings = new ConcurrentHashMap<>();
+
+    public StageGraph(Executor executor) {
+        this(executor, AnalysisStageListener.NONE);
+    }
+
+    public StageGraph(Executor executor, AnalysisStageListener listener) {
+        this.executor = executor;
+        this.listener = listener;
+    }
+
+    /**
+     * Declare a stage that runs once all of the given stages have completed
+     */
+    public <T> Stage<T> stage(String name, Supplier<T> task, Stage<?>... dependsOn) {
+        stageNames.add(name);
+
+        CompletableFuture<?>[] inputs = new CompletableFuture<?>[dependsOn.length];
+        for (int i = 0; i < dependsOn.length; i++) {
+            inputs[i] = dependsOn[i].future;
+        }
+
+        CompletableFuture<T> future = CompletableFuture.allOf(inputs)
+            .thenApplyAsync(ignored -> runTimed(name, task), executor);
+
+        return new Stage<>(name, future);
+    }
+
+    /**
+     * Wait for a stage and return its result, rethrowing the original failure
+     */
+    public <T> T await(Stage<T> stage) {
+        try {
+            return stage.future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Stage " + stage.name + " failed", cause);
+        }
+    }
+
+    /**
+     * Wall time in milliseconds of every completed stage, in declaration order
+     */
+    public Map<String, Long> getStageTimings() {
+        Map<String, Long> timings = new LinkedHashMap<>();
+        for (String name : stageNames) {
+            Long elapsed = stageTimings.get(name);
+            if (elapsed != null) {
+                timings.put(name, elapsed);
+            }
+        }
+        return timings;
+    }
+
+    private <T> T runTimed(String name, Supplier<T> task) {
+        listener.onStageStarted(name);
+        long startTime = System.currentTimeMillis();
+        T result;
+        try {
+            result = task.get();
+        } finally {
+            long elapsed = System.currentTimeMillis() - startTime;
+            stageTimings.put(name, elapsed);
+            logger.debug("Stage {} finished in {}ms", name, elapsed);
+        }
+        listener.onStageCompleted(name, stageTimings.get(name));
+        return result;
+    }
+
+    /**
+     * Handle to a declared stage
+     */
+    public static class Stage<T> {
+        private final String name;
+        private final CompletableFuture<T> future;
+
+        private Stage(String name, CompletableFuture<T> future) {
+            this.name = name;
+            this.future = future;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Result of the stage. Only call from a stage that declared this one
+         * as a dependency, where the result is guaranteed to be available.
+         */
+        public T get() {
+            return future.join();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+-- Maintained full-text search vector: summary terms weigh more than description terms
+ALTER TABLE jira_tickets
+    ADD COLUMN search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(summary, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(description, '')), 'B')
+    ) STORED;
+
+-- Create full-text index for candidate search
+CREATE INDEX idx_jira_tickets_search_vector ON jira_tickets USING GIN (search_vector);
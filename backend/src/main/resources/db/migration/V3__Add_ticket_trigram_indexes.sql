@@ -0,0 +1,7 @@
+-- Trigram matching for fuzzy ticket search (typos, plurals, compound words).
+-- Requires the pg_trgm extension, which ships with PostgreSQL contrib.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Create trigram indexes for fuzzy candidate search
+CREATE INDEX idx_jira_tickets_summary_trgm ON jira_tickets USING GIN (summary gin_trgm_ops);
+CREATE INDEX idx_jira_tickets_description_trgm ON jira_tickets USING GIN (description gin_trgm_ops);
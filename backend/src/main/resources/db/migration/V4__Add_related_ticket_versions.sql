@@ -0,0 +1,4 @@
+-- Record the updated_at of both tickets when a relevance edge is computed, so
+-- an edge can be reused until either ticket changes
+ALTER TABLE related_tickets ADD COLUMN source_updated_at TIMESTAMP;
+ALTER TABLE related_tickets ADD COLUMN related_updated_at TIMESTAMP;
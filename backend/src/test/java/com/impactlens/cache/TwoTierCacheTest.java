@@ -0,0 +1,121 @@
+package com.impactlens.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TwoTierCacheTest {
+    
+    private static final String CHANNEL = "invalidations";
+    private static final long MAXIMUM_WEIGHT = 10;
+    
+    private final ConcurrentMapCacheManager redis = new ConcurrentMapCacheManager("analysis");
+    private StringRedisTemplate redisTemplate;
+    private MeterRegistry meterRegistry;
+    private TwoTierCacheManager node;
+    private TwoTierCacheManager otherNode;
+    
+    @BeforeEach
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        node = manager(meterRegistry);
+        otherNode = manager(new SimpleMeterRegistry());
+    }
+    
+    @Test
+    void readsThroughTheRemoteTierAndKeepsHitsLocally() {
+        Cache cache = node.getCache("analysis");
+        redis.getCache("analysis").put("PROJ-1", 1);
+        
+        assertThat(cache.get("PROJ-1", Integer.class)).isEqualTo(1);
+        // Removed behind the cache's back, the local copy still answers
+        redis.getCache("analysis").evict("PROJ-1");
+        assertThat(cache.get("PROJ-1", Integer.class)).isEqualTo(1);
+        assertThat(cache.get("PROJ-2")).isNull();
+        
+        assertThat(gets("local", "hit")).isEqualTo(1);
+        assertThat(gets("local", "miss")).isEqualTo(2);
+        assertThat(gets("remote", "hit")).isEqualTo(1);
+        assertThat(gets("remote", "miss")).isEqualTo(1);
+    }
+    
+    @Test
+    void writesDropTheLocalCopiesOfEveryNode() {
+        Cache cache = node.getCache("analysis");
+        Cache otherCache = otherNode.getCache("analysis");
+        redis.getCache("analysis").put("PROJ-1", 1);
+        assertThat(otherCache.get("PROJ-1", Integer.class)).isEqualTo(1);
+        
+        cache.put("PROJ-1", 2);
+        
+        assertThat(redis.getCache("analysis").get("PROJ-1", Integer.class)).isEqualTo(2);
+        assertThat(otherCache.get("PROJ-1", Integer.class)).isEqualTo(1);
+        otherNode.onInvalidationMessage(publishedMessages().get(0));
+        assertThat(otherCache.get("PROJ-1", Integer.class)).isEqualTo(2);
+        
+        cache.clear();
+        
+        otherNode.onInvalidationMessage(publishedMessages().get(1));
+        assertThat(otherCache.get("PROJ-1")).isNull();
+    }
+    
+    @Test
+    void localTierStaysWithinItsWeight() {
+        TwoTierCache cache = (TwoTierCache) node.getCache("analysis");
+        for (int i = 1; i <= 5; i++) {
+            redis.getCache("analysis").put("PROJ-" + i, 4);
+            cache.get("PROJ-" + i);
+        }
+        redis.getCache("analysis").put("HEAVY", (int) MAXIMUM_WEIGHT + 1);
+        cache.get("HEAVY");
+        
+        cache.getLocal().cleanUp();
+        
+        long weightedSize = cache.getLocal().policy().eviction().orElseThrow().weightedSize().orElseThrow();
+        assertThat(weightedSize).isLessThanOrEqualTo(MAXIMUM_WEIGHT);
+        assertThat(cache.getLocal().getIfPresent("HEAVY")).isNull();
+        // Evicted entries are read from the remote tier again
+        String evicted = IntStream.rangeClosed(1, 5).mapToObj(i -> "PROJ-" + i)
+            .filter(key -> cache.getLocal().getIfPresent(key) == null)
+            .findFirst()
+            .orElseThrow();
+        double remoteHits = gets("remote", "hit");
+        assertThat(cache.get(evicted, Integer.class)).isEqualTo(4);
+        assertThat(gets("remote", "hit")).isEqualTo(remoteHits + 1);
+    }
+    
+    private TwoTierCacheManager manager(MeterRegistry registry) {
+        return new TwoTierCacheManager(redis, redisTemplate, CHANNEL, registry, MAXIMUM_WEIGHT,
+            Duration.ofMinutes(10), (key, value) -> value instanceof Integer ? (Integer) value : 1);
+    }
+    
+    private List<String> publishedMessages() {
+        ArgumentCaptor<String> messages = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate, atLeastOnce()).convertAndSend(eq(CHANNEL), messages.capture());
+        return messages.getAllValues();
+    }
+    
+    private double gets(String tier, String result) {
+        return meterRegistry.get("cache.gets")
+            .tags("cache", "analysis", "tier", tier, "result", result)
+            .functionCounter()
+            .count();
+    }
+}
@@ -0,0 +1,84 @@
+package com.impactlens.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.impactlens.dto.AnalysisResponse;
+
+class CacheConfigTest {
+    
+    @Test
+    void analysisSurvivesTheRedisRoundTrip() {
+        AnalysisResponse response = analysis(2);
+        RedisSerializer<AnalysisResponse> serializer =
+            CacheConfig.analysisSerializer(Jackson2ObjectMapperBuilder.json().build());
+        
+        AnalysisResponse read = serializer.deserialize(serializer.serialize(response));
+        
+        assertThat(read).usingRecursiveComparison().isEqualTo(response);
+        assertThat(read.getMetadata().getCompletedAt()).isEqualTo(response.getMetadata().getCompletedAt());
+        assertThat(read.getMetadata().getStageTimings()).containsExactly(
+            Map.entry("fetchTicket", 12L), Map.entry("relatedTickets", 340L));
+    }
+    
+    @Test
+    void analysisWeighsOnePlusItsReportItems() {
+        assertThat(CacheConfig.weigh(analysis(3))).isEqualTo(1 + 3 + 1 + 1 + 1);
+        assertThat(CacheConfig.weigh(new AnalysisResponse())).isEqualTo(1);
+        assertThat(CacheConfig.weigh("other")).isEqualTo(1);
+    }
+    
+    private static AnalysisResponse analysis(int relatedTickets) {
+        AnalysisResponse.RelatedTicket source = new AnalysisResponse.RelatedTicket();
+        source.setTicketKey("PROJ-1");
+        source.setSummary("Login fails");
+        
+        AnalysisResponse.AnalysisReport report = new AnalysisResponse.AnalysisReport();
+        report.setSourceTicket(source);
+        report.setSummary("Login is affected");
+        List<AnalysisResponse.RelatedTicket> related = new ArrayList<>();
+        for (int i = 0; i < relatedTickets; i++) {
+            AnalysisResponse.RelatedTicket ticket = new AnalysisResponse.RelatedTicket();
+            ticket.setTicketKey("PROJ-" + (i + 2));
+            ticket.setRelevanceScore(0.75);
+            ticket.setRank(i + 1);
+            ticket.setDuplicateTicketKeys(List.of("PROJ-" + (i + 20)));
+            ticket.setHops(2);
+            ticket.setViaTicketKey("PROJ-9");
+            related.add(ticket);
+        }
+        report.setRelatedTickets(related);
+        AnalysisResponse.GapAnalysis gap = new AnalysisResponse.GapAnalysis();
+        gap.setCategory("testing");
+        gap.setSuggestions(List.of("Add a session test"));
+        report.setGapsIdentified(List.of(gap));
+        AnalysisResponse.RegressionArea area = new AnalysisResponse.RegressionArea();
+        area.setArea("Authentication");
+        area.setTestCases(List.of("Log in with an expired session"));
+        report.setRegressionAreas(List.of(area));
+        report.setRecommendations(List.of("Retest login"));
+        
+        Map<String, Long> stageTimings = new LinkedHashMap<>();
+        stageTimings.put("fetchTicket", 12L);
+        stageTimings.put("relatedTickets", 340L);
+        AnalysisResponse.AnalysisMetadata metadata = new AnalysisResponse.AnalysisMetadata();
+        metadata.setProcessingTime(1_500);
+        metadata.setTicketsAnalyzed(relatedTickets + 1);
+        metadata.setCompletedAt(LocalDateTime.of(2024, 3, 1, 12, 0, 0, 123_456_000));
+        metadata.setModelUsed("gpt-4");
+        metadata.setStageTimings(stageTimings);
+        metadata.setCoalescedRequests(3);
+        
+        return new AnalysisResponse(UUID.randomUUID(), "completed", report, metadata);
+    }
+}
@@ -0,0 +1,83 @@
+package com.impactlens.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.impactlens.dto.AnalysisResponse;
+import com.impactlens.services.AnalysisStageListener;
+
+class AnalysisEventStreamTest {
+    
+    @Test
+    void backfillsSectionsThatWereNotStreamed() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        AnalysisEventStream stream = new AnalysisEventStream(emitter);
+        stream.onSectionReady(AnalysisStageListener.SECTION_RELATED_TICKETS, List.of());
+        
+        stream.complete(response());
+        
+        assertThat(emitter.events).containsExactly(
+            AnalysisStageListener.SECTION_RELATED_TICKETS,
+            AnalysisStageListener.SECTION_TICKET,
+            AnalysisStageListener.SECTION_GAPS,
+            AnalysisStageListener.SECTION_REGRESSION_AREAS,
+            AnalysisStageListener.SECTION_SUMMARY,
+            AnalysisEventStream.EVENT_COMPLETE);
+    }
+    
+    @Test
+    void sendsEverySectionOnce() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        AnalysisEventStream stream = new AnalysisEventStream(emitter);
+        AnalysisResponse response = response();
+        stream.onSectionReady(AnalysisStageListener.SECTION_TICKET, response.getReport().getSourceTicket());
+        stream.onSectionReady(AnalysisStageListener.SECTION_SUMMARY, response.getReport().getSummary());
+        
+        stream.complete(response);
+        
+        assertThat(emitter.events).containsExactly(
+            AnalysisStageListener.SECTION_TICKET,
+            AnalysisStageListener.SECTION_SUMMARY,
+            AnalysisStageListener.SECTION_RELATED_TICKETS,
+            AnalysisStageListener.SECTION_GAPS,
+            AnalysisStageListener.SECTION_REGRESSION_AREAS,
+            AnalysisEventStream.EVENT_COMPLETE);
+    }
+    
+    private static AnalysisResponse response() {
+        AnalysisResponse.RelatedTicket sourceTicket = new AnalysisResponse.RelatedTicket();
+        sourceTicket.setTicketKey("PROJ-1");
+        AnalysisResponse.AnalysisReport report = new AnalysisResponse.AnalysisReport();
+        report.setSourceTicket(sourceTicket);
+        report.setRelatedTickets(new ArrayList<>());
+        report.setGapsIdentified(new ArrayList<>());
+        report.setRegressionAreas(new ArrayList<>());
+        report.setSummary("summary");
+        AnalysisResponse response = new AnalysisResponse();
+        response.setReport(report);
+        return response;
+    }
+    
+    /**
+     * Records the names of the events sent to the client
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        
+        private final List<String> events = new ArrayList<>();
+        
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            String text = builder.build().stream()
+                .map(data -> String.valueOf(data.getData()))
+                .collect(Collectors.joining());
+            events.add(text.substring(text.indexOf("event:") + 6, text.indexOf('\n', text.indexOf("event:"))));
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.impactlens.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Runs the native candidate searches against PostgreSQL with the Flyway
+ * schema. Skipped when Docker is not available.
+ */
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=true",
+    "spring.jpa.hibernate.ddl-auto=none"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class JiraTicketRepositoryTest {
+    
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+    
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+    
+    @Autowired
+    private JiraTicketRepository jiraTicketRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @BeforeEach
+    void setUp() {
+        insert("PROJ-1", "Login page times out", "Users cannot log in after the session expires", 1);
+        insert("PROJ-2", "Login button misaligned", "Cosmetic issue on the login form", 2);
+        insert("PROJ-3", "Session timeout too short", "Login sessions expire after a minute", 3);
+        insert("PROJ-4", "Export to CSV", "Reports cannot be exported", 4);
+    }
+    
+    @Test
+    void keywordSearchRanksByMatchedKeywordsAndExcludesTheSource() {
+        List<TicketCandidate> candidates = jiraTicketRepository.searchTicketsByKeywords(
+            List.of("login", "session"), "PROJ-1", 10);
+        
+        // PROJ-3 matches both keywords; PROJ-2 only one
+        assertThat(candidates).extracting(TicketCandidate::getTicketKey).containsExactly("PROJ-3", "PROJ-2");
+        assertThat(candidates.get(0).getSummary()).isEqualTo("Session timeout too short");
+    }
+    
+    @Test
+    void keywordSearchIsCaseInsensitiveAndCapped() {
+        List<TicketCandidate> candidates = jiraTicketRepository.searchTicketsByKeywords(List.of("LOGIN"), "PROJ-4", 2);
+        
+        assertThat(candidates).hasSize(2);
+        assertThat(candidates).extracting(TicketCandidate::getTicketKey).doesNotContain("PROJ-4");
+    }
+    
+    @Test
+    void perSourceKeywordSearchRanksEachSourceByItsOwnKeywords() {
+        // PROJ-8's only match would be outranked by PROJ-9's common terms
+        // in one search over the union of their keywords
+        Map<String, List<String>> keywordsBySource = new LinkedHashMap<>();
+        keywordsBySource.put("PROJ-9", List.of("login", "session"));
+        keywordsBySource.put("PROJ-8", List.of("exported"));
+        keywordsBySource.put("PROJ-7", List.of());
+        
+        List<CandidateMatch> matches = jiraTicketRepository.searchTicketKeysByKeywords(keywordsBySource, 1);
+        
+        assertThat(matches).extracting(CandidateMatch::getSourceKey, CandidateMatch::getTicketKey)
+            .containsExactly(tuple("PROJ-9", "PROJ-1"), tuple("PROJ-8", "PROJ-4"));
+        assertThat(jiraTicketRepository.searchTicketsByKeywords(List.of("login", "session"), "PROJ-9", 1))
+            .extracting(TicketCandidate::getTicketKey).containsExactly("PROJ-1");
+    }
+    
+    @Test
+    void perSourceKeywordSearchMatchesTheSingleSearchOfEachSource() {
+        Map<String, List<String>> keywordsBySource = new LinkedHashMap<>();
+        keywordsBySource.put("PROJ-1", List.of("login"));
+        keywordsBySource.put("PROJ-3", List.of("login", "session", "csv"));
+        
+        List<CandidateMatch> matches = jiraTicketRepository.searchTicketKeysByKeywords(keywordsBySource, 10);
+        
+        keywordsBySource.forEach((sourceKey, keywords) -> assertThat(matches.stream()
+                .filter(match -> match.getSourceKey().equals(sourceKey))
+                .map(CandidateMatch::getTicketKey))
+            .containsExactlyElementsOf(jiraTicketRepository.searchTicketsByKeywords(keywords, sourceKey, 10).stream()
+                .map(TicketCandidate::getTicketKey)
+                .collect(Collectors.toList())));
+        assertThat(matches).extracting(CandidateMatch::getTicketKey).startsWith("PROJ-2", "PROJ-3");
+    }
+    
+    @Test
+    void fullTextSearchMatchesStemsAndRanksSummaryHitsFirst() {
+        List<TicketCandidate> candidates = jiraTicketRepository.fullTextSearchAny(List.of("sessions"), "PROJ-9", 10);
+        
+        // PROJ-3 has the term in its summary, PROJ-1 only in its description
+        assertThat(candidates).extracting(TicketCandidate::getTicketKey).containsExactly("PROJ-3", "PROJ-1");
+    }
+    
+    @Test
+    void fullTextSearchMatchesPhrases() {
+        List<TicketCandidate> candidates = jiraTicketRepository.fullTextSearchAny(List.of("login form"), "PROJ-9", 10);
+        
+        assertThat(candidates).extracting(TicketCandidate::getTicketKey).containsExactly("PROJ-2");
+    }
+    
+    @Test
+    void trigramSearchMatchesWordVariants() {
+        jiraTicketRepository.setWordSimilarityThreshold("0.40");
+        List<TicketCandidate> candidates = jiraTicketRepository.trigramSearch(List.of("exports"), "PROJ-9", 10);
+        
+        assertThat(candidates).extracting(TicketCandidate::getTicketKey).containsExactly("PROJ-4");
+    }
+    
+    private void insert(String ticketKey, String summary, String description, int daysAgo) {
+        jdbcTemplate.update("INSERT INTO jira_tickets (ticket_key, ticket_id, summary, description, status, updated_at) " +
+            "VALUES (?, ?, ?, ?, 'Open', ?)",
+            ticketKey, ticketKey, summary, description, Timestamp.valueOf(LocalDateTime.now().minusDays(daysAgo)));
+    }
+}
@@ -0,0 +1,59 @@
+package com.impactlens.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.impactlens.entities.JiraTicket;
+
+class TicketCandidateTest {
+    
+    @Test
+    void toTicketCopiesEveryProjectedColumn() {
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 3, 1, 10, 15);
+        
+        JiraTicket ticket = candidate("PROJ-1", "Login fails", "Users cannot log in", "Open", "High", "alice",
+            updatedAt).toTicket();
+        
+        assertThat(ticket.getTicketKey()).isEqualTo("PROJ-1");
+        assertThat(ticket.getSummary()).isEqualTo("Login fails");
+        assertThat(ticket.getDescription()).isEqualTo("Users cannot log in");
+        assertThat(ticket.getStatus()).isEqualTo("Open");
+        assertThat(ticket.getPriority()).isEqualTo("High");
+        assertThat(ticket.getAssignee()).isEqualTo("alice");
+        assertThat(ticket.getUpdatedAt()).isEqualTo(updatedAt);
+        
+        // Columns outside the projection stay empty; the ticket is detached
+        assertThat(ticket.getId()).isNull();
+        assertThat(ticket.getRawData()).isNull();
+        assertThat(ticket.getReporter()).isNull();
+    }
+    
+    @Test
+    void toTicketsKeepsCandidateOrder() {
+        List<JiraTicket> tickets = TicketCandidate.toTickets(List.of(
+            candidate("PROJ-2", null, null, null, null, null, null),
+            candidate("PROJ-1", null, null, null, null, null, null)));
+        
+        assertThat(tickets).extracting(JiraTicket::getTicketKey).containsExactly("PROJ-2", "PROJ-1");
+    }
+    
+    private static TicketCandidate candidate(String ticketKey, String summary, String description, String status,
+                                             String priority, String assignee, LocalDateTime updatedAt) {
+        TicketCandidate candidate = mock(TicketCandidate.class, CALLS_REAL_METHODS);
+        doReturn(ticketKey).when(candidate).getTicketKey();
+        doReturn(summary).when(candidate).getSummary();
+        doReturn(description).when(candidate).getDescription();
+        doReturn(status).when(candidate).getStatus();
+        doReturn(priority).when(candidate).getPriority();
+        doReturn(assignee).when(candidate).getAssignee();
+        doReturn(updatedAt).when(candidate).getUpdatedAt();
+        return candidate;
+    }
+}
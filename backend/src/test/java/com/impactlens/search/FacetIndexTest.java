@@ -0,0 +1,116 @@
+package com.impactlens.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.impactlens.dto.AnalysisRequest;
+import com.impactlens.entities.JiraTicket;
+import com.impactlens.events.JiraTicketChangedEvent;
+import com.impactlens.repositories.JiraTicketRepository;
+import com.impactlens.repositories.TicketCandidate;
+
+class FacetIndexTest {
+    
+    private final TicketOrdinals ticketOrdinals = new TicketOrdinals();
+    private JiraTicketRepository jiraTicketRepository;
+    private FacetIndex facetIndex;
+    
+    @BeforeEach
+    void setUp() {
+        jiraTicketRepository = mock(JiraTicketRepository.class);
+        doCallRealMethod().when(jiraTicketRepository).forEachCandidatePage(anyInt(), any());
+        
+        facetIndex = new FacetIndex();
+        ReflectionTestUtils.setField(facetIndex, "jiraTicketRepository", jiraTicketRepository);
+        ReflectionTestUtils.setField(facetIndex, "ticketOrdinals", ticketOrdinals);
+        ReflectionTestUtils.setField(facetIndex, "pageSize", 1000);
+    }
+    
+    @Test
+    void intersectsFacetsAndUnitesValuesWithinOne() {
+        build(
+            candidate("PROJ-1", "Open", "High", "alice"),
+            candidate("PROJ-2", "Open", "Low", "bob"),
+            candidate("PROJ-3", "In Progress", "High", "alice"),
+            candidate("OTHER-1", "Open", "High", "alice"));
+        
+        assertThat(keys(filter(List.of("open"), List.of("HIGH"), List.of("PROJ"))))
+            .containsExactly("PROJ-1");
+        assertThat(keys(filter(List.of("open", "in progress"), List.of("high"), List.of("proj"))))
+            .containsExactlyInAnyOrder("PROJ-1", "PROJ-3");
+        assertThat(keys(filter(List.of("closed"), List.of(), List.of()))).isEmpty();
+    }
+    
+    @Test
+    void keepsChangesThatArriveWhileBuilding() {
+        JiraTicket moved = new JiraTicket("PROJ-1", null);
+        moved.setStatus("Done");
+        moved.setPriority("High");
+        JiraTicket deleted = new JiraTicket("PROJ-2", null);
+        List<TicketCandidate> page = List.of(candidate("PROJ-1", "Open", "High", null),
+            candidate("PROJ-2", "Open", "Low", null));
+        when(jiraTicketRepository.findCandidatesAfter(eq(""), any())).thenAnswer(invocation -> {
+            // The page was read before these changes were committed
+            facetIndex.onTicketChanged(JiraTicketChangedEvent.saved(moved));
+            facetIndex.onTicketChanged(JiraTicketChangedEvent.deleted(deleted));
+            return page;
+        });
+        
+        facetIndex.buildOnStartup();
+        
+        assertThat(facetIndex.isReady()).isTrue();
+        assertThat(keys(null)).containsExactly("PROJ-1");
+        assertThat(keys(filter(List.of("done"), List.of(), List.of()))).containsExactly("PROJ-1");
+        
+        // Once built, changes apply directly
+        JiraTicket reopened = new JiraTicket("PROJ-1", null);
+        reopened.setStatus("Open");
+        facetIndex.onTicketChanged(JiraTicketChangedEvent.saved(reopened));
+        assertThat(keys(filter(List.of("open"), List.of(), List.of()))).containsExactly("PROJ-1");
+        assertThat(keys(filter(List.of("done"), List.of(), List.of()))).isEmpty();
+        assertThat(keys(filter(List.of(), List.of("high"), List.of()))).isEmpty();
+    }
+    
+    private void build(TicketCandidate... candidates) {
+        when(jiraTicketRepository.findCandidatesAfter(eq(""), any())).thenReturn(List.of(candidates));
+        facetIndex.buildOnStartup();
+    }
+    
+    private List<String> keys(AnalysisRequest.CandidateFilter filter) {
+        List<String> keys = new ArrayList<>();
+        for (int ordinal : facetIndex.filter(filter).toArray()) {
+            keys.add(ticketOrdinals.keyOf(ordinal));
+        }
+        return keys;
+    }
+    
+    private static AnalysisRequest.CandidateFilter filter(List<String> statuses, List<String> priorities,
+                                                          List<String> projects) {
+        AnalysisRequest.CandidateFilter filter = new AnalysisRequest.CandidateFilter();
+        filter.setStatuses(statuses);
+        filter.setPriorities(priorities);
+        filter.setProjects(projects);
+        return filter;
+    }
+    
+    private static TicketCandidate candidate(String ticketKey, String status, String priority, String assignee) {
+        TicketCandidate candidate = mock(TicketCandidate.class);
+        when(candidate.getTicketKey()).thenReturn(ticketKey);
+        when(candidate.getStatus()).thenReturn(status);
+        when(candidate.getPriority()).thenReturn(priority);
+        when(candidate.getAssignee()).thenReturn(assignee);
+        return candidate;
+    }
+}
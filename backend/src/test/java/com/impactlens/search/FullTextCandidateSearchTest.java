@@ -0,0 +1,55 @@
+package com.impactlens.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.impactlens.entities.JiraTicket;
+import com.impactlens.repositories.JiraTicketRepository;
+
+class FullTextCandidateSearchTest {
+    
+    private JiraTicketRepository jiraTicketRepository;
+    private FullTextCandidateSearch search;
+    
+    @BeforeEach
+    void setUp() {
+        // Runs the query-building default method and stubs the native query
+        jiraTicketRepository = mock(JiraTicketRepository.class, withSettings().defaultAnswer(Answers.CALLS_REAL_METHODS));
+        search = new FullTextCandidateSearch();
+        ReflectionTestUtils.setField(search, "jiraTicketRepository", jiraTicketRepository);
+    }
+    
+    @Test
+    void matchesAnyKeywordAndQuotesPhrases() {
+        search.findCandidates(new JiraTicket("PROJ-1", null), List.of("login", "session timeout"), 20);
+        
+        verify(jiraTicketRepository).fullTextSearch("login or \"session timeout\"", "PROJ-1", 20);
+    }
+    
+    @Test
+    void stripsQuotesAndLeadingNegation() {
+        search.findCandidates(new JiraTicket("PROJ-1", null), List.of("-cache", "say \"hi\""), 20);
+        
+        verify(jiraTicketRepository).fullTextSearch("cache or \"say  hi\"", "PROJ-1", 20);
+    }
+    
+    @Test
+    void skipsTheQueryWhenNoKeywordIsLeft() {
+        List<JiraTicket> candidates = search.findCandidates(new JiraTicket("PROJ-1", null), List.of("\"", " - "), 20);
+        
+        assertThat(candidates).isEmpty();
+        verify(jiraTicketRepository, never()).fullTextSearch(anyString(), anyString(), anyInt());
+    }
+}
@@ -0,0 +1,172 @@
+package com.impactlens.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class HnswGraphTest {
+    
+    private static final int DIMENSIONS = 16;
+    private static final int M = 8;
+    private static final int EF_CONSTRUCTION = 64;
+    
+    @TempDir
+    Path directory;
+    
+    private final Random random = new Random(7);
+    private final List<HnswGraph> graphs = new ArrayList<>();
+    
+    private HnswGraph graph;
+    private List<String> keys;
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        graph = open("vectors.i8", M);
+        keys = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            String key = "PROJ-" + i;
+            graph.insert(key, randomUnitVector(), i);
+            keys.add(key);
+        }
+    }
+    
+    @AfterEach
+    void tearDown() throws IOException {
+        for (HnswGraph open : graphs) {
+            open.close();
+        }
+    }
+    
+    @Test
+    void findsMostOfTheExactNearestNeighbours() {
+        int found = 0;
+        int expected = 0;
+        for (int q = 0; q < 50; q++) {
+            float[] query = randomUnitVector();
+            Set<String> exact = new HashSet<>(ticketKeys(graph.exactSearch(query, 10, keys)));
+            for (String ticketKey : ticketKeys(graph.search(query, 10, 100, node -> true))) {
+                if (exact.contains(ticketKey)) {
+                    found++;
+                }
+            }
+            expected += exact.size();
+        }
+        
+        assertThat((double) found / expected).isGreaterThanOrEqualTo(0.9);
+    }
+    
+    @Test
+    void returnsOnlyLiveAcceptedNodesMostSimilarFirst() {
+        for (int i = 0; i < 1000; i += 3) {
+            graph.delete("PROJ-" + i);
+        }
+        
+        List<HnswGraph.Hit> hits = graph.search(randomUnitVector(), 20, 64, node -> node % 2 == 0);
+        
+        assertThat(hits).hasSize(20);
+        for (int i = 0; i < hits.size(); i++) {
+            int number = Integer.parseInt(hits.get(i).ticketKey.substring("PROJ-".length()));
+            assertThat(number % 3).isNotZero();
+            assertThat(number % 2).isZero();
+            if (i > 0) {
+                assertThat(hits.get(i).similarity).isLessThanOrEqualTo(hits.get(i - 1).similarity);
+            }
+        }
+    }
+    
+    @Test
+    void exactSearchRanksOnlyTheGivenLiveKeys() {
+        float[] query = graph.vectorOf("PROJ-1");
+        graph.delete("PROJ-3");
+        
+        List<HnswGraph.Hit> hits = graph.exactSearch(query, 5, List.of("PROJ-1", "PROJ-2", "PROJ-3", "UNKNOWN-1"));
+        
+        assertThat(ticketKeys(hits)).containsExactlyInAnyOrder("PROJ-1", "PROJ-2");
+        assertThat(hits.get(0).ticketKey).isEqualTo("PROJ-1");
+    }
+    
+    @Test
+    void checkpointRestoresTheSameGraph() throws IOException {
+        graph.delete("PROJ-5");
+        float[] query = randomUnitVector();
+        List<String> before = ticketKeys(graph.search(query, 10, 64, node -> true));
+        
+        ByteArrayOutputStream checkpoint = new ByteArrayOutputStream();
+        graph.write(new DataOutputStream(checkpoint));
+        
+        HnswGraph restored = open("vectors.i8", M);
+        assertThat(restored.read(new DataInputStream(new ByteArrayInputStream(checkpoint.toByteArray())))).isTrue();
+        assertThat(restored.size()).isEqualTo(999);
+        assertThat(restored.nodeCount()).isEqualTo(1000);
+        assertThat(restored.contains("PROJ-5")).isFalse();
+        assertThat(restored.contains("PROJ-6", 6)).isTrue();
+        assertThat(restored.contains("PROJ-6", 7)).isFalse();
+        assertThat(ticketKeys(restored.search(query, 10, 64, node -> true))).containsExactlyElementsOf(before);
+        
+        HnswGraph otherSettings = open("vectors.i8", M * 2);
+        assertThat(otherSettings.read(new DataInputStream(new ByteArrayInputStream(checkpoint.toByteArray())))).isFalse();
+        assertThat(otherSettings.size()).isZero();
+    }
+    
+    @Test
+    void compactionDropsTombstonesAndKeepsLiveVectors() throws IOException {
+        for (int i = 0; i < 1000; i += 2) {
+            graph.delete("PROJ-" + i);
+        }
+        assertThat(graph.deletedRatio()).isEqualTo(0.5);
+        
+        HnswGraph compacted = open("compacted.i8", M);
+        graph.copyLiveTo(compacted);
+        
+        assertThat(compacted.size()).isEqualTo(500);
+        assertThat(compacted.nodeCount()).isEqualTo(500);
+        assertThat(compacted.deletedRatio()).isZero();
+        assertThat(compacted.contains("PROJ-1", 1)).isTrue();
+        assertThat(compacted.contains("PROJ-2")).isFalse();
+        assertThat(compacted.vectorOf("PROJ-1")).containsExactly(graph.vectorOf("PROJ-1"));
+        assertThat(compacted.search(randomUnitVector(), 50, 64, node -> true))
+            .allSatisfy(hit -> assertThat(graph.contains(hit.ticketKey)).isTrue());
+    }
+    
+    private HnswGraph open(String file, int m) throws IOException {
+        HnswGraph opened = new HnswGraph(new QuantizedVectors(directory.resolve(file), DIMENSIONS), m, EF_CONSTRUCTION);
+        graphs.add(opened);
+        return opened;
+    }
+    
+    private static List<String> ticketKeys(List<HnswGraph.Hit> hits) {
+        List<String> ticketKeys = new ArrayList<>();
+        for (HnswGraph.Hit hit : hits) {
+            ticketKeys.add(hit.ticketKey);
+        }
+        return ticketKeys;
+    }
+    
+    private float[] randomUnitVector() {
+        float[] vector = new float[DIMENSIONS];
+        double norm = 0;
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = (float) random.nextGaussian();
+            norm += vector[i] * vector[i];
+        }
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] /= (float) Math.sqrt(norm);
+        }
+        return vector;
+    }
+}
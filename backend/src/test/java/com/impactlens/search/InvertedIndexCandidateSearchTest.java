@@ -0,0 +1,34 @@
+package com.impactlens.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.impactlens.entities.JiraTicket;
+import com.impactlens.repositories.JiraTicketRepository;
+
+class InvertedIndexCandidateSearchTest {
+    
+    @Test
+    void usesLikeSearchUntilTheIndexIsReady() {
+        InvertedIndex invertedIndex = mock(InvertedIndex.class);
+        LikeCandidateSearch likeCandidateSearch = mock(LikeCandidateSearch.class);
+        JiraTicket source = new JiraTicket("PROJ-1", null);
+        JiraTicket candidate = new JiraTicket("PROJ-2", null);
+        when(invertedIndex.isReady()).thenReturn(false);
+        when(likeCandidateSearch.findCandidates(source, List.of("login"), 20)).thenReturn(List.of(candidate));
+        
+        InvertedIndexCandidateSearch search = new InvertedIndexCandidateSearch();
+        ReflectionTestUtils.setField(search, "invertedIndex", invertedIndex);
+        ReflectionTestUtils.setField(search, "ticketOrdinals", new TicketOrdinals());
+        ReflectionTestUtils.setField(search, "jiraTicketRepository", mock(JiraTicketRepository.class));
+        ReflectionTestUtils.setField(search, "likeCandidateSearch", likeCandidateSearch);
+        
+        assertThat(search.findCandidates(source, List.of("login"), 20)).containsExactly(candidate);
+    }
+}
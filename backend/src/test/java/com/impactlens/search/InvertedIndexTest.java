@@ -0,0 +1,122 @@
+package com.impactlens.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.impactlens.entities.JiraTicket;
+import com.impactlens.events.JiraTicketChangedEvent;
+import com.impactlens.repositories.JiraTicketRepository;
+import com.impactlens.repositories.TicketCandidate;
+
+class InvertedIndexTest {
+    
+    private final TicketOrdinals ticketOrdinals = new TicketOrdinals();
+    private InvertedIndex index;
+    
+    @BeforeEach
+    void buildIndex() {
+        JiraTicketRepository jiraTicketRepository = mock(JiraTicketRepository.class);
+        List<TicketCandidate> tickets = List.of(
+            candidate("PROJ-1", "Login page is slow", "Users wait for the login form"),
+            candidate("PROJ-2", "Checkout fails", "Payment provider times out"),
+            candidate("PROJ-3", "Slow search", "Search results take seconds"));
+        when(jiraTicketRepository.findCandidatesAfter(eq(""), any())).thenReturn(tickets);
+        doCallRealMethod().when(jiraTicketRepository).forEachCandidatePage(anyInt(), any());
+        
+        index = new InvertedIndex();
+        ReflectionTestUtils.setField(index, "jiraTicketRepository", jiraTicketRepository);
+        ReflectionTestUtils.setField(index, "ticketOrdinals", ticketOrdinals);
+        ReflectionTestUtils.setField(index, "k1", 1.2);
+        ReflectionTestUtils.setField(index, "b", 0.75);
+        ReflectionTestUtils.setField(index, "summaryBoost", 2);
+        ReflectionTestUtils.setField(index, "pageSize", 1000);
+        index.rebuild();
+    }
+    
+    @Test
+    void ranksTicketsMatchingMoreTermsFirst() {
+        List<InvertedIndex.Hit> hits = index.search(List.of("slow login"), 10, -1);
+        
+        assertThat(hits).extracting(hit -> ticketOrdinals.keyOf(hit.getOrdinal()))
+            .containsExactly("PROJ-1", "PROJ-3");
+        assertThat(hits.get(0).getScore()).isGreaterThan(hits.get(1).getScore());
+    }
+    
+    @Test
+    void excludesTheGivenTicketAndFilteredOrdinals() {
+        int proj1 = ticketOrdinals.find("PROJ-1");
+        int proj3 = ticketOrdinals.find("PROJ-3");
+        
+        assertThat(index.search(List.of("slow"), 10, proj1))
+            .extracting(InvertedIndex.Hit::getOrdinal).containsExactly(proj3);
+        assertThat(index.search(List.of("slow"), 10, -1, ordinal -> ordinal != proj3))
+            .extracting(InvertedIndex.Hit::getOrdinal).containsExactly(proj1);
+    }
+    
+    @Test
+    void updatedTicketIsSearchedByItsNewTextOnly() {
+        JiraTicket updated = new JiraTicket("PROJ-2", null);
+        updated.setSummary("Slow checkout");
+        index.onTicketChanged(JiraTicketChangedEvent.saved(updated));
+        
+        assertThat(index.search(List.of("payment"), 10, -1)).isEmpty();
+        assertThat(index.search(List.of("slow"), 10, -1))
+            .extracting(hit -> ticketOrdinals.keyOf(hit.getOrdinal()))
+            .containsExactlyInAnyOrder("PROJ-1", "PROJ-2", "PROJ-3");
+    }
+    
+    @Test
+    void inverseDocumentFrequencyCountsOnlyLiveTickets() {
+        double before = index.inverseDocumentFrequencies(List.of("slow")).get("slow");
+        
+        JiraTicket deleted = new JiraTicket("PROJ-3", null);
+        index.onTicketChanged(JiraTicketChangedEvent.deleted(deleted));
+        double after = index.inverseDocumentFrequencies(List.of("slow")).get("slow");
+        
+        // Two of three tickets contained the term, now one of the two live ones
+        assertThat(after).isEqualTo(Math.log(1 + (2 - 1 + 0.5) / (1 + 0.5)));
+        assertThat(before).isEqualTo(Math.log(1 + (3 - 2 + 0.5) / (2 + 0.5)));
+    }
+    
+    @Test
+    void inverseDocumentFrequencyFollowsLaterChanges() {
+        index.onTicketChanged(JiraTicketChangedEvent.deleted(new JiraTicket("PROJ-3", null)));
+        index.inverseDocumentFrequencies(List.of("slow", "login", "checkout"));
+        
+        JiraTicket proj1 = new JiraTicket("PROJ-1", null);
+        proj1.setSummary("Login page hangs");
+        index.onTicketChanged(JiraTicketChangedEvent.saved(proj1));
+        JiraTicket proj2 = new JiraTicket("PROJ-2", null);
+        proj2.setSummary("Slow checkout");
+        index.onTicketChanged(JiraTicketChangedEvent.saved(proj2));
+        JiraTicket proj4 = new JiraTicket("PROJ-4", null);
+        proj4.setSummary("Slow login");
+        index.onTicketChanged(JiraTicketChangedEvent.saved(proj4));
+        
+        // Three live tickets: slow in PROJ-2 and PROJ-4, login in PROJ-1 and
+        // PROJ-4, checkout in PROJ-2 only
+        assertThat(index.inverseDocumentFrequencies(List.of("slow", "login", "checkout")))
+            .containsEntry("slow", Math.log(1 + (3 - 2 + 0.5) / (2 + 0.5)))
+            .containsEntry("login", Math.log(1 + (3 - 2 + 0.5) / (2 + 0.5)))
+            .containsEntry("checkout", Math.log(1 + (3 - 1 + 0.5) / (1 + 0.5)));
+    }
+    
+    private static TicketCandidate candidate(String ticketKey, String summary, String description) {
+        TicketCandidate candidate = mock(TicketCandidate.class);
+        when(candidate.getTicketKey()).thenReturn(ticketKey);
+        when(candidate.getSummary()).thenReturn(summary);
+        when(candidate.getDescription()).thenReturn(description);
+        return candidate;
+    }
+}
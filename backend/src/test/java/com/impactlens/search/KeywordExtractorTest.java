@@ -0,0 +1,93 @@
+package com.impactlens.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.impactlens.entities.JiraTicket;
+
+class KeywordExtractorTest {
+    
+    private final Map<String, Double> idfs = new HashMap<>();
+    private InvertedIndex invertedIndex;
+    private KeywordExtractor keywordExtractor;
+    
+    @BeforeEach
+    void setUp() {
+        invertedIndex = mock(InvertedIndex.class);
+        when(invertedIndex.isReady()).thenReturn(true);
+        when(invertedIndex.inverseDocumentFrequencies(any())).thenAnswer(invocation -> {
+            // Terms the index has never seen have no statistics
+            Map<String, Double> known = new HashMap<>();
+            for (String term : invocation.<Collection<String>>getArgument(0)) {
+                if (idfs.containsKey(term)) {
+                    known.put(term, idfs.get(term));
+                }
+            }
+            return known;
+        });
+        
+        keywordExtractor = new KeywordExtractor();
+        ReflectionTestUtils.setField(keywordExtractor, "invertedIndex", invertedIndex);
+        ReflectionTestUtils.setField(keywordExtractor, "summaryBoost", 2);
+        ReflectionTestUtils.setField(keywordExtractor, "maxKeywords", 3);
+    }
+    
+    @Test
+    void ranksByLogFrequencyTimesInverseDocumentFrequency() {
+        idfs.putAll(Map.of("payment", 1.0, "gateway", 3.0, "retry", 1.0, "common", 0.1));
+        
+        List<String> keywords = keywordExtractor.extract(ticket(null,
+            "Payment gateway retry. Payment payment common common common common"));
+        
+        // gateway 1 * 3.0, payment (1 + ln 3) * 1.0, retry 1 * 1.0, common (1 + ln 4) * 0.1
+        assertThat(keywords).containsExactly("gateway", "payment", "retry");
+    }
+    
+    @Test
+    void boostsSummaryTermsAndKeepsTheFirstWordForm() {
+        idfs.putAll(Map.of("login", 1.0, "timeout", 1.0));
+        
+        List<String> keywords = keywordExtractor.extract(ticket("Logins", "Timeout after logins, timeout"));
+        
+        // login counts twice from the summary and once more from the description
+        assertThat(keywords).containsExactly("logins", "timeout");
+    }
+    
+    @Test
+    void leavesOutNumbersAndTermsUnknownToTheIndex() {
+        idfs.putAll(Map.of("error", 1.0, "v2", 2.0, "500", 5.0));
+        
+        List<String> keywords = keywordExtractor.extract(ticket("Error 500 in v2", "Seen 404 with xyzzy"));
+        
+        assertThat(keywords).containsExactly("v2", "error");
+    }
+    
+    @Test
+    void returnsNothingUntilTheIndexIsReady() {
+        when(invertedIndex.isReady()).thenReturn(false);
+        idfs.put("login", 1.0);
+        
+        assertThat(keywordExtractor.extract(ticket("Login fails", null))).isEmpty();
+        verify(invertedIndex, never()).inverseDocumentFrequencies(any());
+    }
+    
+    private static JiraTicket ticket(String summary, String description) {
+        JiraTicket ticket = new JiraTicket("PROJ-1", null);
+        ticket.setSummary(summary);
+        ticket.setDescription(description);
+        return ticket;
+    }
+}
@@ -0,0 +1,72 @@
+package com.impactlens.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.impactlens.entities.JiraTicket;
+
+class LexicalSimilarityTest {
+    
+    private static final Map<String, Double> IDFS = Map.of("payment", 1.0, "gateway", 1.0, "export", 2.0);
+    
+    private LexicalSimilarity lexicalSimilarity;
+    
+    @BeforeEach
+    void setUp() {
+        InvertedIndex invertedIndex = mock(InvertedIndex.class);
+        when(invertedIndex.inverseDocumentFrequencies(any())).thenAnswer(invocation -> {
+            Map<String, Double> known = new HashMap<>();
+            for (String term : invocation.<Collection<String>>getArgument(0)) {
+                if (IDFS.containsKey(term)) {
+                    known.put(term, IDFS.get(term));
+                }
+            }
+            return known;
+        });
+        
+        lexicalSimilarity = new LexicalSimilarity();
+        ReflectionTestUtils.setField(lexicalSimilarity, "invertedIndex", invertedIndex);
+        ReflectionTestUtils.setField(lexicalSimilarity, "summaryBoost", 2);
+    }
+    
+    @Test
+    void scoresCosineSimilarityInCandidateOrder() {
+        JiraTicket source = ticket("PROJ-0", "Payment gateway", null);
+        
+        double[] similarities = lexicalSimilarity.similarities(source, List.of(
+            ticket("PROJ-1", "Export", null),
+            ticket("PROJ-2", "Payment", null),
+            ticket("PROJ-3", "Gateway payment", "unindexed words only")));
+        
+        assertThat(similarities[0]).isZero();
+        assertThat(similarities[1]).isCloseTo(1 / Math.sqrt(2), within(1e-9));
+        assertThat(similarities[2]).isCloseTo(1.0, within(1e-9));
+    }
+    
+    @Test
+    void givesNoSimilarityWithoutIndexedTerms() {
+        double[] similarities = lexicalSimilarity.similarities(ticket("PROJ-0", "Something else", null),
+            List.of(ticket("PROJ-1", "Payment gateway", null)));
+        
+        assertThat(similarities).containsExactly(0.0);
+    }
+    
+    private static JiraTicket ticket(String ticketKey, String summary, String description) {
+        JiraTicket ticket = new JiraTicket(ticketKey, null);
+        ticket.setSummary(summary);
+        ticket.setDescription(description);
+        return ticket;
+    }
+}
@@ -0,0 +1,77 @@
+package com.impactlens.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.impactlens.entities.JiraTicket;
+import com.impactlens.repositories.CandidateMatch;
+import com.impactlens.repositories.JiraTicketRepository;
+import com.impactlens.repositories.TicketCandidate;
+
+class LikeCandidateSearchTest {
+    
+    @Test
+    void searchesAllKeywordsInOneQueryExcludingTheSource() {
+        JiraTicketRepository jiraTicketRepository = mock(JiraTicketRepository.class);
+        TicketCandidate candidate = mock(TicketCandidate.class);
+        when(candidate.getTicketKey()).thenReturn("PROJ-2");
+        when(candidate.getSummary()).thenReturn("Login is slow");
+        when(candidate.toTicket()).thenCallRealMethod();
+        when(jiraTicketRepository.searchTicketsByKeywords(List.of("login", "slow"), "PROJ-1", 20))
+            .thenReturn(List.of(candidate));
+        LikeCandidateSearch search = new LikeCandidateSearch();
+        ReflectionTestUtils.setField(search, "jiraTicketRepository", jiraTicketRepository);
+        
+        List<JiraTicket> candidates = search.findCandidates(new JiraTicket("PROJ-1", null), List.of("login", "slow"), 20);
+        
+        assertThat(candidates).extracting(JiraTicket::getTicketKey).containsExactly("PROJ-2");
+        assertThat(candidates.get(0).getSummary()).isEqualTo("Login is slow");
+    }
+    
+    @Test
+    void batchSearchLoadsEachDistinctCandidateOnce() {
+        JiraTicketRepository jiraTicketRepository = mock(JiraTicketRepository.class);
+        JiraTicket first = new JiraTicket("PROJ-1", null);
+        JiraTicket second = new JiraTicket("PROJ-2", null);
+        Map<JiraTicket, List<String>> keywordsByTicket = new LinkedHashMap<>();
+        keywordsByTicket.put(first, List.of("login"));
+        keywordsByTicket.put(second, List.of("export"));
+        List<CandidateMatch> matches = List.of(match("PROJ-1", "PROJ-3"), match("PROJ-1", "PROJ-2"),
+            match("PROJ-2", "PROJ-3"));
+        List<TicketCandidate> rows = List.of(candidate("PROJ-2"), candidate("PROJ-3"));
+        when(jiraTicketRepository.searchTicketKeysByKeywords(Map.of("PROJ-1", List.of("login"), "PROJ-2", List.of("export")), 20))
+            .thenReturn(matches);
+        when(jiraTicketRepository.findCandidatesByTicketKeyIn(Set.of("PROJ-3", "PROJ-2"))).thenReturn(rows);
+        LikeCandidateSearch search = new LikeCandidateSearch();
+        ReflectionTestUtils.setField(search, "jiraTicketRepository", jiraTicketRepository);
+        
+        Map<String, List<JiraTicket>> candidates = search.findCandidates(keywordsByTicket, 20);
+        
+        assertThat(candidates.get("PROJ-1")).extracting(JiraTicket::getTicketKey).containsExactly("PROJ-3", "PROJ-2");
+        assertThat(candidates.get("PROJ-2")).extracting(JiraTicket::getTicketKey).containsExactly("PROJ-3");
+        assertThat(candidates.get("PROJ-2").get(0)).isSameAs(candidates.get("PROJ-1").get(0));
+    }
+    
+    private static CandidateMatch match(String sourceKey, String ticketKey) {
+        CandidateMatch match = mock(CandidateMatch.class);
+        when(match.getSourceKey()).thenReturn(sourceKey);
+        when(match.getTicketKey()).thenReturn(ticketKey);
+        return match;
+    }
+    
+    private static TicketCandidate candidate(String ticketKey) {
+        TicketCandidate candidate = mock(TicketCandidate.class);
+        when(candidate.getTicketKey()).thenReturn(ticketKey);
+        when(candidate.toTicket()).thenCallRealMethod();
+        return candidate;
+    }
+}
@@ -0,0 +1,126 @@
+package com.impactlens.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.impactlens.entities.JiraTicket;
+import com.impactlens.events.JiraTicketChangedEvent;
+import com.impactlens.repositories.JiraTicketRepository;
+import com.impactlens.repositories.TicketCandidate;
+
+class LuceneTicketIndexTest {
+    
+    @TempDir
+    Path indexDirectory;
+    
+    private JiraTicketRepository jiraTicketRepository;
+    private LuceneTicketIndex index;
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        jiraTicketRepository = mock(JiraTicketRepository.class);
+        doCallRealMethod().when(jiraTicketRepository).forEachCandidatePage(anyInt(), any());
+        
+        index = new LuceneTicketIndex();
+        ReflectionTestUtils.setField(index, "jiraTicketRepository", jiraTicketRepository);
+        ReflectionTestUtils.setField(index, "indexPath", indexDirectory.toString());
+        ReflectionTestUtils.setField(index, "synonymsResource", "lucene/synonyms.txt");
+        ReflectionTestUtils.setField(index, "summaryBoost", 2f);
+        ReflectionTestUtils.setField(index, "ramBufferMb", 16.0);
+        ReflectionTestUtils.setField(index, "pageSize", 1000);
+        index.open();
+    }
+    
+    @AfterEach
+    void tearDown() throws IOException {
+        index.close();
+    }
+    
+    @Test
+    void matchesStemmedForms() {
+        build(candidate("PROJ-1", "Checkout crashes on submit", null),
+            candidate("PROJ-2", "Update the footer", null));
+        
+        assertThat(index.search(List.of("crash"), 10, null)).containsExactly("PROJ-1");
+        assertThat(index.search(List.of("the"), 10, null)).isEmpty();
+    }
+    
+    @Test
+    void expandsSynonymsAtQueryTime() {
+        build(candidate("PROJ-1", "Login button does nothing", null),
+            candidate("PROJ-2", "Report export", "Database timeout while exporting"));
+        
+        assertThat(index.search(List.of("authentication"), 10, null)).containsExactly("PROJ-1");
+        assertThat(index.search(List.of("postgres"), 10, null)).containsExactly("PROJ-2");
+    }
+    
+    @Test
+    void ranksSummaryMatchesFirstAndLeavesOutTheExcludedKey() {
+        build(candidate("PROJ-1", "Session handling", "Payment page loses the session"),
+            candidate("PROJ-2", "Payment fails", null),
+            candidate("PROJ-3", "Payment retries", null));
+        
+        assertThat(index.search(List.of("payment"), 10, null).get(2)).isEqualTo("PROJ-1");
+        assertThat(index.search(List.of("payment"), 10, "PROJ-2")).containsExactly("PROJ-3", "PROJ-1");
+    }
+    
+    @Test
+    void changesBecomeSearchableOnRefresh() throws IOException {
+        build(candidate("PROJ-1", "Slow dashboard", null));
+        
+        JiraTicket saved = new JiraTicket("PROJ-2", null);
+        saved.setSummary("Slow report export");
+        index.onTicketChanged(JiraTicketChangedEvent.saved(saved));
+        index.onTicketChanged(JiraTicketChangedEvent.deleted(new JiraTicket("PROJ-1", null)));
+        assertThat(index.search(List.of("slow"), 10, null)).containsExactly("PROJ-1");
+        
+        index.refresh();
+        assertThat(index.search(List.of("slow"), 10, null)).containsExactly("PROJ-2");
+    }
+    
+    @Test
+    void keepsChangesThatArriveWhileBuilding() {
+        JiraTicket renamed = new JiraTicket("PROJ-1", null);
+        renamed.setSummary("Notification emails are late");
+        List<TicketCandidate> page = List.of(candidate("PROJ-1", "Slow dashboard", null));
+        when(jiraTicketRepository.findCandidatesAfter(eq(""), any())).thenAnswer(invocation -> {
+            // The page was read before the change was committed
+            index.onTicketChanged(JiraTicketChangedEvent.saved(renamed));
+            return page;
+        });
+        
+        index.buildOnStartup();
+        
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.search(List.of("dashboard"), 10, null)).isEmpty();
+        assertThat(index.search(List.of("alert"), 10, null)).containsExactly("PROJ-1");
+    }
+    
+    private void build(TicketCandidate... candidates) {
+        when(jiraTicketRepository.findCandidatesAfter(eq(""), any())).thenReturn(List.of(candidates));
+        index.buildOnStartup();
+    }
+    
+    private static TicketCandidate candidate(String ticketKey, String summary, String description) {
+        TicketCandidate candidate = mock(TicketCandidate.class);
+        when(candidate.getTicketKey()).thenReturn(ticketKey);
+        when(candidate.getSummary()).thenReturn(summary);
+        when(candidate.getDescription()).thenReturn(description);
+        return candidate;
+    }
+}
@@ -0,0 +1,125 @@
+package com.impactlens.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.impactlens.entities.JiraTicket;
+
+class NearDuplicateDetectorTest {
+    
+    private NearDuplicateDetector detector;
+    
+    @BeforeEach
+    void setUp() {
+        detector = detector(128, 16);
+        detector.init();
+    }
+    
+    @Test
+    void collapsesNearIdenticalCandidatesIntoTheFirst() {
+        JiraTicket first = ticket("PROJ-1", words("checkout", 60));
+        JiraTicket copy = ticket("PROJ-2", words("checkout", 60) + " again");
+        JiraTicket other = ticket("PROJ-3", words("report", 60));
+        
+        DuplicateClusters clusters = detector.collapse(ticket("PROJ-9", words("login", 60)), List.of(first, copy, other));
+        
+        assertThat(clusters.getRepresentatives()).containsExactly(first, other);
+        assertThat(clusters.getDuplicates("PROJ-1")).containsExactly("PROJ-2");
+        assertThat(clusters.getDuplicates("PROJ-3")).isEmpty();
+        assertThat(clusters.getCollapsedCount()).isEqualTo(1);
+    }
+    
+    @Test
+    void keepsDistinctTextsSeparate() {
+        List<JiraTicket> candidates = List.of(
+            ticket("PROJ-1", words("checkout", 60)),
+            ticket("PROJ-2", words("report", 60)),
+            // Shares half of its words with PROJ-1
+            ticket("PROJ-3", words("checkout", 30) + " " + words("export", 30)));
+        
+        DuplicateClusters clusters = detector.collapse(ticket("PROJ-9", words("login", 60)), candidates);
+        
+        assertThat(clusters.getRepresentatives()).containsExactlyElementsOf(candidates);
+        assertThat(clusters.getCollapsedCount()).isZero();
+    }
+    
+    @Test
+    void keepsNearDuplicatesOfTheSourceAsTheirOwnClusters() {
+        JiraTicket sourceCopy = ticket("PROJ-1", words("login", 60) + " again");
+        JiraTicket secondCopy = ticket("PROJ-2", words("login", 60) + " still");
+        
+        DuplicateClusters clusters = detector.collapse(ticket("PROJ-9", words("login", 60)), List.of(sourceCopy, secondCopy));
+        
+        assertThat(clusters.getRepresentatives()).containsExactly(sourceCopy, secondCopy);
+        assertThat(clusters.isDuplicateOfSource("PROJ-1")).isTrue();
+        assertThat(clusters.isDuplicateOfSource("PROJ-2")).isTrue();
+        assertThat(clusters.getDuplicates("PROJ-1")).isEmpty();
+    }
+    
+    @Test
+    void requiresHashesToSplitEvenlyIntoBands() {
+        assertThatThrownBy(() -> detector(100, 16).init())
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("multiple of bands");
+        assertThatThrownBy(() -> detector(128, 0).init())
+            .isInstanceOf(IllegalStateException.class);
+    }
+    
+    @Test
+    void scoresSourceDuplicatesBySimilarityAndTheRestByTheScorer() {
+        JiraTicket duplicate = ticket("PROJ-1", null);
+        JiraTicket first = ticket("PROJ-2", null);
+        JiraTicket second = ticket("PROJ-3", null);
+        DuplicateClusters clusters = new DuplicateClusters(List.of(duplicate, first, second), Map.of(),
+            Map.of("PROJ-1", 0.95), 3);
+        List<List<JiraTicket>> scored = new ArrayList<>();
+        Function<List<JiraTicket>, List<Double>> scorer = round -> {
+            scored.add(round);
+            return round.stream().map(ticket -> ticket == first ? 0.4 : 0.6).collect(Collectors.toList());
+        };
+        
+        assertThat(clusters.scoring(scorer).apply(List.of(first, duplicate, second))).containsExactly(0.4, 0.95, 0.6);
+        assertThat(scored).containsExactly(List.of(first, second));
+        
+        assertThat(clusters.scoring(scorer).apply(List.of(duplicate))).containsExactly(0.95);
+        assertThat(scored).hasSize(1);
+    }
+    
+    private static NearDuplicateDetector detector(int numHashes, int bands) {
+        NearDuplicateDetector detector = new NearDuplicateDetector();
+        ReflectionTestUtils.setField(detector, "numHashes", numHashes);
+        ReflectionTestUtils.setField(detector, "bands", bands);
+        ReflectionTestUtils.setField(detector, "shingleSize", 3);
+        ReflectionTestUtils.setField(detector, "similarityThreshold", 0.8);
+        ReflectionTestUtils.setField(detector, "cacheSize", 1000);
+        return detector;
+    }
+    
+    /**
+     * Distinct words sharing a prefix, so that texts with different prefixes
+     * have no shingle in common
+     */
+    private static String words(String prefix, int count) {
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            words.add(prefix + i);
+        }
+        return String.join(" ", words);
+    }
+    
+    private static JiraTicket ticket(String ticketKey, String description) {
+        JiraTicket ticket = new JiraTicket(ticketKey, null);
+        ticket.setDescription(description);
+        return ticket;
+    }
+}
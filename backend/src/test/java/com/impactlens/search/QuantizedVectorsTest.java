@@ -0,0 +1,80 @@
+package com.impactlens.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class QuantizedVectorsTest {
+    
+    private static final int DIMENSIONS = 16;
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void roundTripsWithinQuantizationError() throws IOException {
+        float[] vector = randomUnitVector(new Random(1));
+        try (QuantizedVectors vectors = new QuantizedVectors(directory.resolve("vectors.i8"), DIMENSIONS)) {
+            vectors.set(0, vector);
+            
+            float[] stored = vectors.get(0);
+            for (int i = 0; i < DIMENSIONS; i++) {
+                assertThat(stored[i]).isCloseTo(vector[i], within(0.5f / 127 + 1e-6f));
+            }
+            assertThat(vectors.similarity(vector, 0)).isCloseTo(1f, within(0.01f));
+            assertThat(vectors.similarity(0, 0)).isCloseTo(1f, within(0.01f));
+        }
+    }
+    
+    @Test
+    void keepsVectorsAcrossSegmentsAndReopening() throws IOException {
+        Random random = new Random(2);
+        float[] first = randomUnitVector(random);
+        float[] second = randomUnitVector(random);
+        // Lands in the second mapped segment
+        int farNode = (1 << 16) + 3;
+        
+        Path file = directory.resolve("vectors.i8");
+        float[] storedFirst;
+        float[] storedSecond;
+        try (QuantizedVectors vectors = new QuantizedVectors(file, DIMENSIONS)) {
+            vectors.set(0, first);
+            vectors.set(farNode, second);
+            storedFirst = vectors.get(0);
+            storedSecond = vectors.get(farNode);
+        }
+        
+        try (QuantizedVectors reopened = new QuantizedVectors(file, DIMENSIONS)) {
+            assertThat(reopened.get(0)).containsExactly(storedFirst);
+            assertThat(reopened.get(farNode)).containsExactly(storedSecond);
+        }
+    }
+    
+    @Test
+    void rejectsVectorsOfOtherDimensions() throws IOException {
+        try (QuantizedVectors vectors = new QuantizedVectors(directory.resolve("vectors.i8"), DIMENSIONS)) {
+            assertThatThrownBy(() -> vectors.set(0, new float[DIMENSIONS + 1]))
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+    
+    private static float[] randomUnitVector(Random random) {
+        float[] vector = new float[DIMENSIONS];
+        double norm = 0;
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] = (float) random.nextGaussian();
+            norm += vector[i] * vector[i];
+        }
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector[i] /= (float) Math.sqrt(norm);
+        }
+        return vector;
+    }
+}
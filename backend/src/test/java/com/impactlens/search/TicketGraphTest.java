@@ -0,0 +1,132 @@
+package com.impactlens.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class TicketGraphTest {
+    
+    private final TicketOrdinals ticketOrdinals = new TicketOrdinals();
+    private TicketGraph ticketGraph;
+    
+    /**
+     * PROJ-A -0.9- PROJ-B -0.8- PROJ-C -0.9- PROJ-D, PROJ-A -0.5- PROJ-E, and
+     * an issue link from PROJ-F to PROJ-E
+     */
+    @BeforeEach
+    void buildGraph() throws SQLException {
+        List<ResultSet> relevanceRows = List.of(
+            row("PROJ-A", "PROJ-B", 0.9f),
+            row("PROJ-B", "PROJ-C", 0.8f),
+            row("PROJ-C", "PROJ-D", 0.9f),
+            row("PROJ-A", "PROJ-E", 0.5f));
+        List<ResultSet> linkRows = List.of(row("PROJ-F", "PROJ-E", 0f), row("PROJ-F", null, 0f));
+        
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        doAnswer(invocation -> replay(invocation.getArgument(1), relevanceRows))
+            .when(jdbcTemplate).query(argThat((String sql) -> sql.contains("related_tickets")), any(RowCallbackHandler.class));
+        doAnswer(invocation -> replay(invocation.getArgument(1), linkRows))
+            .when(jdbcTemplate).query(argThat((String sql) -> sql.contains("issuelinks")), any(RowCallbackHandler.class));
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        
+        ticketGraph = new TicketGraph();
+        ReflectionTestUtils.setField(ticketGraph, "ticketOrdinals", ticketOrdinals);
+        ReflectionTestUtils.setField(ticketGraph, "linkWeight", 0.9f);
+        ReflectionTestUtils.setField(ticketGraph, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(ticketGraph, "readOnlyTransaction", new TransactionTemplate(transactionManager));
+        ticketGraph.rebuild();
+    }
+    
+    @Test
+    void linksEveryEdgeInBothDirections() {
+        assertThat(ticketGraph.isReady()).isTrue();
+        assertThat(keys(traverse("PROJ-B", Map.of(), 1, 1f, 0f, 10))).containsExactly("PROJ-A", "PROJ-C");
+        assertThat(keys(traverse("PROJ-F", Map.of(), 1, 1f, 0f, 10))).containsExactly("PROJ-E");
+        assertThat(traverse("PROJ-F", Map.of(), 1, 1f, 0f, 10).get(0).getScore()).isEqualTo(0.9f);
+        
+        // A ticket with no edges, or one created after the build
+        assertThat(traverse("PROJ-Z", Map.of(), 3, 1f, 0f, 10)).isEmpty();
+    }
+    
+    @Test
+    void stopsAtTheMaximumDepth() {
+        List<TicketGraph.Reached> reached = traverse("PROJ-A", Map.of(), 2, 1f, 0f, 10);
+        
+        assertThat(keys(reached)).containsExactly("PROJ-B", "PROJ-C", "PROJ-E", "PROJ-F");
+        TicketGraph.Reached twoHops = reached.get(1);
+        assertThat(twoHops.getHops()).isEqualTo(2);
+        assertThat(ticketOrdinals.keyOf(twoHops.getVia())).isEqualTo("PROJ-B");
+        assertThat(twoHops.getScore()).isCloseTo(0.9f * 0.8f, within(1e-6f));
+    }
+    
+    @Test
+    void decaysEveryHopAfterTheFirstAndDropsPathsBelowTheMinimum() {
+        List<TicketGraph.Reached> reached = traverse("PROJ-A", Map.of(), 3, 0.5f, 0.3f, 10);
+        
+        // PROJ-F would score 0.5 * 0.9 * 0.5 and PROJ-D 0.9 * 0.8 * 0.9 * 0.25
+        assertThat(keys(reached)).containsExactly("PROJ-B", "PROJ-E", "PROJ-C");
+        assertThat(reached.get(0).getScore()).isCloseTo(0.9f, within(1e-6f));
+        assertThat(reached.get(2).getScore()).isCloseTo(0.9f * 0.8f * 0.5f, within(1e-6f));
+    }
+    
+    @Test
+    void seedScoresReplaceTheSourceEdgesAndSeedsAreNotReturned() {
+        List<TicketGraph.Reached> reached = traverse("PROJ-A", Map.of(ordinal("PROJ-B"), 0.2f), 2, 1f, 0f, 10);
+        
+        assertThat(keys(reached)).containsExactly("PROJ-E", "PROJ-F", "PROJ-C");
+        assertThat(reached.get(2).getScore()).isCloseTo(0.2f * 0.8f, within(1e-6f));
+    }
+    
+    @Test
+    void returnsAtMostTheLimitBestFirst() {
+        assertThat(keys(traverse("PROJ-A", Map.of(), 4, 1f, 0f, 2))).containsExactly("PROJ-B", "PROJ-C");
+    }
+    
+    private List<TicketGraph.Reached> traverse(String source, Map<Integer, Float> seeds, int maxDepth, float decay,
+                                               float minScore, int limit) {
+        return ticketGraph.traverse(ordinal(source), seeds, maxDepth, decay, minScore, limit);
+    }
+    
+    private int ordinal(String ticketKey) {
+        return ticketOrdinals.ordinalOf(ticketKey);
+    }
+    
+    private List<String> keys(List<TicketGraph.Reached> reached) {
+        return reached.stream().map(ticket -> ticketOrdinals.keyOf(ticket.getOrdinal())).collect(Collectors.toList());
+    }
+    
+    private static Object replay(RowCallbackHandler handler, List<ResultSet> rows) throws SQLException {
+        for (ResultSet row : rows) {
+            handler.processRow(row);
+        }
+        return null;
+    }
+    
+    private static ResultSet row(String first, String second, float score) throws SQLException {
+        ResultSet row = mock(ResultSet.class);
+        when(row.getString(1)).thenReturn(first);
+        when(row.getString(2)).thenReturn(second);
+        when(row.getFloat(3)).thenReturn(score);
+        return row;
+    }
+}
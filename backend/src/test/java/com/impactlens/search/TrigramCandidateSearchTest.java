@@ -0,0 +1,41 @@
+package com.impactlens.search;
+
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.impactlens.entities.JiraTicket;
+import com.impactlens.repositories.JiraTicketRepository;
+
+class TrigramCandidateSearchTest {
+    
+    private final Locale defaultLocale = Locale.getDefault();
+    
+    @AfterEach
+    void restoreLocale() {
+        Locale.setDefault(defaultLocale);
+    }
+    
+    @Test
+    void setsTheThresholdBeforeSearching() {
+        // A decimal comma would not parse as a PostgreSQL setting
+        Locale.setDefault(Locale.GERMANY);
+        JiraTicketRepository jiraTicketRepository = mock(JiraTicketRepository.class);
+        TrigramCandidateSearch search = new TrigramCandidateSearch();
+        ReflectionTestUtils.setField(search, "jiraTicketRepository", jiraTicketRepository);
+        ReflectionTestUtils.setField(search, "similarityThreshold", 0.4);
+        
+        search.findCandidates(new JiraTicket("PROJ-1", null), List.of("login"), 20);
+        
+        InOrder order = inOrder(jiraTicketRepository);
+        order.verify(jiraTicketRepository).setWordSimilarityThreshold("0.40");
+        order.verify(jiraTicketRepository).trigramSearch(List.of("login"), "PROJ-1", 20);
+    }
+}
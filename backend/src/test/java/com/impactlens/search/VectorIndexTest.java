@@ -0,0 +1,175 @@
+package com.impactlens.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.impactlens.entities.JiraTicket;
+import com.impactlens.events.JiraTicketChangedEvent;
+import com.impactlens.repositories.JiraTicketRepository;
+import com.impactlens.repositories.TicketCandidate;
+import com.impactlens.services.EmbeddingService;
+
+class VectorIndexTest {
+    
+    private static final float DIAGONAL = (float) Math.sqrt(0.5);
+    private static final Map<String, float[]> VECTORS = Map.of(
+        "North", new float[] {1, 0, 0, 0},
+        "East", new float[] {0, 1, 0, 0},
+        "North east", new float[] {DIAGONAL, DIAGONAL, 0, 0},
+        "Up", new float[] {0, 0, 1, 0});
+    
+    @TempDir
+    Path indexDirectory;
+    
+    private final TicketOrdinals ticketOrdinals = new TicketOrdinals();
+    private final List<VectorIndex> opened = new ArrayList<>();
+    private JiraTicketRepository jiraTicketRepository;
+    private EmbeddingService embeddingService;
+    private VectorIndex index;
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        jiraTicketRepository = mock(JiraTicketRepository.class);
+        doCallRealMethod().when(jiraTicketRepository).forEachCandidatePage(anyInt(), any());
+        List<TicketCandidate> tickets = List.of(
+            candidate("PROJ-1", "North"),
+            candidate("PROJ-2", "East"),
+            candidate("PROJ-3", "North east"));
+        when(jiraTicketRepository.findCandidatesAfter(eq(""), any())).thenReturn(tickets);
+        
+        embeddingService = mock(EmbeddingService.class);
+        when(embeddingService.getDimensions()).thenReturn(4);
+        when(embeddingService.embedAll(anyList())).thenAnswer(invocation -> {
+            List<String> texts = invocation.getArgument(0);
+            return texts.stream().map(text -> VECTORS.get(text.trim())).collect(Collectors.toList());
+        });
+        
+        index = open();
+        index.buildOnStartup();
+    }
+    
+    @AfterEach
+    void tearDown() throws IOException {
+        for (VectorIndex vectorIndex : opened) {
+            vectorIndex.close();
+        }
+    }
+    
+    @Test
+    void ranksByCosineSimilarityAndLeavesOutTheExcludedKey() {
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.search(VECTORS.get("North"), 2, null)).containsExactly("PROJ-1", "PROJ-3");
+        assertThat(index.search(VECTORS.get("North"), 2, "PROJ-1")).containsExactly("PROJ-3", "PROJ-2");
+    }
+    
+    @Test
+    void filtersByOrdinalWithoutAssigningNewOnes() {
+        int proj2 = ticketOrdinals.ordinalOf("PROJ-2");
+        int proj3 = ticketOrdinals.ordinalOf("PROJ-3");
+        RoaringBitmap allowed = RoaringBitmap.bitmapOf(proj2, proj3);
+        
+        // PROJ-1 has no ordinal, so no filter can allow it
+        assertThat(index.search(VECTORS.get("North"), 3, null, ordinal -> true)).containsExactly("PROJ-3", "PROJ-2");
+        assertThat(ticketOrdinals.size()).isEqualTo(2);
+        
+        // Graph search for large filters, exact comparison for small ones
+        ReflectionTestUtils.setField(index, "exactSearchThreshold", 0);
+        assertThat(index.search(VECTORS.get("North"), 3, null, allowed)).containsExactly("PROJ-3", "PROJ-2");
+        ReflectionTestUtils.setField(index, "exactSearchThreshold", 2000);
+        assertThat(index.search(VECTORS.get("North"), 3, null, allowed)).containsExactly("PROJ-3", "PROJ-2");
+        assertThat(index.search(VECTORS.get("North"), 3, "PROJ-3", allowed)).containsExactly("PROJ-2");
+    }
+    
+    @Test
+    void reopensFromTheCheckpointWithoutEmbeddingUnchangedTickets() throws IOException {
+        index.close();
+        opened.remove(index);
+        clearInvocations(embeddingService);
+        
+        VectorIndex reopened = open();
+        assertThat(reopened.isReady()).isTrue();
+        assertThat(reopened.search(VECTORS.get("East"), 1, null)).containsExactly("PROJ-2");
+        
+        reopened.buildOnStartup();
+        verify(embeddingService, never()).embedAll(argThat(texts -> !texts.isEmpty()));
+        assertThat(reopened.search(VECTORS.get("North"), 3, null)).containsExactly("PROJ-1", "PROJ-3", "PROJ-2");
+    }
+    
+    @Test
+    void compactsTombstonesIntoANewVectorsFile() throws IOException {
+        JiraTicket moved = new JiraTicket("PROJ-2", null);
+        moved.setSummary("Up");
+        index.onTicketChanged(JiraTicketChangedEvent.saved(moved));
+        index.onTicketChanged(JiraTicketChangedEvent.deleted(new JiraTicket("PROJ-1", null)));
+        index.applyPendingChanges();
+        List<Path> before = vectorsFiles();
+        
+        ReflectionTestUtils.setField(index, "maxDeletedRatio", 0.1);
+        index.checkpoint();
+        
+        List<Path> after = vectorsFiles();
+        assertThat(after).hasSize(1).doesNotContainAnyElementsOf(before);
+        assertThat(index.search(VECTORS.get("Up"), 3, null)).containsExactly("PROJ-2", "PROJ-3");
+        
+        index.close();
+        opened.remove(index);
+        VectorIndex reopened = open();
+        assertThat(reopened.search(VECTORS.get("Up"), 3, null)).containsExactly("PROJ-2", "PROJ-3");
+    }
+    
+    private VectorIndex open() throws IOException {
+        VectorIndex vectorIndex = new VectorIndex();
+        ReflectionTestUtils.setField(vectorIndex, "jiraTicketRepository", jiraTicketRepository);
+        ReflectionTestUtils.setField(vectorIndex, "embeddingService", embeddingService);
+        ReflectionTestUtils.setField(vectorIndex, "ticketOrdinals", ticketOrdinals);
+        ReflectionTestUtils.setField(vectorIndex, "indexPath", indexDirectory.toString());
+        ReflectionTestUtils.setField(vectorIndex, "m", 4);
+        ReflectionTestUtils.setField(vectorIndex, "efConstruction", 16);
+        ReflectionTestUtils.setField(vectorIndex, "efSearch", 16);
+        ReflectionTestUtils.setField(vectorIndex, "exactSearchThreshold", 2000);
+        ReflectionTestUtils.setField(vectorIndex, "maxDeletedRatio", 0.2);
+        ReflectionTestUtils.setField(vectorIndex, "pageSize", 1000);
+        vectorIndex.open();
+        opened.add(vectorIndex);
+        return vectorIndex;
+    }
+    
+    private List<Path> vectorsFiles() throws IOException {
+        try (Stream<Path> files = Files.list(indexDirectory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".i8")).collect(Collectors.toList());
+        }
+    }
+    
+    private static TicketCandidate candidate(String ticketKey, String summary) {
+        TicketCandidate candidate = mock(TicketCandidate.class);
+        when(candidate.getTicketKey()).thenReturn(ticketKey);
+        when(candidate.getSummary()).thenReturn(summary);
+        return candidate;
+    }
+}
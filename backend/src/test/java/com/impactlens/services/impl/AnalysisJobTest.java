@@ -0,0 +1,96 @@
+package com.impactlens.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.impactlens.dto.AnalysisRequest;
+import com.impactlens.dto.AnalysisResponse;
+import com.impactlens.services.AnalysisService;
+
+class AnalysisJobTest {
+    
+    @Test
+    void tracksRunningStagesAndCompletion() {
+        AnalysisJob job = new AnalysisJob(UUID.randomUUID(), "PROJ-1");
+        assertThat(job.getStatus()).isEqualTo(AnalysisJob.QUEUED);
+        
+        job.markRunning();
+        job.onStageStarted("gapAnalysis");
+        job.onStageStarted("regressionAreas");
+        assertThat(job.getCurrentStage()).isEqualTo("gapAnalysis,regressionAreas");
+        job.onStageCompleted("gapAnalysis", 10);
+        assertThat(job.toResponse().getStage()).isEqualTo("regressionAreas");
+        
+        AnalysisResponse result = new AnalysisResponse();
+        result.setReport(new AnalysisResponse.AnalysisReport());
+        result.setMetadata(new AnalysisResponse.AnalysisMetadata());
+        job.complete(result);
+        
+        AnalysisResponse response = job.toResponse();
+        assertThat(response.getStatus()).isEqualTo(AnalysisJob.COMPLETED);
+        assertThat(response.getAnalysisId()).isEqualTo(job.getAnalysisId());
+        assertThat(response.getStage()).isNull();
+        assertThat(response.getReport()).isSameAs(result.getReport());
+        assertThat(job.isFinished()).isTrue();
+    }
+    
+    @Test
+    void reportsTheCauseOfAFailure() {
+        AnalysisJob job = new AnalysisJob(UUID.randomUUID(), "PROJ-1");
+        job.fail(new RuntimeException("Analysis failed", new IllegalStateException("Jira unavailable")));
+        
+        AnalysisResponse response = job.toResponse();
+        assertThat(response.getStatus()).isEqualTo(AnalysisJob.FAILED);
+        assertThat(response.getErrorMessage()).isEqualTo("Jira unavailable");
+        assertThat(response.getReport()).isNull();
+    }
+    
+    @Test
+    void registryEvictsOnlyFinishedJobsPastRetention() {
+        AnalysisJobRegistry registry = new AnalysisJobRegistry();
+        ReflectionTestUtils.setField(registry, "retentionMillis", 60_000L);
+        AnalysisJob running = registry.create("PROJ-1");
+        AnalysisJob recent = registry.create("PROJ-2");
+        AnalysisJob expired = registry.create("PROJ-3");
+        recent.complete(new AnalysisResponse());
+        expired.complete(new AnalysisResponse());
+        ReflectionTestUtils.setField(expired, "finishedAt", LocalDateTime.now().minusMinutes(5));
+        
+        registry.evictFinishedJobs();
+        
+        assertThat(registry.get(running.getAnalysisId())).isSameAs(running);
+        assertThat(registry.get(recent.getAnalysisId())).isSameAs(recent);
+        assertThat(registry.get(expired.getAnalysisId())).isNull();
+    }
+    
+    @Test
+    void runnerRecordsTheOutcomeOnTheJob() {
+        AnalysisService analysisService = mock(AnalysisService.class);
+        AnalysisJobRunner runner = new AnalysisJobRunner();
+        ReflectionTestUtils.setField(runner, "analysisService", analysisService);
+        AnalysisRequest request = new AnalysisRequest();
+        AnalysisResponse result = new AnalysisResponse();
+        AnalysisJob succeeding = new AnalysisJob(UUID.randomUUID(), "PROJ-1");
+        AnalysisJob failing = new AnalysisJob(UUID.randomUUID(), "PROJ-2");
+        when(analysisService.analyzeTicket(same(request), any(), same(succeeding))).thenReturn(result);
+        when(analysisService.analyzeTicket(same(request), any(), same(failing)))
+            .thenThrow(new RuntimeException("model down"));
+        
+        runner.run(succeeding, request, mock(Authentication.class));
+        runner.run(failing, request, mock(Authentication.class));
+        
+        assertThat(succeeding.getStatus()).isEqualTo(AnalysisJob.COMPLETED);
+        assertThat(failing.getStatus()).isEqualTo(AnalysisJob.FAILED);
+        assertThat(failing.toResponse().getErrorMessage()).isEqualTo("model down");
+    }
+}
@@ -0,0 +1,76 @@
+package com.impactlens.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.impactlens.dto.AnalysisRequest;
+
+class AnalysisKeysTest {
+    
+    @Test
+    void equalOptionsGiveEqualKeys() {
+        AnalysisRequest.AnalysisOptions first = options(0.5);
+        first.setAnalysisDepth(" Detailed ");
+        first.setCandidateFilter(filter(List.of("Open", "done")));
+        AnalysisRequest.AnalysisOptions second = options(0.50);
+        second.setAnalysisDepth("detailed");
+        second.setCandidateFilter(filter(List.of("DONE", "open", "Open")));
+        
+        assertThat(AnalysisKeys.cacheKey(new AnalysisRequest(" proj-1", first)))
+            .isEqualTo(AnalysisKeys.cacheKey(new AnalysisRequest("PROJ-1", second)));
+        assertThat(key(0.0)).isEqualTo(key(-0.0)).endsWith("min=0");
+        assertThat(key(1.0)).endsWith("min=1");
+    }
+    
+    @Test
+    void distinctOptionsGiveDistinctKeys() {
+        // Thresholds that rounded to the same two decimals used to share a key
+        assertThat(key(0.501)).isNotEqualTo(key(0.5)).endsWith("min=0.501");
+        assertThat(key(0.3)).isNotEqualTo(key(0.3000001));
+        
+        AnalysisRequest.AnalysisOptions transitive = options(0.5);
+        transitive.setTransitiveDepth(2);
+        AnalysisRequest.AnalysisOptions filtered = options(0.5);
+        filtered.setCandidateFilter(filter(List.of("open")));
+        AnalysisRequest.AnalysisOptions fewer = options(0.5);
+        fewer.setMaxRelatedTickets(5);
+        
+        assertThat(List.of(key(0.5), key(transitive), key(filtered), key(fewer),
+                AnalysisKeys.cacheKey(new AnalysisRequest("PROJ-2", options(0.5)))))
+            .doesNotHaveDuplicates();
+    }
+    
+    @Test
+    void versionedKeyIgnoresNanoseconds() {
+        LocalDateTime version = LocalDateTime.of(2024, 3, 1, 12, 0, 0, 123_456_000);
+        
+        assertThat(AnalysisKeys.versionedKey("PROJ-1:x", version.plusNanos(789)))
+            .isEqualTo(AnalysisKeys.versionedKey("PROJ-1:x", version));
+        assertThat(AnalysisKeys.versionedKey("PROJ-1:x", version.plusNanos(1_000)))
+            .isNotEqualTo(AnalysisKeys.versionedKey("PROJ-1:x", version));
+    }
+    
+    private static String key(double minRelevanceScore) {
+        return key(options(minRelevanceScore));
+    }
+    
+    private static String key(AnalysisRequest.AnalysisOptions options) {
+        return AnalysisKeys.cacheKey(new AnalysisRequest("PROJ-1", options));
+    }
+    
+    private static AnalysisRequest.AnalysisOptions options(double minRelevanceScore) {
+        AnalysisRequest.AnalysisOptions options = new AnalysisRequest.AnalysisOptions();
+        options.setMinRelevanceScore(minRelevanceScore);
+        return options;
+    }
+    
+    private static AnalysisRequest.CandidateFilter filter(List<String> statuses) {
+        AnalysisRequest.CandidateFilter filter = new AnalysisRequest.CandidateFilter();
+        filter.setStatuses(statuses);
+        return filter;
+    }
+}
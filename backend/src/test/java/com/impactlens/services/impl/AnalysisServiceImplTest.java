@@ -0,0 +1,429 @@
+package com.impactlens.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.DoubleSupplier;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.impactlens.dto.AnalysisRequest;
+import com.impactlens.dto.AnalysisResponse;
+import com.impactlens.dto.BatchAnalysisRequest;
+import com.impactlens.entities.JiraTicket;
+import com.impactlens.repositories.JiraTicketRepository;
+import com.impactlens.search.CandidateSearchRouter;
+import com.impactlens.search.KeywordExtractor;
+import com.impactlens.search.NearDuplicateDetector;
+import com.impactlens.search.TicketGraph;
+import com.impactlens.search.TicketOrdinals;
+import com.impactlens.services.JiraService;
+import com.impactlens.services.OpenAIService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AnalysisServiceImplTest {
+    
+    private static final long SOFT_TTL = 3_600_000L;
+    private static final long HARD_TTL = 86_400_000L;
+    
+    private final Map<String, JiraTicket> storedTickets = new HashMap<>();
+    private final Clock clock = Clock.fixed(Instant.parse("2024-03-01T12:00:00Z"), ZoneOffset.UTC);
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("analysis");
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    private AnalysisServiceImpl analysisService;
+    private JiraTicketRepository jiraTicketRepository;
+    private JiraService jiraService;
+    private OpenAIService openAIService;
+    private CandidateSearchRouter candidateSearchRouter;
+    private KeywordExtractor keywordExtractor;
+    private RelatedTicketSelector relatedTicketSelector;
+    private ValueOperations<String, String> refreshLocks;
+    
+    @BeforeEach
+    void setUp() {
+        jiraTicketRepository = mock(JiraTicketRepository.class);
+        jiraService = mock(JiraService.class);
+        openAIService = mock(OpenAIService.class);
+        candidateSearchRouter = mock(CandidateSearchRouter.class);
+        keywordExtractor = mock(KeywordExtractor.class);
+        relatedTicketSelector = mock(RelatedTicketSelector.class);
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        refreshLocks = mock(ValueOperations.class);
+        
+        when(jiraTicketRepository.findByTicketKeyIn(any())).thenAnswer(invocation -> {
+            Collection<String> keys = invocation.getArgument(0);
+            return keys.stream().map(storedTickets::get).filter(Objects::nonNull).collect(Collectors.toList());
+        });
+        when(jiraTicketRepository.findByTicketKey(any())).thenAnswer(invocation ->
+            Optional.ofNullable(storedTickets.get(invocation.<String>getArgument(0))));
+        when(jiraTicketRepository.findUpdatedAtByTicketKey(any())).thenAnswer(invocation ->
+            Optional.ofNullable(storedTickets.get(invocation.<String>getArgument(0)))
+                .map(JiraTicket::getUpdatedAt));
+        when(jiraService.fetchTicket(any())).thenThrow(new IllegalStateException("not in Jira"));
+        when(keywordExtractor.extract(any())).thenReturn(List.of("login"));
+        when(openAIService.performGapAnalysis(any(), anyList())).thenReturn(new AnalysisResponse.GapAnalysis());
+        when(openAIService.generateRegressionAreas(any(), anyList())).thenReturn(new ArrayList<>());
+        when(candidateSearchRouter.findCandidates(any(), any(), anyInt(), any())).thenReturn(new ArrayList<>());
+        when(redisTemplate.opsForValue()).thenReturn(refreshLocks);
+        when(refreshLocks.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+        when(relatedTicketSelector.select(any(), anyList(), anyList(), any(), any())).thenAnswer(invocation -> {
+            List<JiraTicket> candidates = invocation.getArgument(2);
+            return candidates.stream().map(candidate -> new ScoredTicket(candidate, 0.9)).collect(Collectors.toList());
+        });
+        
+        NearDuplicateDetector nearDuplicateDetector = new NearDuplicateDetector();
+        ReflectionTestUtils.setField(nearDuplicateDetector, "numHashes", 128);
+        ReflectionTestUtils.setField(nearDuplicateDetector, "bands", 16);
+        ReflectionTestUtils.setField(nearDuplicateDetector, "shingleSize", 3);
+        ReflectionTestUtils.setField(nearDuplicateDetector, "similarityThreshold", 0.8);
+        ReflectionTestUtils.setField(nearDuplicateDetector, "cacheSize", 100);
+        nearDuplicateDetector.init();
+        
+        Executor direct = Runnable::run;
+        analysisService = new AnalysisServiceImpl();
+        ReflectionTestUtils.setField(analysisService, "jiraService", jiraService);
+        ReflectionTestUtils.setField(analysisService, "openAIService", openAIService);
+        ReflectionTestUtils.setField(analysisService, "jiraTicketRepository", jiraTicketRepository);
+        ReflectionTestUtils.setField(analysisService, "analysisStageExecutor", direct);
+        ReflectionTestUtils.setField(analysisService, "analysisJobExecutor", direct);
+        ReflectionTestUtils.setField(analysisService, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(analysisService, "relatedTicketSelector", relatedTicketSelector);
+        ReflectionTestUtils.setField(analysisService, "candidateSearchRouter", candidateSearchRouter);
+        ReflectionTestUtils.setField(analysisService, "nearDuplicateDetector", nearDuplicateDetector);
+        ReflectionTestUtils.setField(analysisService, "keywordExtractor", keywordExtractor);
+        ReflectionTestUtils.setField(analysisService, "cacheManager", cacheManager);
+        ReflectionTestUtils.setField(analysisService, "relevanceEdgeStore", mock(RelevanceEdgeStore.class));
+        ReflectionTestUtils.setField(analysisService, "cascadeScorer", mock(CascadeScorer.class));
+        ReflectionTestUtils.setField(analysisService, "ticketGraph", mock(TicketGraph.class));
+        ReflectionTestUtils.setField(analysisService, "ticketOrdinals", new TicketOrdinals());
+        ReflectionTestUtils.setField(analysisService, "redisTemplate", redisTemplate);
+        ReflectionTestUtils.setField(analysisService, "maxCandidates", 50);
+        ReflectionTestUtils.setField(analysisService, "maxBatchCandidateRows", 2000);
+        ReflectionTestUtils.setField(analysisService, "maxTransitiveDepth", 4);
+        ReflectionTestUtils.setField(analysisService, "cacheSoftTtl", SOFT_TTL);
+        ReflectionTestUtils.setField(analysisService, "cacheHardTtl", HARD_TTL);
+        ReflectionTestUtils.setField(analysisService, "earlyRefreshBeta", 1.0);
+        ReflectionTestUtils.setField(analysisService, "refreshLockTtl", 60_000L);
+        ReflectionTestUtils.setField(analysisService, "clock", clock);
+        ReflectionTestUtils.setField(analysisService, "random", (DoubleSupplier) () -> 0.5);
+        analysisService.registerMetrics();
+    }
+    
+    @Test
+    void batchReturnsOneResponsePerRequestedTicketInOrder() {
+        store("PROJ-1", "Login fails");
+        store("PROJ-2", "Login is slow");
+        
+        List<AnalysisResponse> responses = analysisService.analyzeTickets(
+            new BatchAnalysisRequest(List.of("PROJ-2", "PROJ-1", "PROJ-9", "PROJ-2"), basicOptions()), null);
+        
+        assertThat(responses).hasSize(4);
+        assertThat(responses.get(0).getReport().getSourceTicket().getTicketKey()).isEqualTo("PROJ-2");
+        assertThat(responses.get(1).getReport().getSourceTicket().getTicketKey()).isEqualTo("PROJ-1");
+        assertThat(responses.get(2).getStatus()).isEqualTo("failed");
+        assertThat(responses.get(2).getErrorMessage()).startsWith("PROJ-9");
+        assertThat(responses.get(3).getReport().getSourceTicket().getTicketKey()).isEqualTo("PROJ-2");
+        
+        // Repeated tickets are analyzed once
+        verify(openAIService, times(2)).performGapAnalysis(any(), anyList());
+    }
+    
+    @Test
+    void batchSharesOneCandidateSearchBetweenAllTickets() {
+        JiraTicket first = store("PROJ-1", "Login fails");
+        JiraTicket second = store("PROJ-2", "Login is slow");
+        JiraTicket candidate = store("PROJ-3", "Session expires");
+        when(candidateSearchRouter.findCandidates(anyMap(), eq(50), any())).thenReturn(Map.of(
+            "PROJ-1", List.of(candidate),
+            "PROJ-2", List.of()));
+        
+        List<AnalysisResponse> responses = analysisService.analyzeTickets(
+            new BatchAnalysisRequest(List.of("PROJ-1", "PROJ-2"), basicOptions()), null);
+        
+        ArgumentCaptor<Map<JiraTicket, Collection<String>>> keywords = ArgumentCaptor.forClass(Map.class);
+        verify(candidateSearchRouter, times(1)).findCandidates(keywords.capture(), eq(50), any());
+        verify(candidateSearchRouter, never()).findCandidates(any(), any(), anyInt(), any());
+        assertThat(keywords.getValue()).containsOnlyKeys(first, second);
+        assertThat(keywords.getValue().get(first)).containsExactly("login");
+        assertThat(responses.get(0).getReport().getRelatedTickets())
+            .extracting(AnalysisResponse.RelatedTicket::getTicketKey)
+            .containsExactly("PROJ-3");
+        assertThat(responses.get(1).getReport().getRelatedTickets()).isEmpty();
+    }
+    
+    @Test
+    void batchSearchesChunksWithinTheRowCapAndScoresEachBeforeTheNext() {
+        JiraTicket first = store("PROJ-1", "Login fails");
+        JiraTicket second = store("PROJ-2", "Login is slow");
+        JiraTicket third = store("PROJ-3", "Login hangs");
+        ReflectionTestUtils.setField(analysisService, "maxBatchCandidateRows", 100);
+        when(candidateSearchRouter.candidateRowsPerTicket(eq(50), any())).thenReturn(50);
+        
+        List<AnalysisResponse> responses = analysisService.analyzeTickets(
+            new BatchAnalysisRequest(List.of("PROJ-1", "PROJ-2", "PROJ-3"), basicOptions()), null);
+        
+        assertThat(responses).extracting(AnalysisResponse::getStatus).containsOnly("completed");
+        // Two tickets of 50 rows fit in 100; the third is searched once both are analyzed
+        ArgumentCaptor<Map<JiraTicket, Collection<String>>> chunks = ArgumentCaptor.forClass(Map.class);
+        InOrder inOrder = inOrder(candidateSearchRouter, openAIService);
+        inOrder.verify(candidateSearchRouter).findCandidates(chunks.capture(), eq(50), any());
+        inOrder.verify(openAIService, times(2)).performGapAnalysis(any(), anyList());
+        inOrder.verify(candidateSearchRouter).findCandidates(chunks.capture(), eq(50), any());
+        inOrder.verify(openAIService).performGapAnalysis(any(), anyList());
+        assertThat(chunks.getAllValues()).extracting(Map::keySet)
+            .containsExactly(Set.of(first, second), Set.of(third));
+    }
+    
+    @Test
+    void batchServesTicketsAnalyzedBeforeFromTheCache() {
+        store("PROJ-1", "Login fails");
+        store("PROJ-2", "Login is slow");
+        analysisService.analyzeTickets(new BatchAnalysisRequest(List.of("PROJ-1"), basicOptions()), null);
+        
+        List<AnalysisResponse> responses = analysisService.analyzeTickets(
+            new BatchAnalysisRequest(List.of("PROJ-1", "PROJ-2"), basicOptions()), null);
+        
+        assertThat(responses.get(0).getMetadata().isCacheHit()).isTrue();
+        assertThat(responses.get(1).getMetadata().isCacheHit()).isFalse();
+        verify(openAIService, times(2)).performGapAnalysis(any(), anyList());
+        
+        // A single analysis with the same options reads the same entry
+        AnalysisResponse single = analysisService.analyzeTicket(new AnalysisRequest("PROJ-2", basicOptions()), null);
+        assertThat(single.getMetadata().isCacheHit()).isTrue();
+        verify(openAIService, times(2)).performGapAnalysis(any(), anyList());
+    }
+    
+    @Test
+    void cacheHitsLeaveTheCachedAnalysisUnchanged() {
+        store("PROJ-1", "Login fails");
+        AnalysisRequest request = new AnalysisRequest("PROJ-1", basicOptions());
+        // The map cache hands out the stored instance, as the local tier does
+        AnalysisResponse cached = analysisService.analyzeTicket(request, null);
+        
+        AnalysisResponse single = analysisService.analyzeTicket(request, null);
+        AnalysisResponse batched = analysisService.analyzeTickets(
+            new BatchAnalysisRequest(List.of("PROJ-1"), basicOptions()), null).get(0);
+        
+        assertThat(single.getMetadata().isCacheHit()).isTrue();
+        assertThat(batched.getMetadata().isCacheHit()).isTrue();
+        assertThat(single.getMetadata()).isNotSameAs(batched.getMetadata());
+        assertThat(single.getAnalysisId()).isEqualTo(cached.getAnalysisId());
+        assertThat(single.getMetadata().getCompletedAt()).isEqualTo(cached.getMetadata().getCompletedAt());
+        assertThat(cached.getMetadata().isCacheHit()).isFalse();
+    }
+    
+    @Test
+    void analysesWithinTheSoftTtlAreServedWithoutARefresh() {
+        AnalysisRequest request = cacheAnalysis(SOFT_TTL - 60_000, 0);
+        
+        AnalysisResponse response = analysisService.analyzeTicket(request, null);
+        
+        assertThat(response.getMetadata().isCacheHit()).isTrue();
+        verify(openAIService, times(1)).performGapAnalysis(any(), anyList());
+        verify(refreshLocks, never()).setIfAbsent(anyString(), anyString(), any(Duration.class));
+    }
+    
+    @Test
+    void analysesPastTheSoftTtlAreServedAndRefreshedUnderTheLock() {
+        AnalysisRequest request = cacheAnalysis(SOFT_TTL + 1_000, 0);
+        
+        AnalysisResponse response = analysisService.analyzeTicket(request, null);
+        
+        assertThat(response.getMetadata().isCacheHit()).isTrue();
+        verify(refreshLocks).setIfAbsent("impactlens:analysis-refresh:" + AnalysisKeys.cacheKey(request), "1",
+            Duration.ofMillis(60_000));
+        verify(openAIService, times(2)).performGapAnalysis(any(), anyList());
+        assertThat(refreshes("expired")).isEqualTo(1);
+        
+        // The refresh replaced the cached analysis
+        AnalysisResponse refreshed = analysisService.analyzeTicket(request, null);
+        assertThat(refreshed.getMetadata().getCompletedAt()).isEqualTo(LocalDateTime.now(clock));
+    }
+    
+    @Test
+    void refreshesLockedByAnotherNodeAreSkipped() {
+        AnalysisRequest request = cacheAnalysis(SOFT_TTL + 1_000, 0);
+        when(refreshLocks.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+        
+        AnalysisResponse response = analysisService.analyzeTicket(request, null);
+        
+        assertThat(response.getMetadata().isCacheHit()).isTrue();
+        verify(openAIService, times(1)).performGapAnalysis(any(), anyList());
+        assertThat(refreshes("expired")).isZero();
+    }
+    
+    @Test
+    void analysesPastTheHardTtlAreRecomputedInline() {
+        AnalysisRequest request = cacheAnalysis(HARD_TTL + 1_000, 0);
+        
+        AnalysisResponse response = analysisService.analyzeTicket(request, null);
+        
+        assertThat(response.getMetadata().isCacheHit()).isFalse();
+        assertThat(response.getMetadata().getCompletedAt()).isEqualTo(LocalDateTime.now(clock));
+        verify(openAIService, times(2)).performGapAnalysis(any(), anyList());
+        verify(refreshLocks, never()).setIfAbsent(anyString(), anyString(), any(Duration.class));
+    }
+    
+    @Test
+    void expensiveAnalysesRefreshEarlyOnlyWhenTheDrawReachesTheSoftTtl() {
+        // 10s before the soft TTL; a 5s analysis moves it by 5s * -ln(1 - draw)
+        AnalysisRequest request = cacheAnalysis(SOFT_TTL - 10_000, 5_000);
+        
+        analysisService.analyzeTicket(request, null);
+        verify(openAIService, times(1)).performGapAnalysis(any(), anyList());
+        
+        ReflectionTestUtils.setField(analysisService, "random", (DoubleSupplier) () -> 0.99);
+        analysisService.analyzeTicket(request, null);
+        verify(openAIService, times(2)).performGapAnalysis(any(), anyList());
+        assertThat(refreshes("early")).isEqualTo(1);
+        assertThat(refreshes("expired")).isZero();
+    }
+    
+    @Test
+    void basicAnalysesSearchWithLocalKeywordsOnly() {
+        store("PROJ-1", "Login fails");
+        when(keywordExtractor.extract(any())).thenReturn(List.of("Login", "timeout"));
+        
+        analysisService.analyzeTicket(new AnalysisRequest("PROJ-1", basicOptions()), null);
+        
+        assertThat(searchedKeywords()).containsExactly("login", "timeout");
+        verify(openAIService, never()).extractKeywords(any());
+    }
+    
+    @Test
+    void deeperAnalysesMergeModelKeywordsBeforeLocalOnes() {
+        store("PROJ-1", "Login fails");
+        when(keywordExtractor.extract(any())).thenReturn(List.of("login", "timeout"));
+        when(openAIService.extractKeywords(any())).thenReturn(List.of("Session", " Login "));
+        AnalysisRequest.AnalysisOptions options = new AnalysisRequest.AnalysisOptions();
+        options.setAnalysisDepth("detailed");
+        
+        analysisService.analyzeTicket(new AnalysisRequest("PROJ-1", options), null);
+        
+        assertThat(searchedKeywords()).containsExactly("session", "login", "timeout");
+    }
+    
+    @Test
+    void basicAnalysesAskTheModelUntilTheIndexIsReady() {
+        store("PROJ-1", "Login fails");
+        when(keywordExtractor.extract(any())).thenReturn(List.of());
+        when(openAIService.extractKeywords(any())).thenReturn(List.of("Session"));
+        
+        analysisService.analyzeTicket(new AnalysisRequest("PROJ-1", basicOptions()), null);
+        
+        assertThat(searchedKeywords()).containsExactly("session");
+    }
+    
+    @Test
+    void reportsUseFullRowsInTheSelectedOrderWithTheirScores() {
+        store("PROJ-1", "Login fails");
+        JiraTicket fullSecond = store("PROJ-2", "Login is slow");
+        JiraTicket fullThird = store("PROJ-3", "Session expires");
+        JiraTicket unstored = projection("PROJ-8", "Export hangs");
+        List<JiraTicket> candidates = List.of(projection("PROJ-3", "Session expires"),
+            projection("PROJ-2", "Login is slow"), unstored);
+        when(candidateSearchRouter.findCandidates(any(JiraTicket.class), any(), anyInt(), any())).thenReturn(candidates);
+        when(relatedTicketSelector.select(any(), anyList(), anyList(), any(), any())).thenAnswer(invocation -> {
+            List<JiraTicket> selected = invocation.getArgument(2);
+            List<Double> scores = List.of(0.9, 0.7, 0.5);
+            List<ScoredTicket> scored = new ArrayList<>();
+            for (int i = 0; i < selected.size(); i++) {
+                scored.add(new ScoredTicket(selected.get(i), scores.get(i)));
+            }
+            return scored;
+        });
+        
+        AnalysisResponse response = analysisService.analyzeTicket(new AnalysisRequest("PROJ-1", basicOptions()), null);
+        
+        assertThat(response.getReport().getRelatedTickets())
+            .extracting(AnalysisResponse.RelatedTicket::getTicketKey, AnalysisResponse.RelatedTicket::getRelevanceScore)
+            .containsExactly(tuple("PROJ-3", 0.9), tuple("PROJ-2", 0.7), tuple("PROJ-8", 0.5));
+        ArgumentCaptor<List<JiraTicket>> analyzed = ArgumentCaptor.forClass(List.class);
+        verify(openAIService).performGapAnalysis(any(), analyzed.capture());
+        // Tickets missing from the database keep their projection
+        assertThat(analyzed.getValue()).containsExactly(fullThird, fullSecond, unstored);
+    }
+    
+    private static JiraTicket projection(String ticketKey, String summary) {
+        JiraTicket ticket = new JiraTicket(ticketKey, null);
+        ticket.setSummary(summary);
+        ticket.setDescription(summary);
+        return ticket;
+    }
+    
+    /**
+     * Analyze PROJ-1 and leave it in the cache as computed ageMillis ago,
+     * having taken processingTime
+     */
+    private AnalysisRequest cacheAnalysis(long ageMillis, long processingTime) {
+        JiraTicket ticket = store("PROJ-1", "Login fails");
+        AnalysisRequest request = new AnalysisRequest("PROJ-1", basicOptions());
+        AnalysisResponse cached = analysisService.analyzeTicket(request, null);
+        cached.getMetadata().setCompletedAt(LocalDateTime.now(clock).minus(Duration.ofMillis(ageMillis)));
+        cached.getMetadata().setProcessingTime(processingTime);
+        cacheManager.getCache("analysis").put(
+            AnalysisKeys.versionedKey(AnalysisKeys.cacheKey(request), ticket.getUpdatedAt()), cached);
+        return request;
+    }
+    
+    private double refreshes(String trigger) {
+        return meterRegistry.get("impactlens.analysis.cache.refreshes").tag("trigger", trigger).counter().count();
+    }
+    
+    private Collection<String> searchedKeywords() {
+        ArgumentCaptor<Collection<String>> keywords = ArgumentCaptor.forClass(Collection.class);
+        verify(candidateSearchRouter).findCandidates(any(JiraTicket.class), keywords.capture(), eq(50), any());
+        return keywords.getValue();
+    }
+    
+    private JiraTicket store(String ticketKey, String summary) {
+        JiraTicket ticket = new JiraTicket(ticketKey, null);
+        ticket.setSummary(summary);
+        ticket.setDescription(summary);
+        ticket.setUpdatedAt(LocalDateTime.now().minusDays(1));
+        storedTickets.put(ticketKey, ticket);
+        return ticket;
+    }
+    
+    private static AnalysisRequest.AnalysisOptions basicOptions() {
+        AnalysisRequest.AnalysisOptions options = new AnalysisRequest.AnalysisOptions();
+        options.setAnalysisDepth("basic");
+        return options;
+    }
+}
@@ -0,0 +1,110 @@
+package com.impactlens.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.impactlens.entities.JiraTicket;
+import com.impactlens.search.LexicalSimilarity;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CascadeScorerTest {
+    
+    private final JiraTicket source = new JiraTicket("PROJ-0", null);
+    private final List<List<String>> modelRounds = new ArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private LexicalSimilarity lexicalSimilarity;
+    private CascadeScorer cascadeScorer;
+    
+    @BeforeEach
+    void setUp() {
+        lexicalSimilarity = mock(LexicalSimilarity.class);
+        when(lexicalSimilarity.isReady()).thenReturn(true);
+        
+        cascadeScorer = new CascadeScorer();
+        ReflectionTestUtils.setField(cascadeScorer, "lexicalSimilarity", lexicalSimilarity);
+        ReflectionTestUtils.setField(cascadeScorer, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(cascadeScorer, "enabled", true);
+        ReflectionTestUtils.setField(cascadeScorer, "modelFraction", 0.3);
+        ReflectionTestUtils.setField(cascadeScorer, "borderlineAbove", 0.15);
+        ReflectionTestUtils.setField(cascadeScorer, "rejectBelow", 0.05);
+        cascadeScorer.registerMetrics();
+    }
+    
+    @Test
+    void sendsTheTopShareAndBorderlineCandidatesToTheModelInCandidateOrder() {
+        List<JiraTicket> round = tickets(10);
+        when(lexicalSimilarity.similarities(any(), anyList()))
+            .thenReturn(new double[] {0.9, 0.02, 0.5, 0.2, 0.1, 0.16, 0.03, 0.12, 0.4, 0.01});
+        
+        List<Double> scores = cascadeScorer.cascade(source, modelScorer(0.9, 0.8, 0.7, 0.6, 0.5)).apply(round);
+        
+        // PROJ-1, PROJ-3 and PROJ-9 are the top 30%; PROJ-4 and PROJ-6 are borderline
+        assertThat(modelRounds).containsExactly(List.of("PROJ-1", "PROJ-3", "PROJ-4", "PROJ-6", "PROJ-9"));
+        assertThat(scores).containsExactly(0.9, 0.0, 0.8, 0.7, 0.0, 0.6, 0.0, 0.0, 0.5, 0.0);
+        assertThat(tierCount("top")).isEqualTo(3);
+        assertThat(tierCount("borderline")).isEqualTo(2);
+        assertThat(tierCount("rejected")).isEqualTo(5);
+    }
+    
+    @Test
+    void rejectsEvenTheTopCandidatesBelowTheFloor() {
+        when(lexicalSimilarity.similarities(any(), anyList())).thenReturn(new double[] {0.04, 0.01});
+        
+        List<Double> scores = cascadeScorer.cascade(source, modelScorer()).apply(tickets(2));
+        
+        assertThat(scores).containsExactly(0.0, 0.0);
+        assertThat(modelRounds).isEmpty();
+        assertThat(tierCount("rejected")).isEqualTo(2);
+    }
+    
+    @Test
+    void passesEveryCandidateToTheModelUntilTheIndexIsReady() {
+        when(lexicalSimilarity.isReady()).thenReturn(false);
+        
+        List<Double> scores = cascadeScorer.cascade(source, modelScorer(0.3, 0.2)).apply(tickets(2));
+        
+        assertThat(scores).containsExactly(0.3, 0.2);
+        assertThat(modelRounds).containsExactly(List.of("PROJ-1", "PROJ-2"));
+        assertThat(tierCount("unfiltered")).isEqualTo(2);
+    }
+    
+    @Test
+    void returnsTheModelScorerItselfWhenDisabled() {
+        ReflectionTestUtils.setField(cascadeScorer, "enabled", false);
+        Function<List<JiraTicket>, List<Double>> modelScorer = modelScorer();
+        
+        assertThat(cascadeScorer.cascade(source, modelScorer)).isSameAs(modelScorer);
+    }
+    
+    private Function<List<JiraTicket>, List<Double>> modelScorer(Double... scores) {
+        return round -> {
+            modelRounds.add(round.stream().map(JiraTicket::getTicketKey).collect(Collectors.toList()));
+            return List.of(scores);
+        };
+    }
+    
+    private double tierCount(String tier) {
+        return meterRegistry.get("impactlens.relevance.cascade").tag("tier", tier).counter().count();
+    }
+    
+    private static List<JiraTicket> tickets(int count) {
+        List<JiraTicket> tickets = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            tickets.add(new JiraTicket("PROJ-" + i, null));
+        }
+        return tickets;
+    }
+}
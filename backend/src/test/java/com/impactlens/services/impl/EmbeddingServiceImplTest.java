@@ -0,0 +1,125 @@
+package com.impactlens.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.impactlens.services.OpenAIService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EmbeddingServiceImplTest {
+    
+    private final AtomicInteger batches = new AtomicInteger();
+    private final Executor embeddingExecutor = task -> {
+        batches.incrementAndGet();
+        task.run();
+    };
+    private SimpleMeterRegistry meterRegistry;
+    private OpenAIService openAIService;
+    private EmbeddingServiceImpl embeddingService;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        openAIService = mock(OpenAIService.class);
+        embeddingService = service("local", meterRegistry);
+    }
+    
+    @Test
+    void similarTextsAreCloserThanUnrelatedOnes() {
+        float[] login = embeddingService.embed("Login page times out after the session expires");
+        float[] similar = embeddingService.embed("Session expiry makes the login page time out");
+        float[] unrelated = embeddingService.embed("Monthly invoice export writes an empty CSV file");
+        
+        assertThat(cosine(login, similar)).isGreaterThan(cosine(login, unrelated) + 0.3);
+    }
+    
+    @Test
+    void vectorsAreDeterministicAndUnitLength() {
+        String text = "Checkout fails when the payment provider times out";
+        float[] vector = embeddingService.embed(text);
+        // A fresh instance has nothing cached and embeds the text again
+        float[] again = service("local", new SimpleMeterRegistry()).embed(text);
+        
+        assertThat(vector).hasSize(64).containsExactly(again);
+        assertThat(cosine(vector, vector)).isCloseTo(1.0, within(1e-5));
+        assertThat(embeddingService.embed("")).containsOnly(0f);
+    }
+    
+    @Test
+    void unchangedTextIsServedFromTheHashCache() {
+        SimpleMeterRegistry openAIRegistry = new SimpleMeterRegistry();
+        EmbeddingServiceImpl openAI = service("openai", openAIRegistry);
+        when(openAIService.generateEmbedding(anyString())).thenReturn(new float[] {0.6f, 0.8f});
+        
+        List<float[]> vectors = openAI.embedAll(List.of("Login fails", "Login fails", "Search is slow"));
+        float[] cached = openAI.embed("Login fails");
+        
+        verify(openAIService, times(1)).generateEmbedding("Login fails");
+        verify(openAIService, times(1)).generateEmbedding("Search is slow");
+        assertThat(cached).isSameAs(vectors.get(0)).isSameAs(vectors.get(1));
+        assertThat(openAIRegistry.get("impactlens.embedding.texts").counter().count()).isEqualTo(2);
+        assertThat(openAIRegistry.get("impactlens.embedding.cache-hits").counter().count()).isEqualTo(2);
+    }
+    
+    @Test
+    void splitsMissingTextsIntoBatchesAndRecordsThroughput() {
+        assertThat(throughput()).isZero();
+        
+        List<float[]> vectors = embeddingService.embedAll(
+            List.of("login", "logout", "search", "checkout", "export", "login"));
+        
+        // Five distinct texts in batches of two
+        assertThat(vectors).hasSize(6);
+        assertThat(vectors.get(5)).isSameAs(vectors.get(0));
+        assertThat(batches.get()).isEqualTo(3);
+        assertThat(meterRegistry.get("impactlens.embedding.batch").timer().count()).isEqualTo(3);
+        assertThat(throughput()).isPositive();
+        
+        // Calls with fewer new texts than one batch leave the value alone
+        double throughput = throughput();
+        embeddingService.embedAll(List.of("login", "import"));
+        assertThat(batches.get()).isEqualTo(4);
+        assertThat(throughput()).isEqualTo(throughput);
+    }
+    
+    private EmbeddingServiceImpl service(String provider, SimpleMeterRegistry registry) {
+        EmbeddingServiceImpl service = new EmbeddingServiceImpl();
+        ReflectionTestUtils.setField(service, "openAIService", openAIService);
+        ReflectionTestUtils.setField(service, "embeddingExecutor", embeddingExecutor);
+        ReflectionTestUtils.setField(service, "meterRegistry", registry);
+        ReflectionTestUtils.setField(service, "provider", provider);
+        ReflectionTestUtils.setField(service, "localDimensions", 64);
+        ReflectionTestUtils.setField(service, "openAIDimensions", 2);
+        ReflectionTestUtils.setField(service, "bigramWeight", 0.5);
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "cacheSize", 100);
+        service.init();
+        return service;
+    }
+    
+    private double throughput() {
+        return meterRegistry.get("impactlens.embedding.throughput").gauge().value();
+    }
+    
+    private static double cosine(float[] a, float[] b) {
+        double dot = 0;
+        for (int i = 0; i < a.length; i++) {
+            dot += a[i] * b[i];
+        }
+        return dot;
+    }
+}
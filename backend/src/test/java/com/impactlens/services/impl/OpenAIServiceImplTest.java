@@ -0,0 +1,57 @@
+package com.impactlens.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.impactlens.entities.JiraTicket;
+
+class OpenAIServiceImplTest {
+    
+    private final AtomicInteger requests = new AtomicInteger();
+    private OpenAIServiceImpl openAIService;
+    
+    @BeforeEach
+    void setUp() {
+        Executor countingExecutor = task -> {
+            requests.incrementAndGet();
+            task.run();
+        };
+        openAIService = new OpenAIServiceImpl();
+        ReflectionTestUtils.setField(openAIService, "openAIRequestExecutor", countingExecutor);
+        ReflectionTestUtils.setField(openAIService, "relevanceBatchSize", 10);
+    }
+    
+    @Test
+    void scoresCandidatesInChunksOfTheBatchSize() {
+        List<Double> scores = openAIService.calculateRelevanceScores(ticket("PROJ-1"), candidates(25));
+        
+        assertThat(requests).hasValue(3);
+        assertThat(scores).hasSize(25).allSatisfy(score -> assertThat(score).isBetween(0.3, 0.9));
+    }
+    
+    @Test
+    void makesNoRequestWithoutCandidates() {
+        assertThat(openAIService.calculateRelevanceScores(ticket("PROJ-1"), new ArrayList<>())).isEmpty();
+        assertThat(requests).hasValue(0);
+    }
+    
+    private static List<JiraTicket> candidates(int count) {
+        List<JiraTicket> candidates = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            candidates.add(ticket("PROJ-" + (i + 2)));
+        }
+        return candidates;
+    }
+    
+    private static JiraTicket ticket(String ticketKey) {
+        return new JiraTicket(ticketKey, null);
+    }
+}
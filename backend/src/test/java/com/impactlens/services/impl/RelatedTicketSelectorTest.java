@@ -0,0 +1,158 @@
+package com.impactlens.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.impactlens.dto.AnalysisRequest;
+import com.impactlens.entities.JiraTicket;
+
+class RelatedTicketSelectorTest {
+    
+    private static final JiraTicket SOURCE = ticket("PROJ-1", "login page times out");
+    
+    private final List<String> scored = new ArrayList<>();
+    private RelatedTicketSelector selector;
+    
+    @BeforeEach
+    void setUp() {
+        selector = new RelatedTicketSelector();
+        ReflectionTestUtils.setField(selector, "roundSize", 1);
+        ReflectionTestUtils.setField(selector, "upperBoundBase", 0.5);
+    }
+    
+    @Test
+    void keepsTheTopScoresInRankOrder() {
+        List<ScoredTicket> selected = selector.select(SOURCE, List.of("login"),
+            List.of(ticket("PROJ-2", "login"), ticket("PROJ-3", "login"), ticket("PROJ-4", "login"),
+                ticket("PROJ-5", "login")),
+            options(2, 0.3), scorer(Map.of("PROJ-2", 0.4, "PROJ-3", 0.9, "PROJ-4", 0.2, "PROJ-5", 0.7)));
+        
+        assertThat(selected).extracting(related -> related.getTicket().getTicketKey()).containsExactly("PROJ-3", "PROJ-5");
+        assertThat(selected).extracting(ScoredTicket::getRank).containsExactly(1, 2);
+        assertThat(selected).extracting(ScoredTicket::getScore).containsExactly(0.9, 0.7);
+    }
+    
+    @Test
+    void scoresCandidatesThatShareNoKeywordByDefault() {
+        // A semantic match with no keyword in common still reaches the top
+        List<ScoredTicket> selected = selector.select(SOURCE, List.of("login", "timeout"),
+            List.of(ticket("PROJ-2", "login timeout"), ticket("PROJ-3", "sign-in session expiry")),
+            options(1, 0.3), scorer(Map.of("PROJ-2", 0.6, "PROJ-3", 0.95)));
+        
+        assertThat(scored).containsExactly("PROJ-2", "PROJ-3");
+        assertThat(selected).extracting(related -> related.getTicket().getTicketKey()).containsExactly("PROJ-3");
+    }
+    
+    @Test
+    void scoresEveryCandidateThatCouldStillEnterByDefault() {
+        List<ScoredTicket> selected = selector.select(SOURCE, List.of("login", "timeout"),
+            List.of(ticket("PROJ-2", "login timeout"), ticket("PROJ-3", "login timeout error"),
+                ticket("PROJ-4", "sign-in expiry"), ticket("PROJ-5", "session expiry")),
+            options(1, 0.3), scorer(Map.of("PROJ-2", 0.9, "PROJ-3", 0.95, "PROJ-4", 0.4, "PROJ-5", 0.99)));
+        
+        assertThat(scored).containsExactly("PROJ-2", "PROJ-3", "PROJ-4", "PROJ-5");
+        assertThat(selected).extracting(related -> related.getTicket().getTicketKey()).containsExactly("PROJ-5");
+    }
+    
+    @Test
+    void skipsTheRestOfATierThatCannotBeatTheFloor() {
+        ReflectionTestUtils.setField(selector, "observedBoundPruning", true);
+        
+        List<ScoredTicket> selected = selector.select(SOURCE, List.of("login", "timeout"),
+            List.of(ticket("PROJ-2", "login timeout"), ticket("PROJ-3", "login timeout error"),
+                ticket("PROJ-4", "sign-in expiry"), ticket("PROJ-5", "session expiry")),
+            options(1, 0.3), scorer(Map.of("PROJ-2", 0.9, "PROJ-3", 0.95, "PROJ-4", 0.4, "PROJ-5", 0.99)));
+        
+        // Each tier is sampled with one round; its best score then bounds the rest
+        assertThat(scored).containsExactly("PROJ-2", "PROJ-4");
+        assertThat(selected).extracting(related -> related.getTicket().getTicketKey()).containsExactly("PROJ-2");
+    }
+    
+    @Test
+    void dropsScoresBelowTheMinimum() {
+        ReflectionTestUtils.setField(selector, "roundSize", 2);
+        
+        List<ScoredTicket> selected = selector.select(SOURCE, List.of("login"),
+            List.of(ticket("PROJ-2", "login"), ticket("PROJ-3", "login")),
+            options(5, 0.5), scorer(Map.of("PROJ-2", 0.4, "PROJ-3", 0.8)));
+        
+        assertThat(selected).extracting(related -> related.getTicket().getTicketKey()).containsExactly("PROJ-3");
+    }
+    
+    @Test
+    void observedBoundPruningKeepsTheTopKWhenEachTierLeadsWithItsBest() {
+        List<String> keywords = List.of("login", "timeout", "session");
+        Random random = new Random(11);
+        for (int run = 0; run < 200; run++) {
+            List<JiraTicket> candidates = new ArrayList<>();
+            Map<String, Double> scores = new HashMap<>();
+            Map<Integer, String> tierLeaders = new HashMap<>();
+            int count = 1 + random.nextInt(60);
+            for (int i = 0; i < count; i++) {
+                int matched = random.nextInt(keywords.size() + 1);
+                String ticketKey = "PROJ-" + (i + 2);
+                candidates.add(ticket(ticketKey, "ticket " + String.join(" ", keywords.subList(0, matched))));
+                double score = random.nextDouble();
+                // The first candidate of each tier holds its best score
+                String leader = tierLeaders.putIfAbsent(matched, ticketKey);
+                if (leader != null && score > scores.get(leader)) {
+                    scores.put(ticketKey, scores.get(leader));
+                    scores.put(leader, score);
+                } else {
+                    scores.put(ticketKey, score);
+                }
+            }
+            AnalysisRequest.AnalysisOptions options = options(1 + random.nextInt(5), random.nextDouble() / 2);
+            ReflectionTestUtils.setField(selector, "roundSize", 1 + random.nextInt(5));
+            
+            ReflectionTestUtils.setField(selector, "observedBoundPruning", false);
+            List<String> unpruned = keys(selector.select(SOURCE, keywords, candidates, options, scorer(scores)));
+            ReflectionTestUtils.setField(selector, "observedBoundPruning", true);
+            List<String> pruned = keys(selector.select(SOURCE, keywords, candidates, options, scorer(scores)));
+            
+            List<String> exhaustive = scores.entrySet().stream()
+                .filter(entry -> entry.getValue() >= options.getMinRelevanceScore())
+                .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                .limit(options.getMaxRelatedTickets())
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+            assertThat(unpruned).isEqualTo(exhaustive);
+            assertThat(pruned).isEqualTo(unpruned);
+        }
+    }
+    
+    private static List<String> keys(List<ScoredTicket> selected) {
+        return selected.stream().map(related -> related.getTicket().getTicketKey()).collect(Collectors.toList());
+    }
+    
+    private Function<List<JiraTicket>, List<Double>> scorer(Map<String, Double> scores) {
+        return round -> {
+            round.forEach(ticket -> scored.add(ticket.getTicketKey()));
+            return round.stream().map(ticket -> scores.get(ticket.getTicketKey())).collect(Collectors.toList());
+        };
+    }
+    
+    private static AnalysisRequest.AnalysisOptions options(int maxRelated, double minScore) {
+        AnalysisRequest.AnalysisOptions options = new AnalysisRequest.AnalysisOptions();
+        options.setMaxRelatedTickets(maxRelated);
+        options.setMinRelevanceScore(minScore);
+        return options;
+    }
+    
+    private static JiraTicket ticket(String ticketKey, String summary) {
+        JiraTicket ticket = new JiraTicket(ticketKey, null);
+        ticket.setSummary(summary);
+        return ticket;
+    }
+}
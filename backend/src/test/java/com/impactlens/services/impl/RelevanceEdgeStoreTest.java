@@ -0,0 +1,150 @@
+package com.impactlens.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.impactlens.entities.JiraTicket;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Runs the edge lookup and batched upsert against PostgreSQL with the Flyway
+ * schema. Skipped when Docker is not available.
+ */
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=true",
+    "spring.jpa.hibernate.ddl-auto=none"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({RelevanceEdgeStore.class, RelevanceEdgeStoreTest.Metrics.class})
+@Testcontainers(disabledWithoutDocker = true)
+class RelevanceEdgeStoreTest {
+    
+    private static final LocalDateTime SOURCE_VERSION = LocalDateTime.of(2024, 3, 1, 10, 0, 0, 123_456_789);
+    private static final LocalDateTime CANDIDATE_VERSION = LocalDateTime.of(2024, 2, 1, 9, 30);
+    
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+    
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+    
+    @TestConfiguration
+    static class Metrics {
+        
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+    
+    @Autowired
+    private RelevanceEdgeStore relevanceEdgeStore;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private final List<List<String>> scored = new ArrayList<>();
+    
+    @Test
+    void reusesStoredScoresRoundedToTheColumnWhileBothTicketsAreUnchanged() {
+        JiraTicket source = ticket("PROJ-5", SOURCE_VERSION);
+        List<JiraTicket> candidates = List.of(ticket("PROJ-1", CANDIDATE_VERSION), ticket("PROJ-7", CANDIDATE_VERSION));
+        
+        assertThat(relevanceEdgeStore.score(source, candidates, scorer(0.456, 0.9))).containsExactly(0.456, 0.9);
+        assertThat(relevanceEdgeStore.score(source, candidates, scorer())).containsExactly(0.46, 0.9);
+        
+        assertThat(scored).containsExactly(List.of("PROJ-1", "PROJ-7"));
+    }
+    
+    @Test
+    void storesEachPairOnceWithTheLowerKeyFirst() {
+        JiraTicket source = ticket("PROJ-5", SOURCE_VERSION);
+        relevanceEdgeStore.score(source, List.of(ticket("PROJ-1", CANDIDATE_VERSION)), scorer(0.3));
+        
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+            "SELECT * FROM related_tickets WHERE related_ticket_key = 'PROJ-5'");
+        assertThat(row.get("source_ticket_key")).isEqualTo("PROJ-1");
+        assertThat(row.get("relevance_score")).isEqualTo(new BigDecimal("0.30"));
+        assertThat(row.get("source_updated_at")).isEqualTo(Timestamp.valueOf(CANDIDATE_VERSION));
+        assertThat(((Timestamp) row.get("related_updated_at")).toLocalDateTime())
+            .isEqualTo(SOURCE_VERSION.withNano(123_456_000));
+        
+        // Analysing the other ticket finds the same edge
+        assertThat(relevanceEdgeStore.score(ticket("PROJ-1", CANDIDATE_VERSION), List.of(source), scorer()))
+            .containsExactly(0.3);
+        assertThat(scored).hasSize(1);
+    }
+    
+    @Test
+    void rescoresAndReplacesTheEdgeOnceEitherTicketChanged() {
+        JiraTicket source = ticket("PROJ-5", SOURCE_VERSION);
+        relevanceEdgeStore.score(source, List.of(ticket("PROJ-1", CANDIDATE_VERSION)), scorer(0.3));
+        
+        JiraTicket changedCandidate = ticket("PROJ-1", CANDIDATE_VERSION.plusMinutes(1));
+        assertThat(relevanceEdgeStore.score(source, List.of(changedCandidate), scorer(0.6))).containsExactly(0.6);
+        JiraTicket changedSource = ticket("PROJ-5", SOURCE_VERSION.plusMinutes(1));
+        assertThat(relevanceEdgeStore.score(changedSource, List.of(changedCandidate), scorer(0.7))).containsExactly(0.7);
+        
+        assertThat(scored).hasSize(3);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM related_tickets", Integer.class)).isEqualTo(1);
+        assertThat(relevanceEdgeStore.score(changedSource, List.of(changedCandidate), scorer())).containsExactly(0.7);
+    }
+    
+    @Test
+    void treatsMissingVersionsAsStale() {
+        // Scored before the versions were recorded
+        jdbcTemplate.update("INSERT INTO related_tickets (source_ticket_key, related_ticket_key, relevance_score, " +
+            "relationship_type) VALUES ('PROJ-1', 'PROJ-5', 0.20, 'similar')");
+        JiraTicket source = ticket("PROJ-5", SOURCE_VERSION);
+        assertThat(relevanceEdgeStore.score(source, List.of(ticket("PROJ-1", CANDIDATE_VERSION)), scorer(0.4)))
+            .containsExactly(0.4);
+        
+        // A ticket without updated_at never matches, not even a stored null
+        JiraTicket undated = ticket("PROJ-8", null);
+        relevanceEdgeStore.score(source, List.of(undated), scorer(0.5));
+        assertThat(relevanceEdgeStore.score(source, List.of(undated), scorer(0.5))).containsExactly(0.5);
+        
+        assertThat(scored).hasSize(3);
+    }
+    
+    private Function<List<JiraTicket>, List<Double>> scorer(Double... scores) {
+        return candidates -> {
+            scored.add(candidates.stream().map(JiraTicket::getTicketKey).collect(Collectors.toList()));
+            return List.of(scores);
+        };
+    }
+    
+    private static JiraTicket ticket(String ticketKey, LocalDateTime updatedAt) {
+        JiraTicket ticket = new JiraTicket(ticketKey, null);
+        ticket.setUpdatedAt(updatedAt);
+        return ticket;
+    }
+}
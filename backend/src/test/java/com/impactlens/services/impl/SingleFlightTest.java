@@ -0,0 +1,117 @@
+package com.impactlens.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+    
+    private static final int FOLLOWERS = 5;
+    
+    private ExecutorService executor;
+    
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(FOLLOWERS + 1);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+    
+    @Test
+    void concurrentCallersShareOneComputation() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger computations = new AtomicInteger();
+        AtomicInteger sharedWith = new AtomicInteger(-1);
+        
+        Future<String> leader = executor.submit(() -> flight.execute("key", () -> {
+            computations.incrementAndGet();
+            awaitQuietly(release);
+            return "result";
+        }, (value, coalesced) -> sharedWith.set(coalesced)));
+        waitUntil(() -> flight.getInFlightCount() == 1);
+        
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < FOLLOWERS; i++) {
+            followers.add(executor.submit(() -> flight.execute("key", () -> {
+                computations.incrementAndGet();
+                return "duplicate";
+            }, (value, coalesced) -> { })));
+        }
+        waitUntil(() -> flight.getCoalescedCount() == FOLLOWERS);
+        release.countDown();
+        
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("result");
+        for (Future<String> follower : followers) {
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("result");
+        }
+        assertThat(computations).hasValue(1);
+        assertThat(sharedWith).hasValue(FOLLOWERS);
+        assertThat(flight.getInFlightCount()).isZero();
+    }
+    
+    @Test
+    void followersReceiveTheLeadersFailure() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>();
+        CountDownLatch release = new CountDownLatch(1);
+        
+        Future<String> leader = executor.submit(() -> flight.execute("key", () -> {
+            awaitQuietly(release);
+            throw new IllegalStateException("boom");
+        }, (value, coalesced) -> { }));
+        waitUntil(() -> flight.getInFlightCount() == 1);
+        Future<String> follower = executor.submit(() -> flight.execute("key", () -> "unused", (value, coalesced) -> { }));
+        waitUntil(() -> flight.getCoalescedCount() == 1);
+        release.countDown();
+        
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(flight.getInFlightCount()).isZero();
+    }
+    
+    @Test
+    void laterCallsComputeAgain() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        AtomicInteger computations = new AtomicInteger();
+        
+        flight.execute("key", computations::incrementAndGet, (value, coalesced) -> { });
+        int second = flight.execute("key", computations::incrementAndGet, (value, coalesced) -> { });
+        
+        assertThat(second).isEqualTo(2);
+        assertThat(flight.getCoalescedCount()).isZero();
+    }
+    
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not reached in time");
+            }
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.impactlens.services.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.impactlens.services.AnalysisStageListener;
+
+class StageGraphTest {
+    
+    private ExecutorService executor;
+    
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+    
+    @Test
+    void passesResultsAlongDependencies() {
+        StageGraph graph = new StageGraph(executor);
+        StageGraph.Stage<Integer> first = graph.stage("first", () -> 2);
+        StageGraph.Stage<Integer> second = graph.stage("second", () -> first.get() * 3, first);
+        StageGraph.Stage<String> third = graph.stage("third", () -> first.get() + "/" + second.get(), first, second);
+        
+        assertThat(graph.await(third)).isEqualTo("2/6");
+        assertThat(graph.getStageTimings()).containsOnlyKeys("first", "second", "third");
+        assertThat(graph.getStageTimings().keySet()).containsExactly("first", "second", "third");
+    }
+    
+    @Test
+    void runsIndependentStagesConcurrently() throws InterruptedException {
+        // Both stages wait for each other; they only finish if they overlap
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        StageGraph graph = new StageGraph(executor);
+        StageGraph.Stage<Boolean> left = graph.stage("left", () -> awaitLatch(bothStarted));
+        StageGraph.Stage<Boolean> right = graph.stage("right", () -> awaitLatch(bothStarted));
+        
+        assertThat(graph.await(left)).isTrue();
+        assertThat(graph.await(right)).isTrue();
+    }
+    
+    @Test
+    void rethrowsTheOriginalFailureAndSkipsDependents() {
+        StageGraph graph = new StageGraph(executor);
+        StageGraph.Stage<Integer> failing = graph.stage("failing", () -> {
+            throw new IllegalArgumentException("boom");
+        });
+        StageGraph.Stage<Integer> dependent = graph.stage("dependent", () -> failing.get() + 1, failing);
+        
+        assertThatThrownBy(() -> graph.await(dependent))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("boom");
+        assertThat(graph.getStageTimings()).containsOnlyKeys("failing");
+    }
+    
+    @Test
+    void reportsStagesToTheListener() {
+        List<String> events = new CopyOnWriteArrayList<>();
+        AnalysisStageListener listener = new AnalysisStageListener() {
+            @Override
+            public void onStageStarted(String stage) {
+                events.add("started:" + stage);
+            }
+            
+            @Override
+            public void onStageCompleted(String stage, long elapsedMillis) {
+                events.add("completed:" + stage);
+            }
+        };
+        StageGraph graph = new StageGraph(executor, listener);
+        StageGraph.Stage<Integer> first = graph.stage("first", () -> 1);
+        graph.await(graph.stage("second", () -> first.get() + 1, first));
+        
+        assertThat(events).containsExactly("started:first", "completed:first", "started:second", "completed:second");
+    }
+    
+    private static boolean awaitLatch(CountDownLatch latch) {
+        latch.countDown();
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}